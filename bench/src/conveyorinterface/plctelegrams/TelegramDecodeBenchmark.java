@@ -0,0 +1,133 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramDecodeBenchmark Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMH benchmarks of PLC frame parsing and dispatch
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package conveyorinterface.plctelegrams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import platform.core.log.Log;
+import platform.core.log.LogLevel;
+import platform.io.telegraph.TelegramFrame;
+
+/**
+ * Cost of taking a received frame apart: framing and header parsing in
+ * {@link TelegramDispatcher#dispatchFrame}, a complete ITEM ENTER, and the two
+ * ways the scanner handler reads bag tags.
+ * <p>
+ * Log lines are built but discarded, so <code>logLevel</code> shows what
+ * message formatting costs at each level without any file I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TelegramDecodeBenchmark {
+
+    private static final int TT_HEADER_ONLY = 999;
+
+    /** ITEM ENTER, TT 40, GlobalID 1000. */
+    private static final byte[] ITEM_ENTER = {
+        0x03, 0x00, 0x00, 0x21, 0x02, (byte) 0xF0, (byte) 0x80,
+        0x00, 0x07, 0x00, 0x01, 0x00, 0x00, 0x00, 0x65,
+        0x00, 0x28, 0x00, 0x09, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00, 0x03, (byte) 0xE8,
+        0x00, 0x01, 0x00, 0x05, 0x00, 0x00
+    };
+
+    private static final String BARCODE_DATA = "0B0123456789" + "0R0987654321";
+
+    @Param({ "ERROR", "INFO" })
+    public String logLevel;
+
+    private TelegramDispatcher itemEnterDispatcher;
+    private TelegramDispatcher headerOnlyDispatcher;
+    private ByteBuffer itemEnter;
+    private ByteBuffer headerOnly;
+    private TelegramFrame scannerFrame;
+    private int tagOffset;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Log log = new Log() {
+            @Override
+            protected void write(LogLevel messageLevel, String prefix, String message, Throwable t) {
+                // discarded
+            }
+        };
+        log.setLevel(LogLevel.valueOf(logLevel));
+
+        TelegramHandlerRegistry noOp = new TelegramHandlerRegistry();
+        noOp.register(TT_HEADER_ONLY, "BENCH", (telegram, context) -> { });
+        itemEnterDispatcher = new TelegramDispatcher(OutputStream.nullOutputStream(), log, "bench",
+                TelegramHandlerRegistry.getDefault());
+        headerOnlyDispatcher = new TelegramDispatcher(OutputStream.nullOutputStream(), log, "bench", noOp);
+
+        itemEnter = ByteBuffer.wrap(ITEM_ENTER).asReadOnlyBuffer();
+        byte[] headerOnlyFrame = ITEM_ENTER.clone();
+        headerOnlyFrame[15] = (byte) (TT_HEADER_ONLY >> 8);
+        headerOnlyFrame[16] = (byte) TT_HEADER_ONLY;
+        headerOnly = ByteBuffer.wrap(headerOnlyFrame).asReadOnlyBuffer();
+
+        // the tags of BARCODE_DATA placed in a frame, as the scanner handler sees them
+        byte[] scanner = new byte[ITEM_ENTER.length + BARCODE_DATA.length()];
+        System.arraycopy(ITEM_ENTER, 0, scanner, 0, ITEM_ENTER.length);
+        System.arraycopy(BARCODE_DATA.getBytes(java.nio.charset.StandardCharsets.US_ASCII), 0,
+                scanner, ITEM_ENTER.length, BARCODE_DATA.length());
+        scanner[2] = (byte) (scanner.length >> 8);
+        scanner[3] = (byte) scanner.length;
+        scannerFrame = new TelegramFrame().wrap(ByteBuffer.wrap(scanner).asReadOnlyBuffer());
+        tagOffset = ITEM_ENTER.length - 15 + 2; // payload offset of the first tag's digits
+    }
+
+    /** Framing, header parse, handler lookup and ACK encoding only. */
+    @Benchmark
+    public void dispatchHeaderOnly() throws IOException {
+        headerOnlyDispatcher.dispatchFrame(headerOnly);
+    }
+
+    /** Complete ITEM ENTER handling including its log lines. */
+    @Benchmark
+    public void dispatchItemEnter() throws IOException {
+        itemEnterDispatcher.dispatchFrame(itemEnter);
+    }
+
+    /** String based tag extraction used for the log and the scanner table. */
+    @Benchmark
+    public List<String> extractCodes() {
+        return ScannerResultTlgWithVersionNo.extractCodesFrom(BARCODE_DATA);
+    }
+
+    /** Tag read from the telegram bytes as used for the BSM lookup. */
+    @Benchmark
+    public long tagDigits() {
+        return scannerFrame.digits(tagOffset, 10) + scannerFrame.digits(tagOffset + 12, 10);
+    }
+}
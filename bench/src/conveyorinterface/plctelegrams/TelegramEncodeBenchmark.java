@@ -0,0 +1,70 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramEncodeBenchmark Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMH benchmarks of the CSC -> PLC telegram builders
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package conveyorinterface.plctelegrams;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building the telegrams the CSC sends per bag and per table entry.
+ * Run with <code>ant bench</code>; <code>-prof gc</code> adds the allocation rate
+ * (gc.alloc.rate.norm = bytes per telegram) next to ns/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TelegramEncodeBenchmark {
+
+    private static final long GLOBAL_ID = 1_000_123L;
+
+    private int sequenceNumber;
+    private final AirlineCodeEntryTlg airlineCodeEntry =
+            new AirlineCodeEntryTlg(1, 7, 1, 4711, "LH", 12, 2, 101, 102, 0);
+
+    @Benchmark
+    public byte[] itemDestination() {
+        return ScannerResultTlgWithVersionNo.build_BLRT2ItemDestinationTelegram(
+                7, 1, ++sequenceNumber, 1, 0, GLOBAL_ID, 1, 12, 0);
+    }
+
+    @Benchmark
+    public byte[] validBarcode() {
+        return ScannerResultTlgWithVersionNo.build_BLRT2ValidBarcodeTelegram(
+                7, 1, ++sequenceNumber, 1, 0, GLOBAL_ID, 1,
+                "0123456789", "0987654321", "", false, 22);
+    }
+
+    @Benchmark
+    public byte[] itemInfo() {
+        return ItemInfoRequest.build_ItemInfoTelegram(
+                7, 1, ++sequenceNumber, 1, 1, "0123456789", 1, 1, 0, 22, 0, 0);
+    }
+
+    @Benchmark
+    public byte[] airlineCodeEntry() {
+        return airlineCodeEntry.buildTelegram();
+    }
+}
@@ -0,0 +1,90 @@
+package Entity;
+
+/**
+ * One row of scanner_telegram, captured from a SCANNER RESULT (TT 26) telegram
+ * and written to the database later by the write-behind stage.
+ */
+public class ScannerTelegram {
+
+    private final int telegramLength;
+    private final int subsystemId;
+    private final int component;
+    private final long globalId;
+    private final int plcIndex;
+    private final int scannerNumber;
+    private final String scannerName;
+    private final String telegramVersion;
+    private final String status;
+    private final int responseLength;
+    private final String barcodes;
+    private final String responseAscii;
+
+    public ScannerTelegram(int telegramLength, int subsystemId, int component, long globalId,
+            int plcIndex, int scannerNumber, String scannerName, String telegramVersion, String status,
+            int responseLength, String barcodes, String responseAscii) {
+        this.telegramLength = telegramLength;
+        this.subsystemId = subsystemId;
+        this.component = component;
+        this.globalId = globalId;
+        this.plcIndex = plcIndex;
+        this.scannerNumber = scannerNumber;
+        this.scannerName = scannerName;
+        this.telegramVersion = telegramVersion;
+        this.status = status;
+        this.responseLength = responseLength;
+        this.barcodes = barcodes;
+        this.responseAscii = responseAscii;
+    }
+
+    // ============================
+    // Getters
+    // ============================
+
+    public int getTelegramLength() {
+        return telegramLength;
+    }
+
+    public int getSubsystemId() {
+        return subsystemId;
+    }
+
+    public int getComponent() {
+        return component;
+    }
+
+    public long getGlobalId() {
+        return globalId;
+    }
+
+    public int getPlcIndex() {
+        return plcIndex;
+    }
+
+    public int getScannerNumber() {
+        return scannerNumber;
+    }
+
+    public String getScannerName() {
+        return scannerName;
+    }
+
+    public String getTelegramVersion() {
+        return telegramVersion;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getResponseLength() {
+        return responseLength;
+    }
+
+    public String getBarcodes() {
+        return barcodes;
+    }
+
+    public String getResponseAscii() {
+        return responseAscii;
+    }
+}
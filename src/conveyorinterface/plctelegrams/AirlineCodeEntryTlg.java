@@ -2,11 +2,14 @@ package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
+import Entity.AirlineAllocation;
+
 public class AirlineCodeEntryTlg extends AbstractTelegram {
 
     private final int subsystemId;
@@ -35,6 +38,27 @@ public class AirlineCodeEntryTlg extends AbstractTelegram {
         this.alt3 = alt3;
     }
 
+    /** Entry telegram for one airline allocation row. */
+    public static AirlineCodeEntryTlg forAllocation(AirlineAllocation a, int sequenceNumber) {
+        int numAltDest = 2;            // from DB
+        int alt1 = 101;                // from DB
+        int alt2 = 102;                // from DB
+        int alt3 = 0;                  // from DB
+        int subsystemId = 1;           // fixed or configurable
+        int channelId = 7;             // fixed
+        int version = 1;               // fixed
+        return new AirlineCodeEntryTlg(subsystemId, channelId, version, sequenceNumber,
+                a.getAirlineCode(), a.getSortPosition(), numAltDest, alt1, alt2, alt3);
+    }
+
+    public String getAirlineCode() {
+        return airlineCode;
+    }
+
+    public int getDestination() {
+        return destination;
+    }
+
     @Override
     public int getTelegramType() {
         return 158;
@@ -108,7 +132,7 @@ public class AirlineCodeEntryTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending AIRLINE CODE ENTRY telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending AIRLINE CODE ENTRY telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
@@ -0,0 +1,383 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : AirlineTableDownload Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Windowed, pipelined airline code table download to one PLC
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         sync(): download skipped when the PLC already confirmed the same table
+//01.02    2026.10.18    Giresh         Entries streamed from the shared AirlineTableImage
+//01.03    2026.10.18    Giresh         Alarm raised when all retries failed, shown in /status and /metrics
+//01.04    2026.10.18    Giresh         Download bound to the link session, aborted when the link goes down
+
+
+package conveyorinterface.plctelegrams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import Entity.AirlineAllocation;
+import platform.core.config.AppSettings;
+import platform.core.log.Log;
+import platform.io.telegraph.InFlightTable;
+import platform.io.telegraph.SequenceGenerator;
+
+/**
+ * Downloads the airline code table (TT 157 start, TT 158 entries, TT 159 end) to
+ * one PLC and waits for its AirlineCodeTableComplete (TT 161).
+ * <p>
+ * The entries come pre-encoded from an {@link AirlineTableImage} that all PLCs
+ * share. They are not written one by one: up to <code>airlineTable.batchEntries</code>
+ * frames are copied into one buffer, stamped with this channel's sequence
+ * numbers and queued as a single socket write, and
+ * at most <code>airlineTable.window</code> telegrams of the channel may be
+ * waiting for their ACK at any time, so a slow PLC throttles the download
+ * instead of filling its receive buffer. Unacknowledged telegrams are resent by
+ * the connection's {@link InFlightTable}.
+ * <p>
+ * A TT 161 with status "failed" (or none within
+ * <code>airlineTable.completeTimeoutMillis</code>) downloads the whole table
+ * again, up to <code>airlineTable.maxRetries</code> times; when the last attempt
+ * fails too the alarm is raised ({@link #isAlarm()}, <code>csc_airline_table_alarm</code>
+ * in /metrics for SCADA to poll) until a later download completes. One download per
+ * connection at a time; it runs on its own thread because it blocks on ACKs
+ * that the processor thread delivers.
+ * <p>
+ * {@link #sync} remembers an {@link AirlineTableSnapshot} of every table the PLC
+ * confirmed with TT 161 and compares the next trigger against it: an unchanged
+ * table is not sent at all, otherwise the adds, changes and removals are logged
+ * and the table is sent. The PLC protocol only replaces whole tables (START
+ * clears it, there is no delete telegram), so a changed table always goes out
+ * complete. The snapshot is dropped when the link goes down, since a PLC that
+ * restarted has lost its table.
+ * <p>
+ * A download belongs to the link session it started in ({@link #setLinkSession}).
+ * When the link goes down the download ends FAILED at once, before another frame
+ * is written and while waiting for ACKs or TT 161, so nothing of it reaches the
+ * next socket; the next trigger after the reconnect sends the table again.
+ */
+public class AirlineTableDownload {
+
+    public enum State { IDLE, SENDING, AWAITING_COMPLETE, COMPLETED, FAILED }
+
+    private static final int SUBSYSTEM_ID = 1;
+    private static final int CHANNEL_ID = 7;
+    private static final int VERSION = 1;
+
+    private final OutputStream outputStream;
+    private final SequenceGenerator sequences;
+    private final InFlightTable inFlight;
+    private final Log log;
+    private final String logPrefix;
+
+    private final int window = Math.max(AppSettings.getInt("airlineTable.window", 32), 1);
+    private final int batchEntries = Math.max(AppSettings.getInt("airlineTable.batchEntries", 16), 1);
+    private final long completeTimeoutMillis = AppSettings.getLong("airlineTable.completeTimeoutMillis", 30000);
+    private final int maxRetries = Math.max(AppSettings.getInt("airlineTable.maxRetries", 3), 0);
+
+    private volatile State state = State.IDLE;
+    private volatile int attempt;
+    private volatile int entriesSent;
+    private volatile int entriesTotal;
+    private volatile long lastDurationMillis;
+    /** Table the PLC last confirmed with TT 161, null when unknown. */
+    private volatile AirlineTableSnapshot confirmed;
+    private volatile long lastSyncCheckMicros;
+    private volatile int skippedSyncs;
+    /** Current session of the connection while ONLINE, -1 otherwise; always online when not set. */
+    private volatile LongSupplier linkSession = () -> 0L;
+    /** Session the running download was started in. */
+    private volatile long downloadSession;
+    /** Set when every attempt failed, cleared by the next completed download. */
+    private volatile boolean alarm;
+    private volatile long alarmSince;
+
+    /** Result of the TT 161 for the current attempt, guarded by this. */
+    private Boolean completeSuccess;
+    private int completeEntryCount;
+
+    public AirlineTableDownload(OutputStream outputStream, SequenceGenerator sequences, InFlightTable inFlight,
+                                Log log, String logPrefix) {
+        this.outputStream = outputStream;
+        this.sequences = sequences;
+        this.inFlight = inFlight;
+        this.log = log;
+        this.logPrefix = logPrefix;
+    }
+
+    /**
+     * Brings the PLC's airline table up to date with <code>entries</code>:
+     * nothing is sent when the PLC confirmed this exact table before.
+     *
+     * @return true if a download was started
+     */
+    public boolean sync(List<AirlineAllocation> entries) {
+        return sync(AirlineTableImage.of(entries));
+    }
+
+    /** As {@link #sync(List)}, with a table already encoded (shared by several PLCs). */
+    public boolean sync(AirlineTableImage image) {
+        long t0 = System.nanoTime();
+        AirlineTableSnapshot next = image.getSnapshot();
+        AirlineTableSnapshot last = confirmed;
+        boolean same = next.sameTable(last);
+        lastSyncCheckMicros = (System.nanoTime() - t0) / 1000;
+        if (same) {
+            skippedSyncs++;
+            log.info(logPrefix, "✅ PLC airline table already up to date (" + next.size() + " entries, checked in "
+                    + lastSyncCheckMicros + " µs), nothing sent");
+            return false;
+        }
+        if (last == null) {
+            log.info(logPrefix, "Airline table of the PLC unknown, sending all " + next.size() + " entries");
+        } else {
+            AirlineTableSnapshot.Delta delta = next.diff(last);
+            log.info(logPrefix, "Airline table changed since the PLC confirmed it: " + delta
+                    + ", sending " + next.size() + " entries");
+            log.debug(logPrefix, () -> "Added " + delta.getAdded() + " | changed " + delta.getChanged()
+                    + " | removed " + delta.getRemoved());
+        }
+        return start(image);
+    }
+
+    /** The PLC may have lost its table (link down, PLC restart): the next sync sends it. */
+    public void invalidate() {
+        confirmed = null;
+        synchronized (this) {
+            notifyAll(); // a download waiting for TT 161 notices the link is gone
+        }
+    }
+
+    /** Tells the download which link session is current; set by the connection. */
+    public void setLinkSession(LongSupplier linkSession) {
+        this.linkSession = linkSession;
+    }
+
+    /**
+     * Starts a download of the given entries in the background, whatever the PLC holds.
+     *
+     * @return false if a download of this connection is still running
+     */
+    public boolean start(List<AirlineAllocation> entries) {
+        return start(AirlineTableImage.of(entries));
+    }
+
+    public synchronized boolean start(AirlineTableImage image) {
+        if (state == State.SENDING || state == State.AWAITING_COMPLETE) {
+            log.warn(logPrefix, "⚠️ Airline code table download already running, trigger ignored");
+            return false;
+        }
+        long session = linkSession.getAsLong();
+        if (session < 0) {
+            log.warn(logPrefix, "⚠️ PLC link not ONLINE, airline code table download not started");
+            return false;
+        }
+        downloadSession = session;
+        state = State.SENDING;
+        attempt = 0;
+        entriesSent = 0;
+        entriesTotal = image.getEntryCount();
+        confirmed = null; // the PLC's table is undefined from START until TT 161
+        Thread t = new Thread(() -> run(image), "AirlineTable-" + logPrefix);
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    private void run(AirlineTableImage image) {
+        long started = System.currentTimeMillis();
+        int total = image.getEntryCount();
+        try {
+            for (int n = 1; n <= maxRetries + 1; n++) {
+                attempt = n;
+                if (n > 1) {
+                    log.info(logPrefix, "🔁 Retrying Airline Code Table download (Attempt " + n + "/" + (maxRetries + 1) + ")");
+                }
+                // === Step 1: Stream START, entries and END through the window ===
+                sendTable(image);
+
+                // === Step 2: Wait for the PLC's verdict (TT 161) ===
+                Boolean success = awaitComplete();
+                if (Boolean.TRUE.equals(success)) {
+                    lastDurationMillis = System.currentTimeMillis() - started;
+                    state = State.COMPLETED;
+                    alarm = false;
+                    // a count mismatch leaves the table unconfirmed, so the next sync sends it again
+                    confirmed = completeEntryCount() == total ? image.getSnapshot() : null;
+                    log.info(logPrefix, "✅ Airline Code Table Download completed: " + total
+                            + " entries in " + lastDurationMillis + " ms");
+                    return;
+                }
+                log.warn(logPrefix, success == null
+                        ? "⚠️ No AIRLINE CODE TABLE COMPLETE within " + completeTimeoutMillis + " ms"
+                        : "⚠️ Airline Code Table Download failed | Attempt " + n + "/" + (maxRetries + 1));
+            }
+            state = State.FAILED;
+            alarmSince = System.currentTimeMillis();
+            alarm = true;
+            log.error(logPrefix, "🚨 Max retries reached. Airline table alarm raised for SCADA.");
+        } catch (IOException e) {
+            state = State.FAILED;
+            log.error(logPrefix, "❌ Airline code table download aborted: " + e.getMessage());
+        } catch (InterruptedException e) {
+            state = State.FAILED;
+            Thread.currentThread().interrupt();
+        } finally {
+            lastDurationMillis = System.currentTimeMillis() - started;
+        }
+    }
+
+    private void sendTable(AirlineTableImage image) throws IOException, InterruptedException {
+        synchronized (this) {
+            completeSuccess = null;
+        }
+        int total = image.getEntryCount();
+        state = State.SENDING;
+        entriesSent = 0;
+        log.info(logPrefix, "Sending " + total + " airline entries (window " + window
+                + ", up to " + batchEntries + " per write)...");
+
+        int[] seqs = new int[batchEntries];
+        int[] starts = new int[batchEntries];
+
+        seqs[0] = sequences.next();
+        AirlineCodeTableStartTlg start = new AirlineCodeTableStartTlg(SUBSYSTEM_ID, CHANNEL_ID, VERSION, seqs[0]);
+        sendFrames(start.buildTelegram(), start.getTelegramType(), seqs, new int[] { 0 }, 1);
+
+        int next = 0;
+        // wait for room for a whole batch, not for every single ACK, so writes stay large
+        int batch = Math.min(batchEntries, window);
+        while (next < total) {
+            awaitWindow(window - batch + 1);
+            int n = Math.min(Math.min(batch, window - inFlight.getInFlight()), total - next);
+            if (n <= 0) continue; // another sender took the room meanwhile
+            for (int i = 0; i < n; i++) seqs[i] = sequences.next();
+            byte[] buffer = new byte[image.length(next, n)];
+            image.copyFrames(next, n, seqs, buffer, 0, starts);
+            sendFrames(buffer, AirlineTableImage.ENTRY_TELEGRAM_TYPE, seqs, starts, n);
+            next += n;
+            entriesSent = next;
+        }
+
+        awaitWindow(window);
+        seqs[0] = sequences.next();
+        AirlineCodeTableEndTlg end = new AirlineCodeTableEndTlg(SUBSYSTEM_ID, CHANNEL_ID, VERSION, seqs[0], total);
+        sendFrames(end.buildTelegram(), end.getTelegramType(), seqs, new int[] { 0 }, 1);
+        state = State.AWAITING_COMPLETE;
+        log.info(logPrefix, "✅ Finished sending all airline telegrams (" + total + " entries sent)");
+    }
+
+    /** Registers the frames of the buffer as in flight and queues the buffer as one write. */
+    private void sendFrames(byte[] buffer, int telegramType, int[] seqs, int[] starts, int n) throws IOException {
+        checkLink();
+        for (int i = 0; i < n; i++) {
+            int end = i + 1 < n ? starts[i + 1] : buffer.length;
+            inFlight.track(seqs[i], telegramType, buffer, starts[i], end - starts[i]);
+        }
+        try {
+            outputStream.write(buffer);
+        } catch (IOException e) {
+            for (int i = 0; i < n; i++) inFlight.forget(seqs[i]);
+            throw e;
+        }
+        log.debug(logPrefix, "📤 Airline table: {} telegram(s), {} bytes in one write", n, buffer.length);
+    }
+
+    /** Waits for room in the window; the link going down empties the table and ends the wait. */
+    private void awaitWindow(int limit) throws InterruptedException, IOException {
+        while (!inFlight.awaitBelow(limit, completeTimeoutMillis)) {
+            checkLink();
+            log.warn(logPrefix, "⚠️ Airline table window full for " + completeTimeoutMillis + " ms, still waiting for ACKs");
+        }
+    }
+
+    /** Ends the download when the link it started on is gone (down, or already reconnected). */
+    private void checkLink() throws IOException {
+        if (linkSession.getAsLong() != downloadSession) {
+            throw new IOException("PLC link lost during the download");
+        }
+    }
+
+    private synchronized Boolean awaitComplete() throws InterruptedException, IOException {
+        long deadline = System.currentTimeMillis() + completeTimeoutMillis;
+        while (completeSuccess == null) {
+            checkLink();
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return null;
+            wait(left);
+        }
+        if (completeSuccess && completeEntryCount != entriesTotal) {
+            log.warn(logPrefix, "⚠️ PLC reports " + completeEntryCount + " airline entries, " + entriesTotal + " were sent");
+        }
+        return completeSuccess;
+    }
+
+    private synchronized int completeEntryCount() {
+        return completeEntryCount;
+    }
+
+    /**
+     * AirlineCodeTableComplete (TT 161) received; called on the processor thread.
+     *
+     * @return false if no download of this connection was waiting for it
+     */
+    public synchronized boolean onComplete(int entryCount, boolean success) {
+        if (state != State.SENDING && state != State.AWAITING_COMPLETE) return false;
+        completeEntryCount = entryCount;
+        completeSuccess = success;
+        notifyAll();
+        return true;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public int getEntriesSent() {
+        return entriesSent;
+    }
+
+    public int getEntriesTotal() {
+        return entriesTotal;
+    }
+
+    /** True if the PLC confirmed a table and the link stayed up since. */
+    public boolean isPlcTableConfirmed() {
+        return confirmed != null;
+    }
+
+    /** True while the PLC has no valid airline table after all retries failed. */
+    public boolean isAlarm() {
+        return alarm;
+    }
+
+    /** When the alarm was last raised, epoch millis. */
+    public long getAlarmSince() {
+        return alarmSince;
+    }
+
+    /** Triggers that found the PLC's table unchanged and sent nothing. */
+    public int getSkippedSyncs() {
+        return skippedSyncs;
+    }
+
+    /** Time the last sync took to compare the table with the confirmed snapshot. */
+    public long getLastSyncCheckMicros() {
+        return lastSyncCheckMicros;
+    }
+
+    /** Duration of the last finished download, successful or not. */
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+}
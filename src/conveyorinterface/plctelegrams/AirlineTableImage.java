@@ -0,0 +1,108 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : AirlineTableImage Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Airline code entry telegrams encoded once, shared by all PLC downloads
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package conveyorinterface.plctelegrams;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import Entity.AirlineAllocation;
+import platform.io.telegraph.TpktFrameDecoder;
+
+/**
+ * All TT 158 entry telegrams of one airline code table, complete TPKT frames
+ * back to back in one byte block, with the sequence number left 0.
+ * <p>
+ * Built once per trigger and read concurrently by the download of every PLC:
+ * a download copies a run of frames into its write buffer and stamps its own
+ * channel sequence numbers there ({@link #copyFrames}). The block is never
+ * written after construction, so no locking is needed.
+ */
+public final class AirlineTableImage {
+
+    /** TT of every frame in the block. */
+    public static final int ENTRY_TELEGRAM_TYPE = 158;
+
+    /** Offset of the channel header's sequence number inside a frame. */
+    static final int SEQUENCE_OFFSET = TpktFrameDecoder.DATA_OFFSET + 4;
+
+    private final byte[] block;
+    private final int[] offsets; // frame i is block[offsets[i] .. offsets[i + 1])
+    private final AirlineTableSnapshot snapshot;
+    private final long encodeMicros;
+
+    private AirlineTableImage(byte[] block, int[] offsets, AirlineTableSnapshot snapshot, long encodeMicros) {
+        this.block = block;
+        this.offsets = offsets;
+        this.snapshot = snapshot;
+        this.encodeMicros = encodeMicros;
+    }
+
+    /** Encodes the entries in download order. */
+    public static AirlineTableImage of(List<AirlineAllocation> entries) {
+        long t0 = System.nanoTime();
+        int[] offsets = new int[entries.size() + 1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() * 36);
+        for (int i = 0; i < entries.size(); i++) {
+            byte[] telegram = AirlineCodeEntryTlg.forAllocation(entries.get(i), 0).buildTelegram();
+            offsets[i] = out.size();
+            out.write(telegram, 0, telegram.length);
+        }
+        offsets[entries.size()] = out.size();
+        byte[] block = out.toByteArray();
+        AirlineTableSnapshot snapshot = AirlineTableSnapshot.of(entries, block, offsets);
+        return new AirlineTableImage(block, offsets, snapshot, (System.nanoTime() - t0) / 1000);
+    }
+
+    public int getEntryCount() {
+        return offsets.length - 1;
+    }
+
+    /** Bytes of frames <code>from</code> .. <code>from + count - 1</code>. */
+    public int length(int from, int count) {
+        return offsets[from + count] - offsets[from];
+    }
+
+    /**
+     * Copies frames <code>from</code> .. <code>from + count - 1</code> into
+     * <code>dest</code> at <code>destPos</code> and stamps <code>seqs[i]</code>
+     * into frame i of the copy.
+     *
+     * @param frameStarts receives the start of each copied frame in <code>dest</code>
+     */
+    public void copyFrames(int from, int count, int[] seqs, byte[] dest, int destPos, int[] frameStarts) {
+        System.arraycopy(block, offsets[from], dest, destPos, length(from, count));
+        for (int i = 0; i < count; i++) {
+            int at = destPos + offsets[from + i] - offsets[from];
+            frameStarts[i] = at;
+            int seq = seqs[i];
+            dest[at + SEQUENCE_OFFSET] = (byte) (seq >> 24);
+            dest[at + SEQUENCE_OFFSET + 1] = (byte) (seq >> 16);
+            dest[at + SEQUENCE_OFFSET + 2] = (byte) (seq >> 8);
+            dest[at + SEQUENCE_OFFSET + 3] = (byte) seq;
+        }
+    }
+
+    public int getBlockSize() {
+        return block.length;
+    }
+
+    public AirlineTableSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /** Time taken to encode and hash the table. */
+    public long getEncodeMicros() {
+        return encodeMicros;
+    }
+}
@@ -0,0 +1,176 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : AirlineTableSnapshot Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Hashed image of an airline code table as sent to a PLC
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Hashed from the AirlineTableImage, entries encoded only once
+
+
+package conveyorinterface.plctelegrams;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import Entity.AirlineAllocation;
+import platform.io.telegraph.TelegramFrame;
+import platform.io.telegraph.TpktFrameDecoder;
+
+/**
+ * What one airline code table looks like to the PLC: per airline code the
+ * last_edit_time of the row and a 64-bit hash of the entry telegram payload
+ * (TT 158 without channel header, so the sequence number does not count), plus
+ * an order independent hash over the whole table.
+ * <p>
+ * Two snapshots with the same table hash and size mean the PLC would receive
+ * exactly the same entries; {@link #diff} names the airline codes that differ.
+ * Immutable.
+ */
+public final class AirlineTableSnapshot {
+
+    private static final int PAYLOAD_OFFSET = TpktFrameDecoder.DATA_OFFSET + TelegramFrame.CHANNEL_HEADER_SIZE;
+
+    private static final class Row {
+        final long lastEditTime;
+        final long contentHash;
+
+        Row(long lastEditTime, long contentHash) {
+            this.lastEditTime = lastEditTime;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /** Airline codes added, changed (for the PLC) and removed between two snapshots. */
+    public static final class Delta {
+        private final List<String> added;
+        private final List<String> changed;
+        private final List<String> removed;
+        private final int edited;
+
+        Delta(List<String> added, List<String> changed, List<String> removed, int edited) {
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+            this.edited = edited;
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getChanged() {
+            return changed;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        /** Rows with a newer last_edit_time, including edits the PLC does not see (e.g. the airline name). */
+        public int getEdited() {
+            return edited;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "+" + added.size() + " ~" + changed.size() + " -" + removed.size() + " (" + edited + " rows edited)";
+        }
+    }
+
+    private final Map<String, Row> rows;
+    private final int size;
+    private final long tableHash;
+
+    private AirlineTableSnapshot(Map<String, Row> rows, int size, long tableHash) {
+        this.rows = rows;
+        this.size = size;
+        this.tableHash = tableHash;
+    }
+
+    /** Snapshot of the entries in the order they would be downloaded. */
+    public static AirlineTableSnapshot of(List<AirlineAllocation> entries) {
+        return AirlineTableImage.of(entries).getSnapshot();
+    }
+
+    /** Snapshot from already encoded entry frames, see {@link AirlineTableImage}. */
+    static AirlineTableSnapshot of(List<AirlineAllocation> entries, byte[] block, int[] offsets) {
+        Map<String, Row> rows = new HashMap<>(entries.size() * 2);
+        long tableHash = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            AirlineAllocation a = entries.get(i);
+            long contentHash = fnv1a(block, offsets[i] + PAYLOAD_OFFSET, offsets[i + 1]);
+            long lastEdit = a.getLastEditTime() != null ? a.getLastEditTime().getTime() : 0L;
+            rows.put(a.getAirlineCode(), new Row(lastEdit, contentHash));
+            tableHash += mix(contentHash); // sum: independent of row order
+        }
+        return new AirlineTableSnapshot(rows, entries.size(), tableHash);
+    }
+
+    /** True if the PLC holding <code>other</code> would hold exactly this table. */
+    public boolean sameTable(AirlineTableSnapshot other) {
+        return other != null && other.size == size && other.tableHash == tableHash;
+    }
+
+    /**
+     * Changes from <code>confirmed</code> (what the PLC acknowledged) to this
+     * snapshot. A row counts as changed when its last_edit_time moved and the
+     * entry telegram differs; a content change without a newer last_edit_time
+     * (edited outside the application) is caught by the hash as well.
+     */
+    public Delta diff(AirlineTableSnapshot confirmed) {
+        Map<String, Row> before = confirmed != null ? confirmed.rows : Map.of();
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        int edited = 0;
+        for (Map.Entry<String, Row> e : rows.entrySet()) {
+            Row old = before.get(e.getKey());
+            if (old == null) {
+                added.add(e.getKey());
+                continue;
+            }
+            Row now = e.getValue();
+            if (now.lastEditTime != old.lastEditTime) edited++;
+            if (now.contentHash != old.contentHash) changed.add(e.getKey());
+        }
+        for (String code : before.keySet()) {
+            if (!rows.containsKey(code)) removed.add(code);
+        }
+        return new Delta(added, changed, removed, edited);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTableHash() {
+        return tableHash;
+    }
+
+    private static long fnv1a(byte[] bytes, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** SplitMix64 finaliser, spreads the row hash before it is summed. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -9,6 +9,7 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
 
 package conveyorinterface.plctelegrams;
 
@@ -16,6 +17,7 @@ import java.io.OutputStream;
 import java.io.IOException;
 
 import platform.io.telegraph.AbstractTelegram;
+import platform.io.telegraph.FrameUtil;
 
 public class ConnectedTlg extends AbstractTelegram {
 
@@ -63,7 +65,7 @@ public class ConnectedTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, platform.core.log.Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending CONNECTED telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending CONNECTED telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();  
         log.info(logPrefix, "CONNECTED telegram (TT=02) sent from CSC to PLC");
@@ -2,6 +2,7 @@ package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -117,7 +118,7 @@ public class FallbackTagEntryTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending FALLBACK TAG ENTRY telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending FALLBACK TAG ENTRY telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
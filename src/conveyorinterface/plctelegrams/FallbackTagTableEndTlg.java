@@ -102,7 +102,7 @@ public class FallbackTagTableEndTlg extends AbstractTelegram {
     
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, String.format(
+        log.info(logPrefix, () -> String.format(
                 "Sending AIRLINE CODE TABLE END telegram [Type=%d, Channel=%d, Version=%d, Seq=%d, EntryCount=%d]: %s",
                 getTelegramType(), channelId, version, sequenceNumber, entryCount, bytesToHex(telegram)
         ));
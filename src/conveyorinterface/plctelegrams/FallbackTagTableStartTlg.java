@@ -2,6 +2,7 @@ package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -77,7 +78,7 @@ public class FallbackTagTableStartTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending FallbackTagTableStart telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending FallbackTagTableStart telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
@@ -1,14 +1,15 @@
 package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
+import platform.io.telegraph.TelegramFrame;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
-public class ItemInfoRequest extends AbstractTelegram {
+public class ItemInfoRequest extends AbstractTelegram implements TelegramHandler {
 
     private static final int REQUEST_TYPE = 164;
     private static final int INFO_TYPE    = 165;
@@ -25,39 +26,34 @@ public class ItemInfoRequest extends AbstractTelegram {
         public String iataCode;
     }
 
-    public ItemInfoRequestData parseRequest(InputStream inputStream, Log log, String logPrefix) throws IOException {
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-
-        byte[] cotp = new byte[3];
-        readFully(inputStream, cotp, 0, 3);
+    @Override
+    public void handle(TelegramFrame telegram, TelegramContext context) throws IOException {
+        // Automatically parse request and send response
+        respondToRequest(telegram, context.getOutputStream(), context.getLog(), context.getLogPrefix(),
+                11, 11, 31, 12, 1, 1); // example screening/customs/EBS values
+    }
 
-        byte[] buffer = new byte[totalLength - 7];
-        readFully(inputStream, buffer, 0, buffer.length);
+    public ItemInfoRequestData parseRequest(TelegramFrame telegram, Log log, String logPrefix) throws IOException {
+        telegram.requireTotalLength(25);
 
         ItemInfoRequestData requestData = new ItemInfoRequestData();
-        requestData.channelId      = ((buffer[0] & 0xFF) << 8) | (buffer[1] & 0xFF);
-        requestData.version        = ((buffer[2] & 0xFF) << 8) | (buffer[3] & 0xFF);
-        requestData.sequenceNumber = ((buffer[4] & 0xFF) << 24) | ((buffer[5] & 0xFF) << 16)
-                                  | ((buffer[6] & 0xFF) << 8) | (buffer[7] & 0xFF);
-        int telegramType           = ((buffer[8] & 0xFF) << 8) | (buffer[9] & 0xFF);
-        int telegramLength         = ((buffer[10] & 0xFF) << 8) | (buffer[11] & 0xFF);
-        requestData.subsystemId    = ((buffer[12] & 0xFF) << 8) | (buffer[13] & 0xFF);
-        requestData.plcIndex       = ((buffer[14] & 0xFF) << 8) | (buffer[15] & 0xFF);
-        requestData.location       = ((buffer[16] & 0xFF) << 8) | (buffer[17] & 0xFF);
-
-        int iataStart = 18;
+        requestData.channelId      = telegram.getChannelId();
+        requestData.version        = telegram.getVersion();
+        requestData.sequenceNumber = telegram.getSequenceNumber();
+        int telegramType           = telegram.getTelegramType();
+        int telegramLength         = telegram.getTelegramLength();
+        requestData.subsystemId    = telegram.word(4);
+        requestData.plcIndex       = telegram.word(6);
+        requestData.location       = telegram.word(8);
+
+        int iataStart = 10;
         int iataLength = 10;
         requestData.iataCode = "";
-        if (iataStart < buffer.length) {
-            int actualLength = Math.min(iataLength, buffer.length - iataStart);
-            byte[] iataBytes = new byte[actualLength];
-            System.arraycopy(buffer, iataStart, iataBytes, 0, actualLength);
-            requestData.iataCode = new String(iataBytes, StandardCharsets.US_ASCII).trim();
+        if (iataStart < telegram.getPayloadSize()) {
+            int actualLength = Math.min(iataLength, telegram.getPayloadSize() - iataStart);
+            requestData.iataCode = telegram.ascii(iataStart, actualLength).trim();
         }
-        log.info(logPrefix, "📥 ITEM INFO REQUEST Telegram: " + bytesToHex(buffer));
+        log.debug(logPrefix, () -> "📥 ITEM INFO REQUEST Telegram: " + telegram.hex());
         // ===== Decode log for incoming request =====
         log.info(logPrefix, "📥 ITEM INFO REQUEST (TT=164) Received: " +
                 "ChannelID=" + requestData.channelId + ", " +
@@ -145,7 +141,7 @@ public class ItemInfoRequest extends AbstractTelegram {
 
         outputStream.write(telegram);
         outputStream.flush();
-        log.info(logPrefix, "📥 ITEM INFO Telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "📥 ITEM INFO Telegram: " + FrameUtil.hex(telegram));
         // ===== Decode log for outgoing telegram =====
         log.info(logPrefix, "📥 ITEM INFO Telegram (TT=165) Sent: " +
                 "ChannelID=" + channelId + ", " +
@@ -164,11 +160,11 @@ public class ItemInfoRequest extends AbstractTelegram {
     }
 
     /** ==================== Auto-respond to request ==================== */
-    public void respondToRequest(InputStream inputStream, OutputStream outputStream, Log log, String logPrefix,
+    public void respondToRequest(TelegramFrame telegram, OutputStream outputStream, Log log, String logPrefix,
                                  int screeningLevel, int screeningResult, int customResult,
                                  int minScreeningLevel, int customsRequired, int ebsStatus) throws IOException {
 
-        ItemInfoRequestData requestData = parseRequest(inputStream, log, logPrefix);
+        ItemInfoRequestData requestData = parseRequest(telegram, log, logPrefix);
 
         sendItemInfo(outputStream, log, logPrefix,
                 requestData.channelId, requestData.version, requestData.sequenceNumber,
@@ -180,15 +176,6 @@ public class ItemInfoRequest extends AbstractTelegram {
     }
 
     /** ==================== Utilities ==================== */
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
-
     private static byte[] padIATA(String iata) {
         byte[] result = new byte[10];
         if (iata != null) {
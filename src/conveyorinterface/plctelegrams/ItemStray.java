@@ -9,6 +9,7 @@
 // Rev.     Date         Programmer    Description                               
 // ---------------------------------------------------------------------------------
 //01.00    2025.07.23    Giresh        Initial Version
+//01.01    2026.10.18    Giresh        Fields read in place from the received frame view
 //
 //package conveyorinterface.plctelegrams;
 //
@@ -50,7 +51,7 @@
 //        int location = ((payload[14] & 0xFF) << 8) | (payload[15] & 0xFF);
 //        
 //
-//        log.info(logPrefix, String.format(
+//        log.info(logPrefix, () -> String.format(
 //                "Received ITEM LOST telegram: TT=%d, LL=%d, SS=%d, CC=%d, GID=%d, PLCIdx=%d, Dest=%d, AltDest=%d",
 //                telegramType, telegramLength, subsystemId, subsystemComponent,
 //                globalId, plcIndex, location
@@ -88,62 +89,51 @@
 package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
+import platform.io.telegraph.TelegramFrame;
 import platform.core.log.Log;
 
 import java.io.IOException;
-import java.io.InputStream;
 
-public class ItemStray extends AbstractTelegram {
+public class ItemStray extends AbstractTelegram implements TelegramHandler {
 
     /** No-args constructor */
     public ItemStray() {
     }
 
-    /** Validate telegram received from PLC */
-    public void validate(InputStream inputStream, Log log, String logPrefix) throws IOException {
-        // === Step 1: Read TPKT header (4 bytes) ===
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-        if ((tpkt[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (tpkt[0] & 0xFF));
+    @Override
+    public void handle(TelegramFrame telegram, TelegramContext context) throws IOException {
+        validate(telegram, context.getLog(), context.getLogPrefix());
+    }
 
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-        if (totalLength < 25)
-            throw new IOException("Total telegram length too short: " + totalLength);
+    /** Validate telegram received from PLC */
+    public void validate(TelegramFrame telegram, Log log, String logPrefix) throws IOException {
+        // === Step 1: Check length (dispatcher already framed and parsed the header) ===
+        telegram.requireTotalLength(25);
+        int totalLength = telegram.getTotalLength();
 
         log.info(logPrefix, "📦 Incoming Item Stray telegram total length: " + totalLength + " bytes");
 
-        // === Step 2: Read remaining data ===
-        byte[] buffer = new byte[totalLength - 4]; // subtract TPKT header
-        readFully(inputStream, buffer, 0, buffer.length);
-
-        // === Step 3: Validate COTP header (3 bytes) ===
-        if ((buffer[0] & 0xFF) != 0x02 || (buffer[1] & 0xFF) != 0xF0 || (buffer[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header");
-
-        // === Step 4: Extract headers ===
-        int channelId = ((buffer[3] & 0xFF) << 8) | (buffer[4] & 0xFF);
-        int version = ((buffer[5] & 0xFF) << 8) | (buffer[6] & 0xFF);
-        int sequenceNumber = ((buffer[7] & 0xFF) << 24) | ((buffer[8] & 0xFF) << 16)
-                           | ((buffer[9] & 0xFF) << 8) | (buffer[10] & 0xFF);
-
-        int telegramType = ((buffer[11] & 0xFF) << 8) | (buffer[12] & 0xFF);
-        int telegramLength = ((buffer[13] & 0xFF) << 8) | (buffer[14] & 0xFF);
-        int subsystemId = ((buffer[15] & 0xFF) << 8) | (buffer[16] & 0xFF);
-        int subsystemComponent = ((buffer[17] & 0xFF) << 8) | (buffer[18] & 0xFF);
-        int globalId = ((buffer[19] & 0xFF) << 24) | ((buffer[20] & 0xFF) << 16)
-                   | ((buffer[21] & 0xFF) << 8) | (buffer[22] & 0xFF);
-        int plcIndex = ((buffer[23] & 0xFF) << 8) | (buffer[24] & 0xFF);
-        int location = ((buffer[25] & 0xFF) << 8) | (buffer[26] & 0xFF);
-        log.info(logPrefix, "Item Stray telegram: " + bytesToHex(buffer));
-        // === Step 5: Log header info ===
-        log.info(logPrefix, String.format(
+        // === Step 2: Extract headers ===
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
+
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int subsystemId = telegram.word(4);
+        int subsystemComponent = telegram.word(6);
+        int globalId = telegram.dword(8);
+        int plcIndex = telegram.word(12);
+        int location = telegram.word(14);
+        log.debug(logPrefix, () -> "Item Stray telegram: " + telegram.hex());
+        // === Step 3: Log header info ===
+        log.info(logPrefix, () -> String.format(
                 "Header Info -> ChannelID=%d | Version=%d | SeqNo=%d | Type=%d | Length=%d words | SubsystemID=%d | Component=%d | GlobalID=%d | PLC Index=%d | Location=%d",
                 channelId, version, sequenceNumber, telegramType, telegramLength,
                 subsystemId, subsystemComponent, globalId, plcIndex, location 
             ));
 
-        // === Step 6: Check telegram type ===
+        // === Step 4: Check telegram type ===
         if (telegramType != 47)
             throw new IOException("Unexpected telegram type. Expected 40 (ITEM ENTER) but got " + telegramType);
 
@@ -160,13 +150,5 @@ public class ItemStray extends AbstractTelegram {
         return 9; // 9 words = 18 bytes payload
     }
 
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
 }
 
@@ -9,11 +9,13 @@
 // Rev.     Date         Programmer    Description                               
 // ---------------------------------------------------------------------------------
 //01.00    2025.07.23    Giresh        Initial Version
+//01.01    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
 
 package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -66,7 +68,7 @@ public class ItemTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending ITEM Destination telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending ITEM Destination telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
@@ -100,7 +102,7 @@ public class ItemTlg extends AbstractTelegram {
         int destination = ((payload[14] & 0xFF) << 8) | (payload[15] & 0xFF);
         int altDestination = ((payload[16] & 0xFF) << 8) | (payload[17] & 0xFF);
 
-        log.info(logPrefix, String.format(
+        log.info(logPrefix, () -> String.format(
                 "Received ITEM Destination telegram: TT=%d, LL=%d, SS=%d, CC=%d, GID=%d, PLCIdx=%d, Dest=%d, AltDest=%d",
                 telegramType, telegramLength, subsystemId, subsystemComponent,
                 globalId, plcIndex, destination, altDestination
@@ -10,76 +10,66 @@
 // Rev.     Date         Programmer    Description                               
 // ---------------------------------------------------------------------------------
 //01.00    2025.07.23    Giresh        Initial Version
+//01.01    2026.10.18    Giresh        Fields read in place from the received frame view
 // =================================================================================
 
 package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
+import platform.io.telegraph.TelegramFrame;
 import platform.core.log.Log;
 
 import java.io.IOException;
-import java.io.InputStream;
 
-public class ItemTransfer extends AbstractTelegram {
+public class ItemTransfer extends AbstractTelegram implements TelegramHandler {
 
     /** No-args constructor */
     public ItemTransfer() {
     }
 
-    /** Validate telegram received from PLC */
-    public void validate(InputStream inputStream, Log log, String logPrefix) throws IOException {
-        // === Step 1: Read TPKT header (4 bytes) ===
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-        if ((tpkt[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (tpkt[0] & 0xFF));
+    @Override
+    public void handle(TelegramFrame telegram, TelegramContext context) throws IOException {
+        validate(telegram, context.getLog(), context.getLogPrefix());
+    }
 
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-        if (totalLength < 25)
-            throw new IOException("Total telegram length too short: " + totalLength);
+    /** Validate telegram received from PLC */
+    public void validate(TelegramFrame telegram, Log log, String logPrefix) throws IOException {
+        // === Step 1: Check length (dispatcher already framed and parsed the header) ===
+        telegram.requireTotalLength(25);
+        int totalLength = telegram.getTotalLength();
 
         log.info(logPrefix, "📦 Incoming Item Transfer telegram total length: " + totalLength + " bytes");
 
-        // === Step 2: Read remaining data ===
-        byte[] buffer = new byte[totalLength - 4];
-        readFully(inputStream, buffer, 0, buffer.length);
-
-        // === Step 3: Validate COTP header ===
-        if ((buffer[0] & 0xFF) != 0x02 || (buffer[1] & 0xFF) != 0xF0 || (buffer[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header");
-
-        // === Step 4: Extract header information ===
-        int channelId = ((buffer[3] & 0xFF) << 8) | (buffer[4] & 0xFF);
-        int version = ((buffer[5] & 0xFF) << 8) | (buffer[6] & 0xFF);
-        int sequenceNumber = ((buffer[7] & 0xFF) << 24) | ((buffer[8] & 0xFF) << 16)
-                           | ((buffer[9] & 0xFF) << 8) | (buffer[10] & 0xFF);
-
-        int telegramType = ((buffer[11] & 0xFF) << 8) | (buffer[12] & 0xFF);
-        int telegramLength = ((buffer[13] & 0xFF) << 8) | (buffer[14] & 0xFF);
-        int subsystemId = ((buffer[15] & 0xFF) << 8) | (buffer[16] & 0xFF);
-        int subsystemComponent = ((buffer[17] & 0xFF) << 8) | (buffer[18] & 0xFF);
-        int globalId = ((buffer[19] & 0xFF) << 24) | ((buffer[20] & 0xFF) << 16)
-                     | ((buffer[21] & 0xFF) << 8) | (buffer[22] & 0xFF);
-        int plcIndex = ((buffer[23] & 0xFF) << 8) | (buffer[24] & 0xFF);
-        int event = ((buffer[25] & 0xFF) << 8) | (buffer[26] & 0xFF);
-        int location = ((buffer[27] & 0xFF) << 8) | (buffer[28] & 0xFF);
-        int handshake = ((buffer[29] & 0xFF) << 8) | (buffer[30] & 0xFF);
-
-        // === Step 5: Interpret event and handshake ===
+        // === Step 2: Extract header information ===
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
+
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int subsystemId = telegram.word(4);
+        int subsystemComponent = telegram.word(6);
+        int globalId = telegram.dword(8);
+        int plcIndex = telegram.word(12);
+        int event = telegram.word(14);
+        int location = telegram.word(16);
+        int handshake = telegram.word(18);
+
+        // === Step 3: Interpret event and handshake ===
         String eventString = (event == 0) ? "Enter" : (event == 1) ? "Leave" : "Unknown";
         String handshakeString = (handshake >= 1 && handshake <= 7)
                 ? "Valid Handshake No"
                 : (handshake == 8) ? "Stray Item" : "Unknown";
 
-        // === Step 6: Log details ===
-        log.info(logPrefix, "📥 Item Transfer Raw Telegram: " + bytesToHex(buffer));
-        log.info(logPrefix, String.format(
+        // === Step 4: Log details ===
+        log.debug(logPrefix, () -> "📥 Item Transfer Raw Telegram: " + telegram.hex());
+        log.info(logPrefix, () -> String.format(
             "Received ITEM TRANSFER telegram -> ChannelID=%d | Version=%d | SeqNo=%d | Type=%d | Length=%d | SS=%d | CC=%d | GID=%d | PLCIdx=%d | Event=%s | Location=%d | Handshake=%s",
             channelId, version, sequenceNumber, telegramType, telegramLength,
             subsystemId, subsystemComponent, globalId, plcIndex, eventString, location, handshakeString
         ));
 
-        // === Step 7: Validate telegram type ===
+        // === Step 5: Validate telegram type ===
         if (telegramType != 50)
             throw new IOException("Unexpected telegram type. Expected 50 (ITEM TRANSFER) but got " + telegramType);
 
@@ -96,12 +86,4 @@ public class ItemTransfer extends AbstractTelegram {
         return 10; // 10 words = 20 bytes payload
     }
 
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
 }
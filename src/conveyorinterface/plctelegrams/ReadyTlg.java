@@ -9,14 +9,17 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Fields read in place from the received frame view
+//01.02    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
 
 package conveyorinterface.plctelegrams;
 
 import platform.io.telegraph.AbstractTelegram;
+import platform.io.telegraph.TelegramFrame;
 import platform.core.log.Log;
+import platform.io.telegraph.FrameUtil;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 
 public class ReadyTlg extends AbstractTelegram {
@@ -66,41 +69,24 @@ public class ReadyTlg extends AbstractTelegram {
 
     public void send(OutputStream outputStream, Log log, String logPrefix) throws IOException {
         byte[] telegram = buildTelegram();
-        log.info(logPrefix, "Sending READY telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending READY telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
 
-    public  int validate(InputStream inputStream, Log log, String logPrefix) throws IOException {
-        byte[] header = new byte[4];
-        readFully(inputStream, header, 0, 4);
-
-        if ((header[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (header[0] & 0xFF));
-
-        int totalLength = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
-        if (totalLength < 25)
-            throw new IOException("Total telegram length too short: expected at least 25 bytes but got " + totalLength);
-
-        byte[] cotp = new byte[3];
-        readFully(inputStream, cotp, 0, 3);
-        if ((cotp[0] & 0xFF) != 0x02 || (cotp[1] & 0xFF) != 0xF0 || (cotp[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header. Expected [0x02, 0xF0, 0x80]");
-
-        byte[] payload = new byte[18];
-        readFully(inputStream, payload, 0, 18);
-
-        int channelId = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
-        int version = ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
-        int sequenceNumber = ((payload[4] & 0xFF) << 24) | ((payload[5] & 0xFF) << 16)
-                            | ((payload[6] & 0xFF) << 8) | (payload[7] & 0xFF);
-        int telegramType = ((payload[8] & 0xFF) << 8) | (payload[9] & 0xFF);
-        int telegramLength = ((payload[10] & 0xFF) << 8) | (payload[11] & 0xFF);
-        int subsystemId = ((payload[12] & 0xFF) << 8) | (payload[13] & 0xFF);
-        int bypassMode = ((payload[14] & 0xFF) << 8) | (payload[15] & 0xFF);
-        int llcMode = ((payload[16] & 0xFF) << 8) | (payload[17] & 0xFF);
-        log.info(logPrefix, "Recieve READY telegram: " + bytesToHex(payload));
-        log.info(logPrefix, String.format(
+    public  int validate(TelegramFrame telegram, Log log, String logPrefix) throws IOException {
+        telegram.requireTotalLength(25);
+
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int subsystemId = telegram.word(4);
+        int bypassMode = telegram.word(6);
+        int llcMode = telegram.word(8);
+        log.debug(logPrefix, () -> "Recieve READY telegram: " + telegram.hex());
+        log.info(logPrefix, () -> String.format(
                 "Received READY telegram: ChannelID=%d, Version=%d, SeqNo=%d, TT=%d, Length=%d words, SubsystemID=%d, Bypass=%d, LLC=%d",
                 channelId, version, sequenceNumber, telegramType, telegramLength, subsystemId, bypassMode, llcMode
         ));
@@ -122,13 +108,5 @@ public class ReadyTlg extends AbstractTelegram {
     public int getTelegramLength() {
         return 5; // 5 words = 10 bytes
     }
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
     
 }
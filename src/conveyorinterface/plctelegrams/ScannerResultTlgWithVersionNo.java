@@ -9,10 +9,19 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Telegrams parsed in place from the pooled receive buffer
+//01.02    2026.10.18    Giresh         Handlers take the TelegramFrame parsed by the dispatcher
+//01.03    2026.10.18    Giresh         IATA match and destination from one BSM index lookup
+//01.04    2026.10.18    Giresh         Tags parsed from the telegram bytes, probed as long keys
+//01.05    2026.10.18    Giresh         scanner_telegram persisted through the write-behind queue
+//01.06    2026.10.18    Giresh         Hex dump at DEBUG, RX line only formatted when INFO is enabled
+//01.07    2026.10.18    Giresh         extractCodesFrom package-private for the codec benchmarks
+//01.08    2026.10.18    Giresh         Scan to destination latency recorded per scanner and connection
+//01.09    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
+//01.10    2026.10.18    Giresh         Scan latency taken when the destination telegram is written to the socket
 
 package conveyorinterface.plctelegrams;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
@@ -22,89 +31,82 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import java.util.Objects ;
 
+import platform.core.Repository.BSMIndex;
 import platform.core.Repository.BSMRepository;
 import platform.core.Repository.TelegramRepository;
 import platform.core.log.Log;
+import platform.core.metrics.ScanLatencyMetrics;
 import platform.core.util.DBConnection;
+import platform.io.telegraph.FrameUtil;
+import platform.io.telegraph.TelegramFrame;
+import platform.io.telegraph.WriteCompletion;
 
-public class ScannerResultTlgWithVersionNo {
+public class ScannerResultTlgWithVersionNo implements TelegramHandler {
     private static final Logger log = Logger.getLogger("ScannerTelegramHandler");
     private static final String logPrefix = "[SCANNER] ";
     
 
+    @Override
+    public void handle(TelegramFrame telegram, TelegramContext context) throws IOException {
+        handleScannerTelegram(context.getOutputStream(), telegram, context.getLog(), context.getLogPrefix());
+    }
+
     public void handleScannerTelegram(
             OutputStream outputStream,
-            InputStream inputStream,
+            TelegramFrame telegram,
             Log log,
             String logPrefix
     ) throws IOException {
 
-        // Read TPKT header (4 bytes)
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-        if ((tpkt[0] & 0xFF) != 0x03) {
-            throw new IOException("Invalid TPKT version");          
-        }
-
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-
-        // Read COTP header (3 bytes)
-        byte[] cotp = new byte[3];
-        readFully(inputStream, cotp, 0, 3);
-        if ((cotp[0] & 0xFF) != 0x02 || (cotp[1] & 0xFF) != 0xF0 || (cotp[2] & 0xFF) != 0x80) {
-            throw new IOException("Invalid COTP header");
-        }
-
         // Total header: 8 (channel + version + sequence) + 22 (telegram header) = 30 bytes
-        byte[] header = new byte[30];
-        readFully(inputStream, header, 0, 30);
-
-        int index = 0;
+        telegram.requireTotalLength(37);
 
         // === Channel + Version + Sequence ===
-        int channelId = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int version = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int sequenceNumber = ((header[index++] & 0xFF) << 24) |
-                             ((header[index++] & 0xFF) << 16) |
-                             ((header[index++] & 0xFF) << 8)  |
-                             (header[index++] & 0xFF);
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
 
         // === Telegram Header ===
-        int telegramType = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int telegramLength = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int subsystemId = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int component = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int index = 4; // payload offset of SS, right after TT + LL
+        int subsystemId = telegram.word(index); index += 2;
+        int component = telegram.word(index); index += 2;
 
-        long globalId = ((long)(header[index++] & 0xFF) << 24) |
-                        ((long)(header[index++] & 0xFF) << 16) |
-                        ((long)(header[index++] & 0xFF) << 8)  |
-                        ((long)(header[index++] & 0xFF));
+        long globalId = telegram.dword(index) & 0xFFFFFFFFL; index += 4;
 
-        int plcIndex = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int scannerNumber = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
+        int plcIndex = telegram.word(index); index += 2;
+        int scannerNumber = telegram.word(index); index += 2;
 
-        String telegramVersion = new String(header, index, 2, StandardCharsets.US_ASCII); index += 2;
+        String telegramVersion = telegram.ascii(index, 2); index += 2;
 
-        int status = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
-        int responseLength = ((header[index++] & 0xFF) << 8) | (header[index++] & 0xFF);
+        int status = telegram.word(index); index += 2;
+        int responseLength = telegram.word(index); index += 2;
 
         // === Response Data ===
         List<String> barcodes = new ArrayList<>();
         String responseAscii = "";
+        int codesStart = -1; // payload offsets of the barcode data after '#'
+        int codesEnd = -1;
 
         if (responseLength > 0 && status == 0) {
-            byte[] responseData = new byte[responseLength];
-            readFully(inputStream, responseData, 0, responseLength);
+            if (index + responseLength > telegram.getPayloadSize()) {
+                throw new IOException("Scanner response length " + responseLength + " exceeds telegram");
+            }
 
-            if (responseLength % 2 != 0 && responseData[responseLength - 1] == (byte) 0xFF) {
-                responseAscii = new String(responseData, 0, responseLength - 1, StandardCharsets.US_ASCII);
+            if (responseLength % 2 != 0 && telegram.byteAt(index + responseLength - 1) == 0xFF) {
+                responseAscii = telegram.ascii(index, responseLength - 1);
+                codesEnd = index + responseLength - 1;
             } else {
-                responseAscii = new String(responseData, StandardCharsets.US_ASCII);
+                responseAscii = telegram.ascii(index, responseLength);
+                codesEnd = index + responseLength;
+            }
+            int sepOffset = telegram.indexOf((byte) '#', index, codesEnd);
+            if (sepOffset != -1 && sepOffset + 1 < codesEnd) {
+                codesStart = sepOffset + 1;
             }
 
             int sepIndex = responseAscii.indexOf("#");
@@ -118,16 +120,17 @@ public class ScannerResultTlgWithVersionNo {
         // Format log line
         String barcodeList = barcodes.toString();
         
-        String rxLog = String.format(
-            "telegram=<ScannerResultTlgWithVersionNo>, length=<%d>, subsystemId=<%d>, component=<%d>, globalId=<%d>, cmcIndex=<%d>, conveyorScannerId=<%d: %s>, scannerProtocolVersion=<%s>, status=<%s>, responseLength=<%d>, barcodesAsStr=<%s>, barcodesInASCII=<%s>",
-            telegramLength, subsystemId, component, globalId, plcIndex,
-            scannerNumber, resolveScannerName(scannerNumber),
-            telegramVersion, (status == 0 ? "OK" : "ERROR"), responseLength,
-            barcodeList, responseAscii
-        );
-        log.info(logPrefix, "Scanner Result telegram: " + bytesToHex(header));
-
-        log.info(logPrefix, "Telegram [RX]: " + rxLog + " ##[");
+        log.debug(logPrefix, () -> "Scanner Result telegram: " + telegram.hex());
+        if (log.isInfoEnabled()) {
+            String rxLog = String.format(
+                "telegram=<ScannerResultTlgWithVersionNo>, length=<%d>, subsystemId=<%d>, component=<%d>, globalId=<%d>, cmcIndex=<%d>, conveyorScannerId=<%d: %s>, scannerProtocolVersion=<%s>, status=<%s>, responseLength=<%d>, barcodesAsStr=<%s>, barcodesInASCII=<%s>",
+                telegramLength, subsystemId, component, globalId, plcIndex,
+                scannerNumber, resolveScannerName(scannerNumber),
+                telegramVersion, (status == 0 ? "OK" : "ERROR"), responseLength,
+                barcodeList, responseAscii
+            );
+            log.info(logPrefix, "Telegram [RX]: " + rxLog + " ##[");
+        }
       
         // Extract IATA codes
         String iata1 = barcodes.size() > 0 ? barcodes.get(0) : "";
@@ -140,40 +143,46 @@ public class ScannerResultTlgWithVersionNo {
         // db and then send the valid destination telegram to the plc with destination int the form.
         // Send processed telegram back (COTP wrapped)
         
-//        try {
-//			TelegramRepository.insertTelegram(
-//				    telegramLength,
-//				    subsystemId,
-//				    component,
-//				    globalId,
-//				    plcIndex,
-//				    scannerNumber,
-//				    resolveScannerName(scannerNumber),
-//				    telegramVersion,
-//				    (status == 0 ? "OK" : "ERROR"),
-//				    responseLength,
-//				    barcodeList,
-//				    responseAscii
-//				);
-//		} catch (SQLException e) {
-//			// TODO Auto-generated catch block
-//			e.printStackTrace();
-//		}
-        // === IATA Matching Logic ===
-        List<String> iataList = Arrays.asList(iata1, iata2, iata3)
-            .stream().filter(s -> s != null && !s.isEmpty()).collect(Collectors.toList());
+        // Queued for the write-behind writer; the ACK does not wait for the database
+        TelegramRepository.insertTelegram(
+                telegramLength,
+                subsystemId,
+                component,
+                globalId,
+                plcIndex,
+                scannerNumber,
+                resolveScannerName(scannerNumber),
+                telegramVersion,
+                (status == 0 ? "OK" : "ERROR"),
+                responseLength,
+                barcodeList,
+                responseAscii
+        );
 
+        // === IATA Matching Logic ===
+        // Same walk as extractCodesFrom (2 type chars + 10 digit tag) over the first three
+        // codes, but the tag is parsed from the telegram bytes and probed as a long.
         int matchCount = 0;
         String matchedIATA = null;
+        int matchedDestination = BSMIndex.NO_DESTINATION;
         int destination = 1;
 
-        for (String iata : iataList) {
-            if (BSMRepository.existsInBSM(iata)) {
+        int pos = codesStart;
+        for (int code = 0; codesStart >= 0 && code < 3 && pos + 2 < codesEnd; code++) {
+            pos += 2;
+            if (pos + BSMIndex.TAG_DIGITS > codesEnd) break;
+            long tag = telegram.digits(pos, BSMIndex.TAG_DIGITS);
+            int allocation = tag >= 0
+                    ? BSMRepository.getDestination(tag)
+                    : BSMRepository.getDestination(barcodes.get(code)).orElse(BSMIndex.NO_DESTINATION);
+            if (allocation != BSMIndex.NO_DESTINATION) {
                 matchCount++;
                 if (matchedIATA == null) {
-                    matchedIATA = iata;
+                    matchedIATA = barcodes.get(code);
+                    matchedDestination = allocation;
                 }
             }
+            pos += BSMIndex.TAG_DIGITS;
         }
 
         if (matchCount >= 0) {
@@ -191,23 +200,25 @@ public class ScannerResultTlgWithVersionNo {
                     iata1, iata2, iata3,destination, log, logPrefix
                 );
              //   return; // ✅ Prevent sending duplicate telegrams
-            Optional<Integer> destOpt = BSMRepository.getDestination(matchedIATA);
-            if (destOpt.isPresent()) {
-                destination = destOpt.get();
+            if (matchedDestination != BSMIndex.NO_DESTINATION) {
+                destination = matchedDestination;
 
                 send_DestinationTelegram(
                     channelId, version, sequenceNumber, outputStream,
                     subsystemId, component, globalId, plcIndex,
                     iata1, iata2, iata3,destination, log, logPrefix
                 );
+                recordScanLatency(telegram, scannerNumber, outputStream, logPrefix);
                 return; // ✅ Prevent sending duplicate telegrams
             } else {
                 log.warn(logPrefix, "⚠️ Destination not found for IATA: " + matchedIATA);
             }
+            // only the default destination went out
+            recordScanLatency(telegram, scannerNumber, outputStream, logPrefix);
 
             // Optional: check second table if needed
             if (matchCount >= 2) {
-                // implementSecondaryRoutingRules(iataList);
+                // implementSecondaryRoutingRules(barcodes);
             	
             }
         }       
@@ -221,35 +232,13 @@ public class ScannerResultTlgWithVersionNo {
     	    String telegramVersion, String status, int responseLength,
     	    String barcodeList, String responseAscii
     	) {
-    	    String sql = "INSERT INTO scanner_telegram (telegram_length, subsystem_id, component, global_id, plc_index, scanner_number, scanner_name, telegram_version, status, response_length, barcodes, response_ascii) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-    	    try (Connection conn = DBConnection.getConnection();
-    	         PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-    	        stmt.setInt(1, telegramLength);
-    	        stmt.setInt(2, subsystemId);
-    	        stmt.setInt(3, component);
-    	        stmt.setLong(4, globalId);
-    	        stmt.setInt(5, plcIndex);
-    	        stmt.setInt(6, scannerNumber);
-    	        stmt.setString(7, scannerName);
-    	        stmt.setString(8, telegramVersion);
-    	        stmt.setString(9, status);
-    	        stmt.setInt(10, responseLength);
-    	        stmt.setString(11, barcodeList);
-    	        stmt.setString(12, responseAscii);
-
-    	        stmt.executeUpdate();
-    	        System.out.println("✔️ Data inserted successfully!");
-
-    	    } catch (SQLException e) {
-    	        System.err.println("❌ DB Insert Error: " + e.getMessage());
-    	    }
+    	    TelegramRepository.insertTelegram(telegramLength, subsystemId, component, globalId, plcIndex,
+    	            scannerNumber, scannerName, telegramVersion, status, responseLength, barcodeList, responseAscii);
     	}
     
 
 
-    private static List<String> extractCodesFrom(String barcodeData) {
+    static List<String> extractCodesFrom(String barcodeData) {
         List<String> codes = new ArrayList<>();
         int i = 0;
         while (i + 2 < barcodeData.length()) {
@@ -265,6 +254,22 @@ public class ScannerResultTlgWithVersionNo {
         }
         return codes;
     }
+    /**
+     * Read of the scanner result to the socket write of its (last) destination
+     * telegram; on a queued PLC channel taken when the event loop has written it.
+     */
+    private static void recordScanLatency(TelegramFrame telegram, int scannerNumber, OutputStream outputStream,
+                                          String logPrefix) {
+        long receivedNanos = telegram.getReceivedNanos(); // the frame view is reused after this call
+        Runnable record = () -> ScanLatencyMetrics.getInstance().record(logPrefix, scannerNumber,
+                resolveScannerName(scannerNumber), System.nanoTime() - receivedNanos);
+        if (outputStream instanceof WriteCompletion) {
+            ((WriteCompletion) outputStream).afterLastWrite(record);
+        } else {
+            record.run();
+        }
+    }
+
     private static String resolveScannerName(int id) {
         switch (id) {
             case 5: return "2AR04_AT19";
@@ -274,14 +279,6 @@ public class ScannerResultTlgWithVersionNo {
         }
     }
 
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
 
 
 
@@ -394,7 +391,7 @@ public class ScannerResultTlgWithVersionNo {
     	);
 
 
-        log.info(logPrefix, "Sending VALID BARCODE telegram: " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending VALID BARCODE telegram: " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
@@ -418,7 +415,7 @@ public class ScannerResultTlgWithVersionNo {
                 0                // Alternative Destination EE (use 0 if not required)
         );
 
-        log.info(logPrefix, "Sending DESTINATION REQUEST TELEGRAM BARCODE : " + bytesToHex(telegram));
+        log.debug(logPrefix, () -> "Sending DESTINATION REQUEST TELEGRAM BARCODE : " + FrameUtil.hex(telegram));
         outputStream.write(telegram);
         outputStream.flush();
     }
@@ -620,50 +617,25 @@ public class ScannerResultTlgWithVersionNo {
     
     
     
-    public static void validate_AckDestination(InputStream inputStream, Log log, String logPrefix) throws IOException {
-        byte[] header = new byte[4];
-        readFully(inputStream, header, 0, 4);
-
-        if ((header[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (header[0] & 0xFF));
-
-        int totalLength = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
-        if (totalLength < 25)
-            throw new IOException("Total telegram length too short: expected at least 25 bytes but got " + totalLength);
-
-        byte[] cotp = new byte[3];
-        readFully(inputStream, cotp, 0, 3);
-        if ((cotp[0] & 0xFF) != 0x02 || (cotp[1] & 0xFF) != 0xF0 || (cotp[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header. Expected [0x02, 0xF0, 0x80]");
-
-        // Total header: 8 (channel + version + sequence) + 22 (telegram header) = 30 bytes
-        byte[] payload = new byte[25];
-        readFully(inputStream, payload, 0, 25);
-
-        int index = 0;
+    public static void validate_AckDestination(TelegramFrame telegram, Log log, String logPrefix) throws IOException {
+        telegram.requireTotalLength(32);
 
         // === Channel + Version + Sequence ===
-        int channelId = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
-        int version = ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
-        int sequenceNumber = ((payload[4] & 0xFF) << 24) |
-                             ((payload[5] & 0xFF) << 16) |
-                             ((payload[6] & 0xFF) << 8)  |
-                             (payload[7] & 0xFF);
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
 
         // === Telegram payload ===
-        int telegramType = ((payload[8] & 0xFF) << 8) | (payload[9] & 0xFF);
-        int telegramLength = ((payload[10] & 0xFF) << 8) | (payload[11] & 0xFF);
-        int subsystemId = ((payload[12] & 0xFF) << 8) | (payload[13] & 0xFF);
-        int component = ((payload[14] & 0xFF) << 8) | (payload[15] & 0xFF);
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int subsystemId = telegram.word(4);
+        int component = telegram.word(6);
 
-        long globalId = ((long)(payload[16] & 0xFF) << 24) |
-                        ((long)(payload[17] & 0xFF) << 16) |
-                        ((long)(payload[18] & 0xFF) << 8)  |
-                        ((long)(payload[19] & 0xFF));
+        long globalId = telegram.dword(8) & 0xFFFFFFFFL;
 
-        int plcIndex = ((payload[20] & 0xFF) << 8) | (payload[21] & 0xFF);
-        int destination = ((payload[22] & 0xFF) << 8) | (payload[23] & 0xFF);
-        int status = payload[24] & 0xFF;
+        int plcIndex = telegram.word(12);
+        int destination = telegram.word(14);
+        int status = telegram.byteAt(16);
 
         String statusDescription = switch (status) {
             case 0 -> "0(OK)";
@@ -674,7 +646,7 @@ public class ScannerResultTlgWithVersionNo {
             default -> status + "(Unknown)";
         };
 
-        log.info(logPrefix, String.format(
+        log.info(logPrefix, () -> String.format(
             "**********PLC to SAC*********************\n" +
             "%s %s ConveyorPlcChannel_10Telegram [RX]:\n" +
             "telegram=<ItemDestinationAckTlg>,\n" +
@@ -100,7 +100,7 @@
 //        // === Step 6: Translate Result ===
 //        String resultMeaning = translateResult(screeningResult);
 //        String levelMeaning = translateLevel(screeningLevel);
-//        log.info(logPrefix, String.format("Result interpreted: <%s>, Level interpreted: <%s>", resultMeaning, levelMeaning));
+//        log.info(logPrefix, () -> String.format("Result interpreted: <%s>, Level interpreted: <%s>", resultMeaning, levelMeaning));
 //
 //        // === Step 7: Special Handling for Level 4 Push Button ===
 //        if (screeningLevel / 10 == 4 && screeningResult == 2) {
@@ -199,79 +199,65 @@
 package conveyorinterface.plctelegrams;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 
 import platform.core.log.Log;
+import platform.io.telegraph.TelegramFrame;
 
-public class ScreeningResult {
+public class ScreeningResult implements TelegramHandler {
 
     /** Default Constructor */
     public ScreeningResult() {}
 
-    /** Validate and handle Screening Result telegrams */
-    public void validate(InputStream inputStream, OutputStream outputStream, Log log, String logPrefix) throws IOException {
+    @Override
+    public void handle(TelegramFrame telegram, TelegramContext context) throws IOException {
+        validate(telegram, context.getOutputStream(), context.getLog(), context.getLogPrefix());
+    }
 
-        // === Step 1: Read TPKT Header (4 bytes) ===
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-        if ((tpkt[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (tpkt[0] & 0xFF));
+    /** Validate and handle Screening Result telegrams */
+    public void validate(TelegramFrame telegram, OutputStream outputStream, Log log, String logPrefix) throws IOException {
 
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-        if (totalLength < 30)
-            throw new IOException("Total telegram length too short: " + totalLength);
+        // === Step 1: Check length (dispatcher already framed and parsed the header) ===
+        telegram.requireTotalLength(30);
+        int totalLength = telegram.getTotalLength();
 
         log.info(logPrefix, "📦 Incoming ScreeningResult telegram total length: " + totalLength + " bytes");
-
-        // === Step 2: Read COTP Header (3 bytes) ===
-        byte[] cotp = new byte[3];
-        readFully(inputStream, cotp, 0, 3);
-        if ((cotp[0] & 0xFF) != 0x02 || (cotp[1] & 0xFF) != 0xF0 || (cotp[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header. Expected [0x02, 0xF0, 0x80]");
-
-        // === Step 3: Read telegram payload ===
-        byte[] buffer = new byte[totalLength - 7];
-        readFully(inputStream, buffer, 0, buffer.length);
-        int index = 0;
-
-        // === Step 4: Common Header Fields ===
-        int channelId = getWord(buffer, index); index += 2;
-        int version = getWord(buffer, index); index += 2;
-        int sequenceNumber = getDWord(buffer, index); index += 4;
-        int telegramType = getWord(buffer, index); index += 2;
-        int telegramLength = getWord(buffer, index); index += 2;
-        int subsystemId = getWord(buffer, index); index += 2;
-        int component = getWord(buffer, index); index += 2;
-        long globalId = getDWord(buffer, index); index += 4;
-        int plcIndex = getWord(buffer, index); index += 2;
-
-        // === Step 5: Read DD - Location ===
-        int location = getWord(buffer, index); index += 2;
-
-        // === Step 6: Read JJ - Screening Level ===
-        int screeningLevel = getWord(buffer, index); index += 2;
-
-        // === Step 7: Read RR - Screening Result ===
-        int screeningResult = getWord(buffer, index); index += 2;
-
-        // === Step 8: Read AAAAAAAAAA - IATA (10 bytes ASCII) ===
-        byte[] iataBytes = new byte[10];
-        System.arraycopy(buffer, index, iataBytes, 0, 10);
-        String iata = new String(iataBytes, StandardCharsets.US_ASCII).trim();
+        int index = 4; // payload offset of SS, right after TT + LL
+
+        // === Step 2: Common Header Fields ===
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        int subsystemId = telegram.word(index); index += 2;
+        int component = telegram.word(index); index += 2;
+        long globalId = telegram.dword(index); index += 4;
+        int plcIndex = telegram.word(index); index += 2;
+
+        // === Step 3: Read DD - Location ===
+        int location = telegram.word(index); index += 2;
+
+        // === Step 4: Read JJ - Screening Level ===
+        int screeningLevel = telegram.word(index); index += 2;
+
+        // === Step 5: Read RR - Screening Result ===
+        int screeningResult = telegram.word(index); index += 2;
+
+        // === Step 6: Read AAAAAAAAAA - IATA (10 bytes ASCII) ===
+        String iata = telegram.ascii(index, 10).trim();
         index += 10;
 
-        // === Step 9: Read EE - Screening Result Status ===
-        int screeningStatus = getWord(buffer, index); index += 2;
+        // === Step 7: Read EE - Screening Result Status ===
+        int screeningStatus = telegram.word(index); index += 2;
 
-        // === Step 10: Read KK - Response Length ===
-        int responseLength = getWord(buffer, index); index += 2;
+        // === Step 8: Read KK - Response Length ===
+        int responseLength = telegram.word(index); index += 2;
 
-        // === Step 11: Read a1a2...all (ASCII Data) ===
+        // === Step 9: Read a1a2...all (ASCII Data) ===
         String responseAscii = "";
-        if (responseLength > 0 && index + responseLength <= buffer.length) {
-            responseAscii = new String(buffer, index, responseLength, StandardCharsets.US_ASCII).trim();
+        if (responseLength > 0 && index + responseLength <= telegram.getPayloadSize()) {
+            responseAscii = telegram.ascii(index, responseLength).trim();
             index += responseLength;
 
             // Append 0xFF if odd length
@@ -279,31 +265,32 @@ public class ScreeningResult {
                 responseAscii += "ÿ"; // 0xFF ASCII representation
         }
 
-        // === Step 12: Log and Interpret ===
-        log.info(logPrefix, "📥 ScreeningResult Raw Telegram: " + bytesToHex(buffer));
-        log.info(logPrefix, String.format(
+        // === Step 10: Log and Interpret ===
+        log.debug(logPrefix, () -> "📥 ScreeningResult Raw Telegram: " + telegram.hex());
+        final String asciiData = responseAscii;
+        log.info(logPrefix, () -> String.format(
             "Parsed -> CH=%d | VER=%d | SEQ=%d | TYPE=%d | LEN=%d | SS=%d | CC=%d | GID=%d | PLC=%d | LOC=%d | LVL=%d | RES=%d | IATA=%s | STATUS=%d | RESP_LEN=%d | RESP_ASCII=%s",
             channelId, version, sequenceNumber, telegramType, telegramLength,
             subsystemId, component, globalId, plcIndex,
-            location, screeningLevel, screeningResult, iata, screeningStatus, responseLength, responseAscii
+            location, screeningLevel, screeningResult, iata, screeningStatus, responseLength, asciiData
         ));
 
-        // === Step 13: Validate Telegram Type ===
+        // === Step 11: Validate Telegram Type ===
         if (telegramType != 60)
             throw new IOException("Unexpected telegram type. Expected 60 (ScreeningResult) but got " + telegramType);
 
-        // === Step 14: Interpret Levels & Results ===
+        // === Step 12: Interpret Levels & Results ===
         String levelDesc = translateLevel(screeningLevel);
         String resultDesc = translateResult(screeningResult);
         String trackStatus = (screeningStatus == 0) ? "Good Track" : "Lost Track";
 
-        // === Step 15: IATA Handling ===
+        // === Step 13: IATA Handling ===
         if (iata.equals("0000000000"))
             log.info(logPrefix, "🧳 No ATR Read — IATA = 0000000000 (Untracked Bag)");
         else if (iata.equals("9999999999"))
             log.info(logPrefix, "🧳 Multi-label detected — IATA = 9999999999");
 
-        // === Step 16: Conditional Behavior ===
+        // === Step 14: Conditional Behavior ===
         if (screeningLevel / 10 == 4 && screeningResult == 2)
             log.info(logPrefix, "✅ Level 4 Clear by Operator (Manual Intervention)");
         if (screeningResult == 9)
@@ -315,8 +302,8 @@ public class ScreeningResult {
         if (screeningResult == 99)
             log.info(logPrefix, "🔁 Send to Rescreening by Customs");
 
-        // === Step 17: Final Interpretation Log ===
-        log.info(logPrefix, String.format(
+        // === Step 15: Final Interpretation Log ===
+        log.info(logPrefix, () -> String.format(
             "🧩 Interpreted -> Level: %s | Result: %s | Track: %s",
             levelDesc, resultDesc, trackStatus
         ));
@@ -328,34 +315,6 @@ public class ScreeningResult {
     // Helper Methods
     // ============================================================
 
-    private static int getWord(byte[] buf, int idx) {
-        return ((buf[idx] & 0xFF) << 8) | (buf[idx + 1] & 0xFF);
-    }
-
-    private static int getDWord(byte[] buf, int idx) {
-        return ((buf[idx] & 0xFF) << 24)
-             | ((buf[idx + 1] & 0xFF) << 16)
-             | ((buf[idx + 2] & 0xFF) << 8)
-             | (buf[idx + 3] & 0xFF);
-    }
-
-    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1)
-                throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
-
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes)
-            sb.append(String.format("%02X ", b));
-        return sb.toString().trim();
-    }
-
     private String translateLevel(int code) {
         return switch (code) {
             case 0 -> "HBS Level Undefined";
@@ -0,0 +1,66 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramContext Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Per-connection state handed to telegram handlers
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         In-flight table of the connection for ACK matching
+//01.02    2026.10.18    Giresh         Airline table download of the connection for TT 161
+
+
+package conveyorinterface.plctelegrams;
+
+import java.io.OutputStream;
+
+import platform.core.log.Log;
+import platform.io.telegraph.InFlightTable;
+
+/**
+ * What a handler needs to know about the connection a telegram arrived on.
+ * One instance per dispatcher, created with the connection.
+ */
+public class TelegramContext {
+
+    private final OutputStream outputStream;
+    private final Log log;
+    private final String logPrefix;
+    private final InFlightTable inFlight;
+    private final AirlineTableDownload airlineTableDownload;
+
+    public TelegramContext(OutputStream outputStream, Log log, String logPrefix, InFlightTable inFlight,
+                           AirlineTableDownload airlineTableDownload) {
+        this.outputStream = outputStream;
+        this.log = log;
+        this.logPrefix = logPrefix;
+        this.inFlight = inFlight;
+        this.airlineTableDownload = airlineTableDownload;
+    }
+
+    /** Stream to the PLC; every write is queued as one telegram. */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    public String getLogPrefix() {
+        return logPrefix;
+    }
+
+    /** Telegrams this connection sent that wait for an ACK (TT 102). */
+    public InFlightTable getInFlight() {
+        return inFlight;
+    }
+
+    /** Airline code table download that a TT 161 completes. */
+    public AirlineTableDownload getAirlineTableDownload() {
+        return airlineTableDownload;
+    }
+}
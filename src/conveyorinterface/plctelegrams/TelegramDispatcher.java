@@ -9,65 +9,67 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Frame based dispatch fed by the RFC1006 event loop
+//01.02    2026.10.18    Giresh         Dispatch on read-only frame views, no per-telegram copies
+//01.03    2026.10.18    Giresh         Header parsed once into TelegramFrame, handlers never read the stream
+//01.04    2026.10.18    Giresh         switch replaced by TelegramHandlerRegistry lookup
+//01.05    2026.10.18    Giresh         Hex dumps at DEBUG, messages built only when their level is enabled
+//01.06    2026.10.18    Giresh         Socket receive time passed on to the handlers
+//01.07    2026.10.18    Giresh         Received telegrams and ACKs counted per TT for the status endpoint
+//01.08    2026.10.18    Giresh         KeepAlive no longer echoed, idle links are served by KeepAliveManager
+//01.09    2026.10.18    Giresh         Table telegrams numbered per channel and tracked until the PLC ACKs them
+//01.10    2026.10.18    Giresh         Airline table sent through the windowed AirlineTableDownload
+//01.11    2026.10.18    Giresh         Trigger only sends the airline table when it differs from what the PLC confirmed
+//01.12    2026.10.18    Giresh         Trigger server moved to rfc.TableBroadcastService (one for all PLCs)
+//01.13    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
 
 
 package conveyorinterface.plctelegrams;
 
-import platform.core.Repository.AirlineAllocationRepository;
 import platform.core.log.Log;
-
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import platform.core.metrics.TelegramCounters;
+import platform.io.telegraph.FrameUtil;
+import platform.io.telegraph.InFlightTable;
+import platform.io.telegraph.SequenceGenerator;
+import platform.io.telegraph.TelegramFrame;
+import platform.io.telegraph.TpktFrameDecoder;
 
 import Entity.AirlineAllocation;
-import rfc.RFC1006TSAPHandler;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 import conveyorinterface.frontend.TelegramSenderUI;
-import conveyorinterface.plctelegrams.ScannerResultTlgWithVersionNo;
 
 public class TelegramDispatcher {
 
-    private final InputStream inputStream;
     private final OutputStream outputStream;
     private final Log log;
     private final String logPrefix;
+    private final TelegramFrame telegram = new TelegramFrame();
+    private final TelegramContext context;
+    private final TelegramHandlerRegistry registry;
+    private final TelegramCounters counters = new TelegramCounters();
+    private final SequenceGenerator sequences = new SequenceGenerator();
+    private final InFlightTable inFlight = new InFlightTable();
+    private final AirlineTableDownload airlineTableDownload;
     static final byte TPKT_VERSION = (byte) 0x03;
     static final byte TPKT_RESERVE = (byte) 0x00;
-    private final Runnable reconnectCallback;
-    public TelegramDispatcher(InputStream inputStream, OutputStream outputStream, Log log, String logPrefix ,  Runnable reconnectCallback) {
-        this.inputStream = inputStream;
+    static final int ACK_TELEGRAM_TYPE = 102;
+    static final int ACK_FRAME_SIZE = 23;
+
+    public TelegramDispatcher(OutputStream outputStream, Log log, String logPrefix) {
+        this(outputStream, log, logPrefix, TelegramHandlerRegistry.getDefault());
+    }
+
+    public TelegramDispatcher(OutputStream outputStream, Log log, String logPrefix, TelegramHandlerRegistry registry) {
         this.outputStream = outputStream;
         this.log = log;
         this.logPrefix = logPrefix;
-        this.reconnectCallback = reconnectCallback;
-    }
-
-    public void startDispatchLoop() {
-        new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    dispatchOneTelegram();
-                } catch (IOException e) {
-                    log.error(logPrefix, "❌ Telegram dispatch failed: " + e.getMessage(), e);
-
-                    // Trigger reconnection
-                    reconnectCallback.run();
-
-                    // Exit this loop/thread after failure
-                    break;
-                } catch (Exception e) {
-                    log.error(logPrefix, "❌ Unexpected error in dispatch loop: " + e.getMessage(), e);
-                    reconnectCallback.run();
-                    break;
-                }
-            }
-        }, "TelegramDispatcherThread").start();
+        this.registry = registry;
+        this.airlineTableDownload = new AirlineTableDownload(outputStream, sequences, inFlight, log, logPrefix);
+        this.context = new TelegramContext(outputStream, log, logPrefix, inFlight, airlineTableDownload);
     }
 
     protected String bytesToHex(byte[] bytes) {
@@ -77,209 +79,90 @@ public class TelegramDispatcher {
         return sb.toString().trim();
     }
     
-    private void dispatchOneTelegram() throws IOException {
-        // === Step 1: Read TPKT Header ===
-    	readAvailableFromPLC(inputStream);
-        byte[] tpkt = new byte[4];
-        readFully(inputStream, tpkt, 0, 4);
-        if ((tpkt[0] & 0xFF) != 0x03)
-            throw new IOException("Invalid TPKT version: " + (tpkt[0] & 0xFF));
-
-        int totalLength = ((tpkt[2] & 0xFF) << 8) | (tpkt[3] & 0xFF);
-        if (totalLength < 25) {	
-        	  byte[] KeepAliveTelegram = new byte[] {
-        	            TPKT_VERSION, TPKT_RESERVE, 0x00, 0x08, 0x02, (byte) 0xf0, (byte) 0x80, 0x00
-        	        };
-          outputStream.write(KeepAliveTelegram);  
-          log.info(logPrefix, "Sending KeepAliveTelegram telegram: " + bytesToHex(KeepAliveTelegram));
-          return ;
-        }
-           // throw new IOException("Corrupt telegram. Length too short: " + totalLength);
-
-        log.info(logPrefix, "📦 Incoming telegram total length: " + totalLength + " bytes");
-
-        // === Step 2: Read Remaining Data ===
-        byte[] buffer = new byte[totalLength - 4]; // Already read 4 bytes for TPKT
-        readFully(inputStream, buffer, 0, buffer.length);
+    /**
+     * Handles one complete TPKT frame (header included) received from the PLC.
+     * The frame is framed and its channel header parsed exactly once here; the
+     * handlers only see the resulting {@link TelegramFrame}, never a stream, and
+     * must not keep it after returning.
+     */
+    public void dispatchFrame(ByteBuffer frame) throws IOException {
+        dispatchFrame(frame, System.nanoTime());
+    }
 
-        // === Step 3: Validate COTP ===
-        if ((buffer[0] & 0xFF) != 0x02 || (buffer[1] & 0xFF) != 0xF0 || (buffer[2] & 0xFF) != 0x80)
-            throw new IOException("Invalid COTP header"); 
+    /**
+     * @param receivedNanos {@link System#nanoTime()} when the frame was read from the socket,
+     *                      available to handlers through {@link TelegramFrame#getReceivedNanos()}
+     */
+    public void dispatchFrame(ByteBuffer frame, long receivedNanos) throws IOException {
+        // === Step 1: Validate TPKT Header ===
+        int start = frame.position();
+        if ((frame.get(start) & 0xFF) != 0x03)
+            throw new IOException("Invalid TPKT version: " + (frame.get(start) & 0xFF));
+
+        int totalLength = FrameUtil.word(frame, start + 2);
+        log.debug(logPrefix, () -> "📥 Raw frame from PLC (" + frame.remaining() + " bytes): " + FrameUtil.hex(frame));
+        if (totalLength < 25 && !isAck(frame, start, totalLength)) {
+            // KeepAlive from the PLC: receiving it already refreshed the link, our own
+            // keep-alives are only sent when the link is idle (KeepAliveManager)
+            counters.keepAlive();
+            log.debug(logPrefix, "KeepAlive received from PLC");
+            return;
+        }
 
-        // === Step 4: Extract Channel Header & Telegram ===
-        int channelId = ((buffer[3] & 0xFF) << 8) | (buffer[4] & 0xFF);
-        int version = ((buffer[5] & 0xFF) << 8) | (buffer[6] & 0xFF);
-        int sequenceNumber = ((buffer[7] & 0xFF) << 24) | ((buffer[8] & 0xFF) << 16)
-                           | ((buffer[9] & 0xFF) << 8) | (buffer[10] & 0xFF);
+        log.debug(logPrefix, "📦 Incoming telegram total length: {} bytes", totalLength);
 
-        int telegramType = ((buffer[11] & 0xFF) << 8) | (buffer[12] & 0xFF);
-        int telegramLength = ((buffer[13] & 0xFF) << 8) | (buffer[14] & 0xFF);
+        // === Step 2: Frame + parse the channel header once for all handlers ===
+        TelegramFrame telegram = this.telegram.wrap(frame);
+        telegram.setReceivedNanos(receivedNanos);
+        int channelId = telegram.getChannelId();
+        int version = telegram.getVersion();
+        int sequenceNumber = telegram.getSequenceNumber();
+        int telegramType = telegram.getTelegramType();
+        int telegramLength = telegram.getTelegramLength();
+        counters.received(telegramType);
 
-        // === Step 5: Log Info ===
-        log.info(logPrefix, String.format(
+        // === Step 3: Log Info ===
+        log.info(logPrefix, () -> String.format(
             "📥 Received telegram: ChannelID=%d | Version=%d | SeqNo=%d | Type=%d | Length=%d words",
             channelId, version, sequenceNumber, telegramType, telegramLength));
 
-        // === Step 6: Handle Type ===
-        switch (telegramType) {
-            case 26: log.info(logPrefix, "SCANNER RESULT telegram received"); 
-            ScannerResultTlgWithVersionNo ScannerResult = new ScannerResultTlgWithVersionNo() ;
-            ScannerResult.handleScannerTelegram(outputStream , inputStream, log , logPrefix) ;       
-            break;
-            case 40: log.info(logPrefix, "ITEM ENTER telegram received");
-            ItemEnter itemEnter = new ItemEnter() ;
-            itemEnter.validate( inputStream, log , logPrefix) ;
-            break;
-            case 46: log.info(logPrefix, "ITEM LOST telegram received");
-            ItemLost itemLost = new ItemLost() ;
-            itemLost.validate( inputStream, log , logPrefix) ;
-            break;
-            case 47: log.info(logPrefix, "ITEM STRAY telegram received");
-            ItemStray itemStray = new ItemStray() ;
-            itemStray.validate( inputStream, log , logPrefix) ;
-            break;
-            case 50: log.info(logPrefix, "Item Transfer telegram received");
-            ItemTransfer itemTransfer = new ItemTransfer() ;
-            itemTransfer.validate( inputStream, log , logPrefix) ;
-            break;
-            case 51: log.info(logPrefix, "Item Exit telegram received");
-            ItemExit itemExit = new ItemExit() ;
-            itemExit.validate( inputStream, log , logPrefix) ;
-            break;
-            case 44: log.info(logPrefix, "ITEM DESTINATION ACKNOWLEDGEMENT telegram received");
-            ScannerResultTlgWithVersionNo AckDestination = new ScannerResultTlgWithVersionNo() ;
-            AckDestination.validate_AckDestination( inputStream, log , logPrefix) ;
-            break;           
-            case 164: log.info(logPrefix, "ITEM INFO REQUEST  telegram received");
-            ItemInfoRequest handler = new ItemInfoRequest();
-             // Automatically parse request and send response
-             handler.respondToRequest(inputStream, outputStream, log, logPrefix, 
-                                  11, 11, 31, 12, 1, 1); // example screening/customs/EBS values
-            break; 
-            case 112: log.info(logPrefix, "Key Switch result telegram received"); 
-            KeySwitch keySwitch = new KeySwitch() ;
-            keySwitch.validate(inputStream , log , logPrefix) ;      
-            break;
-            case 60: log.info(logPrefix, "ScreeningResult telegram received"); 
-            ScreeningResult screeningResult = new ScreeningResult() ;
-            screeningResult.validate(inputStream , outputStream, log , logPrefix) ;   
-            break;
-            case 161: log.info(logPrefix, "AirlineCodeTableComplete telegram received"); 
-            AirlineCodeTableComplete airlineCodeTableComplete = new AirlineCodeTableComplete() ;
-            airlineCodeTableComplete.validate(inputStream, log , logPrefix) ;   
-            break;
-            case 160: log.info(logPrefix, "FallBackTagTableComplete telegram received"); 
-            FallBackTagTableComplete fallBackTagTableComplete = new FallBackTagTableComplete() ;
-            fallBackTagTableComplete.validate(inputStream, log , logPrefix) ;   
-            break;
-            default:
-                log.info(logPrefix, "⚠️ Unknown telegram type: " + telegramType);
+        // === Step 4: Handle Type (one array lookup, unknown types go to the fallback) ===
+        String name = registry.getName(telegramType);
+        if (name != null) {
+            log.info(logPrefix, "{} telegram received", name);
         }
-        // === Step 7: Always send ACK ===
-        sendAck(sequenceNumber, channelId, version);
-    }
-      
-    public void startTriggerServer() {
-        new Thread(() -> {
-            try (ServerSocket server = new ServerSocket(6000)) {
-                System.out.println("Trigger server listening on port 6000...");
-                while (true) {
-                    Socket client = server.accept();
-                    byte[] buf = new byte[256];
-                    int read = client.getInputStream().read(buf);
-                    String message = new String(buf, 0, read).trim();
-                    if ("START_SENDING".equals(message)) {
-                        System.out.println("Trigger received, sending airline telegrams...");
-                        sendAllEnabledEntries();
-                    }
-                    client.close();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }).start();
-    }
+        registry.lookup(telegramType).handle(telegram, context);
 
-    private void sendAllEnabledEntries() {
-
-        AirlineAllocationRepository repo = new AirlineAllocationRepository();
-        List<AirlineAllocation> entries = repo.getEnabledEntries();
-
-        log.info(logPrefix, "Sending " + entries.size() + " enabled airline entries...");
-
-        sendAirlineCodeTableStart(1);   // Start telegram only once
-
-        int count = 0;
-
-        for (AirlineAllocation a : entries) {
-            try {
-                // Skip if disabled or deleted
-                if (!Boolean.TRUE.equals(a.getEnableStatus()) || Boolean.TRUE.equals(a.getDeleted())) {
-                    log.info(logPrefix, "Skipping disabled/deleted airline: " + a.getAirlineCode());
-                    continue; // skip this entry, but DO NOT stop loop
-                }
-
-                // Send entry telegram
-                sendAirlineCodeTableEntry(a);
-                count++;
-
-            } catch (Exception e) {
-                log.error(logPrefix, "Failed to send telegram for " + a.getAirlineCode(), e);
-            }
+        // === Step 5: ACK everything except ACKs ===
+        if (telegramType != ACK_TELEGRAM_TYPE) {
+            sendAck(sequenceNumber, channelId, version);
         }
-
-        sendAirlineCodeTableEnd(count);     // End telegram
-
-        log.info(logPrefix, "✅ Finished sending all airline telegrams (" + count + " entries sent)");
     }
 
-
-    
+    /** PLC ACKs (TT 102) are the only telegrams shorter than 25 bytes; everything else that short is a KeepAlive. */
+    private static boolean isAck(ByteBuffer frame, int start, int totalLength) {
+        return totalLength >= ACK_FRAME_SIZE && frame.remaining() >= ACK_FRAME_SIZE
+                && FrameUtil.word(frame, start + TpktFrameDecoder.DATA_OFFSET + TelegramFrame.CHANNEL_HEADER_SIZE) == ACK_TELEGRAM_TYPE;
+    }
+      
     public void sendAirlineCodeTableStart(int id) {
     	int subsystemId = id;         // your subsystem ID
     	int channelId = 7;            // fixed channel ID
     	int version = 1;              // fixed protocol version
-    	// Generate a random sequence number or use an incrementing counter
-    	int sequenceNumber = (int) (Math.random() * 1000000); // random 0 to 999999
+    	int sequenceNumber = sequences.next();
     	AirlineCodeTableStartTlg airlineCodeTableStartTlg = 
     	        new AirlineCodeTableStartTlg(subsystemId, channelId, version, sequenceNumber);
-    	try {
-			airlineCodeTableStartTlg.send(outputStream ,log , logPrefix);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+    	sendTracked(sequenceNumber, airlineCodeTableStartTlg.getTelegramType(),
+    	        airlineCodeTableStartTlg.buildTelegram(), "AIRLINE CODE TABLE START");
     }
     public void sendAirlineCodeTableEntry(AirlineAllocation a) {
-
-        String airlineCode = a.getAirlineCode();       // from DB
-        int destination = a.getSortPosition();          // from DB
-        int numAltDest = 2;            // from DB
-        int alt1 = 101;                         // from DB
-        int alt2 = 102;                         // from DB
-        int alt3 = 0;                         // from DB
-        int subsystemId = 1;                            // fixed or configurable
-        int channelId = 7;                              // fixed
-        int version = 1;                                // fixed
-        int sequenceNumber = (int) (Math.random() * 1000000); // random sequence
-
-        AirlineCodeEntryTlg airlineCodeEntryTlg = new AirlineCodeEntryTlg(
-                subsystemId,
-                channelId,
-                version,
-                sequenceNumber,
-                airlineCode,
-                destination,
-                numAltDest,
-                alt1,
-                alt2,
-                alt3
-        );
-        try {
-            airlineCodeEntryTlg.send(outputStream, log, logPrefix);
-            log.info(logPrefix, "✅ Sent AirlineCodeEntry for: " + airlineCode + " → Dest: " + destination);
-        } catch (IOException e) {
-            log.error(logPrefix, "❌ Failed to send AirlineCodeEntry for: " + airlineCode, e);
+        int sequenceNumber = sequences.next();
+        AirlineCodeEntryTlg airlineCodeEntryTlg = AirlineCodeEntryTlg.forAllocation(a, sequenceNumber);
+        if (sendTracked(sequenceNumber, airlineCodeEntryTlg.getTelegramType(),
+                airlineCodeEntryTlg.buildTelegram(), "AIRLINE CODE ENTRY")) {
+            log.info(logPrefix, "✅ Sent AirlineCodeEntry for: " + a.getAirlineCode() + " → Dest: " + a.getSortPosition());
+        } else {
+            log.error(logPrefix, "❌ Failed to send AirlineCodeEntry for: " + a.getAirlineCode());
         }
     }
  
@@ -287,17 +170,12 @@ public class TelegramDispatcher {
     	int subsystemId = 1;         // your subsystem ID
     	int channelId = 7;            // fixed channel ID
     	int version = 1;              // fixed protocol version
-    	// Generate a random sequence number or use an incrementing counter
-    	int sequenceNumber = (int) (Math.random() * 1000000); // random 0 to 999999
+    	int sequenceNumber = sequences.next();
     	int count = count_entry ;
     	AirlineCodeTableEndTlg AirlineCodeTableEndTlg = 
     	        new AirlineCodeTableEndTlg(subsystemId, channelId, version, sequenceNumber, count);
-    	try {
-    		AirlineCodeTableEndTlg.send(outputStream ,log , logPrefix);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+    	sendTracked(sequenceNumber, AirlineCodeTableEndTlg.getTelegramType(),
+    	        AirlineCodeTableEndTlg.buildTelegram(), "AIRLINE CODE TABLE END");
     }
     
     
@@ -306,16 +184,11 @@ public class TelegramDispatcher {
     	int subsystemId = id;         // your subsystem ID
     	int channelId = 7;            // fixed channel ID
     	int version = 1;              // fixed protocol version
-    	// Generate a random sequence number or use an incrementing counter
-    	int sequenceNumber = (int) (Math.random() * 1000000); // random 0 to 999999
+    	int sequenceNumber = sequences.next();
     	FallbackTagTableStartTlg fallBackTableStartTlg = 
     	        new FallbackTagTableStartTlg(subsystemId, channelId, version, sequenceNumber);
-    	try {
-    		fallBackTableStartTlg.send(outputStream ,log , logPrefix);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+    	sendTracked(sequenceNumber, fallBackTableStartTlg.getTelegramType(),
+    	        fallBackTableStartTlg.buildTelegram(), "FALLBACK TAG TABLE START");
     }
     
     public void sendFallbackTagEntryTlg(int id) {
@@ -329,7 +202,7 @@ public class TelegramDispatcher {
         int subsystemId = 1;
         int channelId = 7;
         int version = 1;
-        int sequenceNumber = (int) (Math.random() * 1000000); // random sequence
+        int sequenceNumber = sequences.next();
 
         FallbackTagEntryTlg fallbackTagEntryTlg = new FallbackTagEntryTlg(
                 subsystemId,
@@ -345,11 +218,8 @@ public class TelegramDispatcher {
                 alt3
         );
 
-        try {
-            fallbackTagEntryTlg.send(outputStream, log, logPrefix);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        sendTracked(sequenceNumber, fallbackTagEntryTlg.getTelegramType(),
+                fallbackTagEntryTlg.buildTelegram(), "FALLBACK TAG ENTRY");
     }
 
  
@@ -357,19 +227,35 @@ public class TelegramDispatcher {
     	int subsystemId = id;         // your subsystem ID
     	int channelId = 7;            // fixed channel ID
     	int version = 1;              // fixed protocol version
-    	// Generate a random sequence number or use an incrementing counter
-    	int sequenceNumber = (int) (Math.random() * 1000000); // random 0 to 999999
+    	int sequenceNumber = sequences.next();
     	int count = 10 ;
     	FallbackTagTableEndTlg fallbackTagTableEndTlg = 
     	        new FallbackTagTableEndTlg(subsystemId, channelId, version, sequenceNumber, count);
-    	try {
-    		fallbackTagTableEndTlg.send(outputStream ,log , logPrefix);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+    	sendTracked(sequenceNumber, fallbackTagTableEndTlg.getTelegramType(),
+    	        fallbackTagTableEndTlg.buildTelegram(), "FALLBACK TAG TABLE END");
     }
     
+    /**
+     * Sends a CSC => PLC telegram that the PLC acknowledges with TT 102. It is put
+     * into the in-flight table before the write, because the ACK can be processed
+     * on the processor thread before the write call returns.
+     *
+     * @return false if the telegram could not be queued
+     */
+    private boolean sendTracked(int sequenceNumber, int telegramType, byte[] telegram, String name) {
+        inFlight.track(sequenceNumber, telegramType, telegram);
+        try {
+            log.debug(logPrefix, () -> "Sending " + name + " telegram (SeqNo=" + sequenceNumber + "): " + FrameUtil.hex(telegram));
+            outputStream.write(telegram);
+            outputStream.flush();
+            return true;
+        } catch (IOException e) {
+            inFlight.forget(sequenceNumber);
+            log.error(logPrefix, "❌ Failed to send " + name + " telegram: " + e.getMessage());
+            return false;
+        }
+    }
+
     private void sendAck(int sequenceNumber, int channelId, int version) throws IOException {
         byte[] channelHeader = new byte[]{
             (byte)(channelId >> 8), (byte)channelId,
@@ -401,38 +287,30 @@ public class TelegramDispatcher {
 
         System.arraycopy(fullPayload, 0, telegram, 7, fullPayload.length);
 
-        log.info(logPrefix, "📤 Sending ACK (TT=102) for ChannelID=" + channelId + " | SeqNo=" + sequenceNumber);
+        log.info(logPrefix, "📤 Sending ACK (TT=102) for ChannelID={} | SeqNo={}", channelId, sequenceNumber);
         outputStream.write(telegram);
         outputStream.flush();
+        counters.ackSent();
     }
-    
 
-    private void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
+    /** Lock-free counts of what this connection received, read by the status endpoint. */
+    public TelegramCounters getCounters() {
+        return counters;
     }
-    
-    private byte[] readAvailableFromPLC(InputStream in) throws IOException {
-        int available = in.available(); // Check how many bytes are available to read
-        if (available == 0) return new byte[0]; // No data to read
-
-        byte[] buffer = new byte[available];
-        int bytesRead = in.read(buffer);
-        if (bytesRead == -1) throw new IOException("PLC connection closed unexpectedly");
-
-        // Log raw data in hex format
-        StringBuilder sb = new StringBuilder("📥 Raw buffer from PLC (" + bytesRead + " bytes): ");
-        for (int i = 0; i < bytesRead; i++) {
-            sb.append(String.format("%02X ", buffer[i]));
-        }
-        log.info(logPrefix ,"@randomedata@" + sb.toString().trim());
 
+    /** Telegrams sent by this connection that still wait for the PLC's ACK. */
+    public InFlightTable getInFlight() {
+        return inFlight;
+    }
+
+    /** Background airline code table download of this connection. */
+    public AirlineTableDownload getAirlineTableDownload() {
+        return airlineTableDownload;
+    }
 
-        return buffer;
+    /** Name registered for the telegram type, null if none. */
+    public String getTelegramName(int telegramType) {
+        return registry.getName(telegramType);
     }
 
 }
@@ -0,0 +1,30 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramHandler Interface
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Contract for handlers of PLC => CSC telegrams
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package conveyorinterface.plctelegrams;
+
+import java.io.IOException;
+
+import platform.io.telegraph.TelegramFrame;
+
+/**
+ * Handles one telegram type. Handlers are registered once in the
+ * {@link TelegramHandlerRegistry} and shared by every PLC connection, so they
+ * must be stateless: everything connection specific comes in through the
+ * {@link TelegramContext}.
+ */
+@FunctionalInterface
+public interface TelegramHandler {
+
+    void handle(TelegramFrame telegram, TelegramContext context) throws IOException;
+}
@@ -0,0 +1,103 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramHandlerRegistry Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Telegram type => handler lookup table
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         TT 102 ACKs matched against the in-flight table
+
+
+package conveyorinterface.plctelegrams;
+
+/**
+ * Handlers indexed directly by telegram type (TT 0..65535), so dispatching is
+ * one array load. Telegram types without a handler go to the fallback handler.
+ * <p>
+ * Registration happens at start-up, before the connections are opened; the
+ * tables are only read afterwards.
+ */
+public class TelegramHandlerRegistry {
+
+    public static final int MAX_TELEGRAM_TYPE = 0xFFFF;
+
+    private static final TelegramHandlerRegistry DEFAULT = createDefault();
+
+    private final TelegramHandler[] handlers = new TelegramHandler[MAX_TELEGRAM_TYPE + 1];
+    private final String[] names = new String[MAX_TELEGRAM_TYPE + 1];
+    private TelegramHandler fallback = (telegram, context) ->
+            context.getLog().info(context.getLogPrefix(), "⚠️ Unknown telegram type: " + telegram.getTelegramType());
+
+    /** Registry with the standard PLC => CSC handlers, shared by all connections. */
+    public static TelegramHandlerRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static TelegramHandlerRegistry createDefault() {
+        TelegramHandlerRegistry registry = new TelegramHandlerRegistry();
+        registry.register(26, "SCANNER RESULT", new ScannerResultTlgWithVersionNo());
+        registry.register(40, "ITEM ENTER", new ItemEnter());
+        registry.register(44, "ITEM DESTINATION ACKNOWLEDGEMENT", (telegram, context) ->
+                ScannerResultTlgWithVersionNo.validate_AckDestination(telegram, context.getLog(), context.getLogPrefix()));
+        registry.register(46, "ITEM LOST", new ItemLost());
+        registry.register(102, "ACK", (telegram, context) -> {
+            int acked = telegram.getPayloadSize() >= 8 ? telegram.dword(4) : telegram.getSequenceNumber();
+            if (!context.getInFlight().acknowledge(acked)) {
+                context.getLog().debug(context.getLogPrefix(), "ACK for SeqNo={} matches no telegram in flight", acked);
+            }
+        });
+        registry.register(47, "ITEM STRAY", new ItemStray());
+        registry.register(50, "Item Transfer", new ItemTransfer());
+        registry.register(51, "Item Exit", new ItemExit());
+        registry.register(60, "ScreeningResult", new ScreeningResult());
+        registry.register(112, "Key Switch result", new KeySwitch());
+        registry.register(160, "FallBackTagTableComplete", new FallBackTagTableComplete());
+        registry.register(161, "AirlineCodeTableComplete", new AirlineCodeTableComplete());
+        registry.register(164, "ITEM INFO REQUEST", new ItemInfoRequest());
+        return registry;
+    }
+
+    /** Installs (or replaces) the handler for a telegram type. */
+    public void register(int telegramType, String name, TelegramHandler handler) {
+        checkType(telegramType);
+        if (handler == null) throw new IllegalArgumentException("handler must not be null");
+        handlers[telegramType] = handler;
+        names[telegramType] = name;
+    }
+
+    public void unregister(int telegramType) {
+        checkType(telegramType);
+        handlers[telegramType] = null;
+        names[telegramType] = null;
+    }
+
+    /** Handler used for telegram types nobody registered. */
+    public void setFallback(TelegramHandler fallback) {
+        if (fallback == null) throw new IllegalArgumentException("fallback must not be null");
+        this.fallback = fallback;
+    }
+
+    /** Registered handler for the type, or the fallback. */
+    public TelegramHandler lookup(int telegramType) {
+        TelegramHandler handler = handlers[telegramType & MAX_TELEGRAM_TYPE];
+        return handler != null ? handler : fallback;
+    }
+
+    public boolean isRegistered(int telegramType) {
+        return handlers[telegramType & MAX_TELEGRAM_TYPE] != null;
+    }
+
+    /** Display name used in the "... telegram received" log line, null when unknown. */
+    public String getName(int telegramType) {
+        return names[telegramType & MAX_TELEGRAM_TYPE];
+    }
+
+    private static void checkType(int telegramType) {
+        if (telegramType < 0 || telegramType > MAX_TELEGRAM_TYPE)
+            throw new IllegalArgumentException("Telegram type out of range: " + telegramType);
+    }
+}
@@ -6,6 +6,7 @@
  */
 	module CSC_SAC {
 	    requires java.sql;
+	    requires java.management;
 
 	    // Allow your module to access classes from unnamed modules (like NanoHTTPD)
 	    requires static java.desktop;
@@ -0,0 +1,343 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : BSMIndex Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : In-memory copy of tbl_IATA used for scanner routing
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         10-digit tags kept in a LongIntHashMap keyed by the numeric tag
+//01.02    2026.10.18    Giresh         Change column checked once from the result set metadata, not inferred from any error
+//01.03    2026.10.18    Giresh         startEmpty() for replays that run without a database
+
+
+package platform.core.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import platform.core.config.AppSettings;
+import platform.core.util.DBConnection;
+import platform.core.util.LongIntHashMap;
+
+/**
+ * IATA code → Allocation for every row of <code>tbl_IATA</code>.
+ * <p>
+ * The whole table is loaded at startup; afterwards a background thread fetches
+ * only the rows whose change column (<code>bsm.index.changeColumn</code>) moved past
+ * the newest value seen so far, and reloads everything every
+ * <code>bsm.index.fullReloadMinutes</code> to pick up deleted rows. Each refresh
+ * publishes a new map, so lookups from the telegram threads never lock and never
+ * touch the database.
+ * <p>
+ * Bag tags are 10 ASCII digits, so they are stored by numeric value in a
+ * {@link LongIntHashMap}; {@link #getDestination(long)} takes the tag parsed straight
+ * from the telegram bytes and allocates nothing. Codes that are not 10 digits are
+ * kept in a small String map.
+ */
+public final class BSMIndex {
+
+    /** Returned by {@link #getDestination(long)} when the tag is not in tbl_IATA. */
+    public static final int NO_DESTINATION = Integer.MIN_VALUE;
+    public static final int TAG_DIGITS = 10;
+
+    private static final BSMIndex INSTANCE = new BSMIndex();
+
+    /** One published state of the table; never modified after publication. */
+    private static final class Snapshot {
+        final LongIntHashMap tags;
+        final Map<String, Integer> others;
+
+        Snapshot(LongIntHashMap tags, Map<String, Integer> others) {
+            this.tags = tags;
+            this.others = others;
+        }
+
+        void put(String code, int allocation) {
+            String iata = code.trim();
+            long tag = parseTag(iata);
+            if (tag >= 0) {
+                tags.put(tag, allocation, NO_DESTINATION);
+            } else {
+                others.put(iata, allocation);
+            }
+        }
+
+        int size() {
+            return tags.size() + others.size();
+        }
+    }
+
+    private final String changeColumn = AppSettings.getString("bsm.index.changeColumn", "last_edit_time").trim();
+    private final long fullReloadMillis = AppSettings.getLong("bsm.index.fullReloadMinutes", 60) * 60_000L;
+
+    private volatile Snapshot allocations;
+    private Timestamp highWaterMark;
+    private boolean incrementalSupported = !changeColumn.isEmpty();
+    /** Set once the schema has been asked whether the change column exists. */
+    private boolean changeColumnChecked;
+    private long lastFullReload;
+
+    private volatile long lastRefreshTime;
+    private volatile long lastRefreshMillis;
+    private volatile long refreshCount;
+    private volatile long refreshFailures;
+    private volatile long refreshSeconds = AppSettings.getLong("bsm.index.refreshSeconds", 30);
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+
+    private BSMIndex() {
+    }
+
+    public static BSMIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads the full table and schedules the incremental refresh.
+     * A failed preload is logged and retried by the scheduled refresh;
+     * until then {@link #isLoaded()} stays false.
+     */
+    public synchronized void start() {
+        if (scheduler != null) return;
+        try {
+            fullReload();
+            System.out.println("✅ BSM index loaded: " + allocations.size() + " IATA codes in " + lastRefreshMillis + " ms");
+        } catch (SQLException | RuntimeException | LinkageError e) {
+            refreshFailures++;
+            System.err.println("❌ BSM index preload failed: " + describe(e));
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "BSM-Index-Refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleRefresh();
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Publishes an empty index without touching the database, so every lookup
+     * answers "no destination" (TelegramReplay without --with-db).
+     */
+    public synchronized void startEmpty() {
+        if (allocations == null) {
+            allocations = new Snapshot(new LongIntHashMap(16), new HashMap<>());
+        }
+    }
+
+    public boolean isLoaded() {
+        return allocations != null;
+    }
+
+    /**
+     * Hot path: Allocation of a numeric bag tag.
+     *
+     * @return the Allocation, or {@link #NO_DESTINATION} when the tag is not in tbl_IATA
+     */
+    public int getDestination(long tag) {
+        Snapshot snapshot = allocations;
+        return snapshot == null ? NO_DESTINATION : snapshot.tags.get(tag, NO_DESTINATION);
+    }
+
+    /**
+     * @return the Allocation of the code, or null when the code is not in tbl_IATA
+     */
+    public Integer lookup(String iata) {
+        Snapshot snapshot = allocations;
+        if (snapshot == null || iata == null) return null;
+        String code = iata.trim();
+        long tag = parseTag(code);
+        if (tag >= 0) {
+            int destination = snapshot.tags.get(tag, NO_DESTINATION);
+            return destination == NO_DESTINATION ? null : destination;
+        }
+        return snapshot.others.get(code);
+    }
+
+    /** Numeric value of a 10-digit tag, or -1 for any other code. */
+    public static long parseTag(String code) {
+        if (code.length() != TAG_DIGITS) return -1;
+        long value = 0;
+        for (int i = 0; i < TAG_DIGITS; i++) {
+            int d = code.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /** Runs one refresh now; used by the scheduler. */
+    public synchronized void refresh() {
+        try {
+            boolean full = allocations == null || !incrementalSupported
+                    || System.currentTimeMillis() - lastFullReload >= fullReloadMillis;
+            if (full) {
+                fullReload();
+            } else {
+                incrementalRefresh();
+            }
+        } catch (SQLException | RuntimeException | LinkageError e) {
+            refreshFailures++;
+            System.err.println("❌ BSM index refresh failed: " + describe(e));
+        }
+    }
+
+    // === Step 1: Full load, also records the high-water mark of the change column ===
+    private void fullReload() throws SQLException {
+        long start = System.currentTimeMillis();
+        Snapshot previous = allocations;
+        Snapshot map = new Snapshot(new LongIntHashMap(previous != null ? previous.size() : 1 << 16), new HashMap<>());
+        Timestamp newest = null;
+        try (Connection conn = DBConnection.getConnection()) {
+            if (incrementalSupported && !changeColumnChecked) {
+                incrementalSupported = hasColumn(conn, changeColumn);
+                changeColumnChecked = true;
+                if (!incrementalSupported) {
+                    // change column not in this schema: fall back to periodic full reloads
+                    System.err.println("⚠️ tbl_IATA has no '" + changeColumn + "' column, using full reloads");
+                }
+            }
+            String sql = "SELECT IATA_code, Allocation" + (incrementalSupported ? ", " + changeColumn : "") + " FROM tbl_IATA";
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    put(map, rs);
+                    if (incrementalSupported) newest = max(newest, rs.getTimestamp(3));
+                }
+            }
+        }
+        allocations = map;
+        highWaterMark = newest;
+        lastFullReload = System.currentTimeMillis();
+        recordRefresh(start);
+    }
+
+    /** Asks the schema, through an empty result set, whether tbl_IATA has the column. */
+    private static boolean hasColumn(Connection conn, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM tbl_IATA WHERE 1 = 0")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if (column.equalsIgnoreCase(meta.getColumnName(i))) return true;
+            }
+            return false;
+        }
+    }
+
+    // === Step 2: Only rows changed since the last refresh ===
+    private void incrementalRefresh() throws SQLException {
+        long start = System.currentTimeMillis();
+        Map<String, Integer> changes = new HashMap<>();
+        Timestamp newest = highWaterMark;
+        String sql = "SELECT IATA_code, Allocation, " + changeColumn + " FROM tbl_IATA"
+                + (highWaterMark != null ? " WHERE " + changeColumn + " > ?" : " WHERE " + changeColumn + " IS NOT NULL");
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (highWaterMark != null) stmt.setTimestamp(1, highWaterMark);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    put(changes, rs);
+                    newest = max(newest, rs.getTimestamp(3));
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            Snapshot map = new Snapshot(new LongIntHashMap(allocations.tags), new HashMap<>(allocations.others));
+            changes.forEach(map::put);
+            allocations = map;
+            System.out.println("🔄 BSM index updated: " + changes.size() + " changed IATA codes");
+        }
+        highWaterMark = newest;
+        recordRefresh(start);
+    }
+
+    private void recordRefresh(long start) {
+        lastRefreshTime = System.currentTimeMillis();
+        lastRefreshMillis = lastRefreshTime - start;
+        refreshCount++;
+    }
+
+    private static void put(Snapshot map, ResultSet rs) throws SQLException {
+        String code = rs.getString(1);
+        if (code != null) {
+            map.put(code, rs.getInt(2));
+        }
+    }
+
+    private static void put(Map<String, Integer> map, ResultSet rs) throws SQLException {
+        String code = rs.getString(1);
+        if (code != null) {
+            map.put(code, rs.getInt(2));
+        }
+    }
+
+    private static Timestamp max(Timestamp a, Timestamp b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.after(a) ? b : a;
+    }
+
+    private static String describe(Throwable e) {
+        Throwable cause = e.getMessage() == null && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    private void scheduleRefresh() {
+        if (refreshTask != null) refreshTask.cancel(false);
+        refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    public long getRefreshSeconds() {
+        return refreshSeconds;
+    }
+
+    /** Changes the refresh interval of a running index; takes effect immediately. */
+    public synchronized void setRefreshSeconds(long seconds) {
+        if (seconds <= 0) throw new IllegalArgumentException("Refresh interval must be positive: " + seconds);
+        refreshSeconds = seconds;
+        if (scheduler != null) scheduleRefresh();
+    }
+
+    public int getSize() {
+        Snapshot snapshot = allocations;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    public long getLastRefreshTime() {
+        return lastRefreshTime;
+    }
+
+    public long getLastRefreshMillis() {
+        return lastRefreshMillis;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures;
+    }
+}
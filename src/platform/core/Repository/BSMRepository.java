@@ -10,7 +10,12 @@ import platform.core.util.DBConnection;
 
 public class BSMRepository {
 	
+	  // Answered from BSMIndex once it is loaded; the queries below are only used until then.
 	  public static boolean existsInBSM(String iata) {
+	        BSMIndex index = BSMIndex.getInstance();
+	        if (index.isLoaded()) {
+	            return index.lookup(iata) != null;
+	        }
 	        String sql = "SELECT 1 FROM tbl_IATA WHERE IATA_code = ?";
 	        try (Connection conn = DBConnection.getConnection();
 	             PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -22,7 +27,20 @@ public class BSMRepository {
 	        }
 	    }
 
+	    /** Allocation of a numeric 10-digit tag, or BSMIndex.NO_DESTINATION. No allocation once the index is loaded. */
+	    public static int getDestination(long tag) {
+	        BSMIndex index = BSMIndex.getInstance();
+	        if (index.isLoaded()) {
+	            return index.getDestination(tag);
+	        }
+	        return getDestination(String.format("%010d", tag)).orElse(BSMIndex.NO_DESTINATION);
+	    }
+
 	    public static Optional<Integer> getDestination(String iata) {
+	        BSMIndex index = BSMIndex.getInstance();
+	        if (index.isLoaded()) {
+	            return Optional.ofNullable(index.lookup(iata));
+	        }
 	        String sql = "SELECT Allocation FROM tbl_IATA WHERE iata_code = ?";
 	        try (Connection conn = DBConnection.getConnection();
 	             PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -2,40 +2,68 @@ package platform.core.Repository;
 import java.sql.Connection; 
 import java.sql.PreparedStatement; 
 import java.sql.SQLException ;
+import java.util.List;
 
+import Entity.ScannerTelegram;
 import platform.core.util.DBConnection;
 
 public class TelegramRepository {
 
-	public static void insertTelegram(int telegramLength, int subsystemId, int component, long globalId,
-            int plcIndex, int scannerNumber, String scannerName, String telegramVersion, String status,
-            int responseLength, String BarcodeList, String responseAscii) throws SQLException {
+	private static final String INSERT_SQL = "INSERT INTO scanner_telegram "
+			+ "(telegram_length, subsystem_id, component, global_id, plc_index, scanner_number, scanner_name, "
+			+ "telegram_version, status, response_length, barcodes, response_ascii) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-		String sql = "INSERT INTO scanner_telegram "
-				+ "(telegram_length, subsystem_id, component, global_id, plc_index, scanner_number, scanner_name, "
-				+ "telegram_version, status, response_length, barcodes, response_ascii) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	/**
+	 * Queues the telegram for the write-behind writer and returns immediately;
+	 * the caller (and the PLC ACK) never waits on the database.
+	 *
+	 * @return false if the queue was full and the record was dropped
+	 */
+	public static boolean insertTelegram(int telegramLength, int subsystemId, int component, long globalId,
+            int plcIndex, int scannerNumber, String scannerName, String telegramVersion, String status,
+            int responseLength, String BarcodeList, String responseAscii) {
 
-        // Now you can use this SQL with a PreparedStatement to insert the values
-		    try(Connection conn = DBConnection.getConnection();
-		    	PreparedStatement stmt = conn.prepareStatement(sql)){
-		    	stmt.setInt(1, telegramLength);
-		    	stmt.setInt(2, subsystemId);
-		    	stmt.setInt(3, component);
-		    	stmt.setLong(4,  globalId);
-		    	stmt.setInt(5, plcIndex);
-		    	stmt.setInt(6,scannerNumber);
-		    	stmt.setString(6,scannerName);
-		    	stmt.setString(6,telegramVersion);
-		    	stmt.setString(6,status);
-		    	stmt.setInt(7, responseLength);
-		    	stmt.setNString(8, BarcodeList);
-		    	stmt.setNString(8, responseAscii);	   
-		        stmt.executeUpdate();
-		            System.out.println("✔️ Data inserted successfully!");
-		    } 
-		    catch(SQLException e) {
-		    	 System.err.println("❌ DB Insert Error: " + e.getMessage());
-		    }
+		return TelegramWriteBehind.getInstance().submit(new ScannerTelegram(telegramLength, subsystemId, component,
+				globalId, plcIndex, scannerNumber, scannerName, telegramVersion, status, responseLength,
+				BarcodeList, responseAscii));
       }
+
+	/** True if a pooled connection can be had and passes Connection.isValid. */
+	static boolean isReachable() {
+		try (Connection conn = DBConnection.getConnection()) {
+			return conn.isValid(2);
+		} catch (SQLException | RuntimeException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/** Writes the records in one JDBC batch and one transaction. Called by TelegramWriteBehind. */
+	static void insertBatch(List<ScannerTelegram> records) throws SQLException {
+		try (Connection conn = DBConnection.getConnection()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+				for (ScannerTelegram t : records) {
+					stmt.setInt(1, t.getTelegramLength());
+					stmt.setInt(2, t.getSubsystemId());
+					stmt.setInt(3, t.getComponent());
+					stmt.setLong(4, t.getGlobalId());
+					stmt.setInt(5, t.getPlcIndex());
+					stmt.setInt(6, t.getScannerNumber());
+					stmt.setString(7, t.getScannerName());
+					stmt.setString(8, t.getTelegramVersion());
+					stmt.setString(9, t.getStatus());
+					stmt.setInt(10, t.getResponseLength());
+					stmt.setNString(11, t.getBarcodes());
+					stmt.setNString(12, t.getResponseAscii());
+					stmt.addBatch();
+				}
+				stmt.executeBatch();
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			}
+		}
+	}
 }
@@ -0,0 +1,498 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramWriteBehind Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Asynchronous batched persistence of scanner telegrams
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Batches spooled to disk while the DB is unreachable
+//01.02    2026.10.18    Giresh         requestFlush() for the JMX flush operation
+//01.03    2026.10.18    Giresh         Undeleted spool segments retried every drain cycle
+//01.04    2026.10.18    Giresh         Only an unreachable DB spools; rejected records retried row by row, bad ones dead-lettered
+//01.05    2026.10.18    Giresh         startDiscarding() for replays that run without a database
+
+
+package platform.core.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Entity.ScannerTelegram;
+import platform.core.config.AppSettings;
+import platform.core.spool.MappedSpool;
+
+/**
+ * Write-behind stage for <code>scanner_telegram</code>.
+ * <p>
+ * Telegram handlers only put a record on a bounded queue. One writer thread takes
+ * records off the queue and writes them with <code>addBatch/executeBatch</code> as
+ * soon as <code>persist.batchSize</code> records are collected or the oldest one has
+ * waited <code>persist.flushMillis</code>, whichever comes first. When the queue is
+ * full new records are dropped and counted rather than blocking the PLC thread.
+ * <p>
+ * When a batch cannot be written it goes to a {@link MappedSpool} on local disk
+ * instead of being lost. While the spool holds records, new batches are appended
+ * behind them (keeps the order) and the spool is drained in batches once the
+ * database answers again, retried every <code>spool.retryMillis</code>. Spooled
+ * records survive a restart and are replayed on the next start.
+ * <p>
+ * Only an outage spools: a transient or recoverable <code>SQLException</code>, a
+ * connection error (SQLState class 08) or a database that no longer passes
+ * <code>Connection.isValid</code>. Any other error means the database refused
+ * data in the batch (e.g. a value longer than its column); the batch is then
+ * written row by row and each refused record goes to the dead-letter file
+ * <code>persist.deadLetterFile</code> instead of blocking everything behind it.
+ * Spooled records are replayed at least once: an outage in the middle of a
+ * row-by-row retry replays the whole spooled batch.
+ */
+public final class TelegramWriteBehind implements Runnable {
+
+    private static final TelegramWriteBehind INSTANCE = new TelegramWriteBehind();
+
+    private final BlockingQueue<ScannerTelegram> queue =
+            new ArrayBlockingQueue<>(AppSettings.getInt("persist.queueCapacity", 20000));
+    private volatile int batchSize = AppSettings.getInt("persist.batchSize", 200);
+    private volatile long flushMillis = AppSettings.getLong("persist.flushMillis", 500);
+
+    private static final byte SPOOL_SCANNER_TELEGRAM = 1;
+    private static final int DRAIN_BATCHES_PER_CYCLE = 10; // then serve the live queue again
+
+    private final long retryMillis = AppSettings.getLong("spool.retryMillis", 5000);
+    private MappedSpool spool;
+    private long retryAt;
+
+    private volatile boolean running;
+    private volatile boolean discard;
+    private volatile boolean flushRequested;
+    private Thread writer;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private volatile long written;
+    private volatile long failed;
+    private volatile long batches;
+    private volatile long lastFlushMillis;
+    private volatile long spooled;
+    private volatile long drained;
+    private volatile long deadLettered;
+    private final File deadLetterFile = new File(AppSettings.getString("persist.deadLetterFile",
+            System.getProperty("user.dir") + "/spool/deadletter.log"));
+
+    private TelegramWriteBehind() {
+    }
+
+    public static TelegramWriteBehind getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (writer != null) return;
+        openSpool();
+        running = true;
+        writer = new Thread(this, "Telegram-WriteBehind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Accepts records without writing them anywhere and without a spool
+     * (TelegramReplay without --with-db). Has no effect once the writer runs.
+     */
+    public synchronized void startDiscarding() {
+        if (writer == null) discard = true;
+    }
+
+    /** Stops the writer after flushing what is already queued. */
+    public void shutdown() {
+        Thread t;
+        synchronized (this) {
+            t = writer;
+            writer = null;
+            running = false;
+        }
+        if (t == null) return;
+        try {
+            t.join(flushMillis + 5000); // not interrupted: a batch in executeBatch is finished
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a record; never blocks.
+     *
+     * @return false if the queue is full and the record was dropped
+     */
+    public boolean submit(ScannerTelegram record) {
+        if (discard) {
+            submitted.incrementAndGet();
+            discarded.incrementAndGet();
+            return true;
+        }
+        if (queue.offer(record)) {
+            submitted.incrementAndGet();
+            return true;
+        }
+        if (dropped.incrementAndGet() % 1000 == 1) {
+            System.err.println("❌ Telegram write-behind queue full, " + dropped.get() + " records dropped so far");
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        List<ScannerTelegram> batch = new ArrayList<>();
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // flush what we have, then stop
+                running = false;
+            }
+            if (flushRequested) { // operator flush: retry the database now, do not wait for retryAt
+                flushRequested = false;
+                retryAt = 0;
+            }
+            flush(batch);
+            drainSpool();
+        }
+        // === Final drain on shutdown ===
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            flush(batch);
+        }
+        closeSpool();
+    }
+
+    // === Step 1: Wait for the first record, then fill up to batchSize until its flush deadline ===
+    private void collect(List<ScannerTelegram> batch) throws InterruptedException {
+        ScannerTelegram first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+        if (first == null) return;
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        int max = batchSize;
+        while (batch.size() < max && !flushRequested) {
+            queue.drainTo(batch, max - batch.size());
+            if (batch.size() >= max) break;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            ScannerTelegram next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+    }
+
+    // === Step 2: One batch, one transaction; to the spool if the DB is down or behind ===
+    private void flush(List<ScannerTelegram> batch) {
+        if (batch.isEmpty()) return;
+        long start = System.currentTimeMillis();
+        try {
+            if (spool != null && (!spool.isEmpty() || start < retryAt)) {
+                toSpool(batch);
+                return;
+            }
+            write(batch);
+        } catch (SQLException | RuntimeException | LinkageError e) {
+            System.err.println("❌ DB Batch Insert Error (" + batch.size() + " telegrams): " + e.getMessage());
+            retryAt = System.currentTimeMillis() + retryMillis;
+            if (spool != null) {
+                toSpool(batch);
+            } else {
+                failed += batch.size();
+            }
+        } finally {
+            lastFlushMillis = System.currentTimeMillis() - start;
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the batch; if the database refuses its data, row by row with the
+     * refused records dead-lettered. Records written or dead-lettered are removed
+     * from <code>batch</code>, so after an outage it holds only what is still unwritten.
+     *
+     * @throws SQLException only when the database is unreachable
+     */
+    private void write(List<ScannerTelegram> batch) throws SQLException {
+        try {
+            TelegramRepository.insertBatch(batch);
+            written += batch.size();
+            batches++;
+            batch.clear();
+            return;
+        } catch (SQLException e) {
+            if (isOutage(e)) throw e;
+            System.err.println("⚠️ DB refused a batch of " + batch.size() + " telegrams (" + e.getMessage()
+                    + "), retrying row by row");
+        }
+        int done = 0;
+        try {
+            for (; done < batch.size(); done++) {
+                ScannerTelegram record = batch.get(done);
+                try {
+                    TelegramRepository.insertBatch(List.of(record));
+                    written++;
+                } catch (SQLException e) {
+                    if (isOutage(e)) throw e;
+                    deadLetter(record, e);
+                }
+            }
+            batches++;
+        } finally {
+            batch.subList(0, done).clear();
+        }
+    }
+
+    /** True if the error means the database cannot be reached, not that it refused the data. */
+    private static boolean isOutage(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) return true;
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("08")) return true; // connection exception
+        return !TelegramRepository.isReachable();
+    }
+
+    private void deadLetter(ScannerTelegram t, SQLException e) {
+        deadLettered++;
+        System.err.println("❌ Scanner telegram GID=" + t.getGlobalId() + " refused by the DB, moved to "
+                + deadLetterFile.getName() + ": " + e.getMessage());
+        File dir = deadLetterFile.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory()) dir.mkdirs();
+        try (PrintWriter out = new PrintWriter(new FileWriter(deadLetterFile, StandardCharsets.UTF_8, true))) {
+            out.println(LocalDateTime.now() + "\t" + e.getSQLState() + "\t" + e.getMessage().replace('\n', ' ')
+                    + "\t" + t.getTelegramLength() + "\t" + t.getSubsystemId() + "\t" + t.getComponent()
+                    + "\t" + t.getGlobalId() + "\t" + t.getPlcIndex() + "\t" + t.getScannerNumber()
+                    + "\t" + t.getScannerName() + "\t" + t.getTelegramVersion() + "\t" + t.getStatus()
+                    + "\t" + t.getResponseLength() + "\t" + t.getBarcodes() + "\t" + t.getResponseAscii());
+        } catch (IOException io) {
+            System.err.println("❌ Dead-letter file " + deadLetterFile.getAbsolutePath() + " not written: " + io.getMessage());
+        }
+    }
+
+    private void toSpool(List<ScannerTelegram> batch) {
+        int stored = 0;
+        try {
+            for (ScannerTelegram record : batch) {
+                if (!spool.append(SPOOL_SCANNER_TELEGRAM, encode(record))) break; // disk limit reached
+                stored++;
+            }
+            spool.force();
+        } catch (IOException e) {
+            System.err.println("❌ Telegram spool write failed: " + e.getMessage());
+        }
+        spooled += stored;
+        if (stored < batch.size()) {
+            failed += batch.size() - stored;
+            System.err.println("❌ Telegram spool full (" + spool.getMaxDiskBytes() / (1024 * 1024) + " MB), "
+                    + (batch.size() - stored) + " telegrams lost");
+        }
+    }
+
+    // === Step 3: Replay spooled records once the DB answers again ===
+    private void drainSpool() {
+        if (spool == null) return;
+        spool.retryDeletes(); // segments still mapped at commit time (Windows)
+        if (spool.isEmpty() || System.currentTimeMillis() < retryAt) return;
+        List<MappedSpool.Record> records = new ArrayList<>();
+        List<ScannerTelegram> batch = new ArrayList<>();
+        try {
+            for (int i = 0; i < DRAIN_BATCHES_PER_CYCLE && !spool.isEmpty(); i++) {
+                records.clear();
+                batch.clear();
+                int n = spool.read(batchSize, records);
+                if (n == 0) break;
+                for (MappedSpool.Record record : records) {
+                    ScannerTelegram telegram = record.getType() == SPOOL_SCANNER_TELEGRAM ? decode(record.getPayload()) : null;
+                    if (telegram != null) {
+                        batch.add(telegram);
+                    } else {
+                        failed++;
+                    }
+                }
+                int size = batch.size();
+                if (!batch.isEmpty()) write(batch);
+                spool.commit(n);
+                drained += size;
+            }
+            if (spool.isEmpty()) {
+                System.out.println("✅ Telegram spool drained, " + drained + " telegrams replayed so far");
+            }
+        } catch (SQLException | RuntimeException | LinkageError e) {
+            retryAt = System.currentTimeMillis() + retryMillis;
+            System.err.println("❌ Telegram spool drain failed, retry in " + retryMillis + " ms: " + e);
+        } catch (IOException e) {
+            retryAt = System.currentTimeMillis() + retryMillis;
+            System.err.println("❌ Telegram spool read failed: " + e.getMessage());
+        }
+    }
+
+    private void openSpool() {
+        if (!AppSettings.getBoolean("spool.enabled", true)) return;
+        File dir = new File(AppSettings.getString("spool.dir", System.getProperty("user.dir") + "/spool"));
+        try {
+            spool = new MappedSpool(dir, AppSettings.getInt("spool.segmentMB", 16) * 1024 * 1024,
+                    AppSettings.getInt("spool.maxSegments", 64));
+            if (!spool.isEmpty()) {
+                System.out.println("🔄 Telegram spool holds " + spool.getPendingRecords() + " records from a previous run, replaying");
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Telegram spool disabled, cannot open " + dir.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private void closeSpool() {
+        if (spool == null) return;
+        try {
+            spool.close();
+        } catch (IOException e) {
+            System.err.println("❌ Telegram spool close failed: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(ScannerTelegram t) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(t.getTelegramLength());
+        out.writeInt(t.getSubsystemId());
+        out.writeInt(t.getComponent());
+        out.writeLong(t.getGlobalId());
+        out.writeInt(t.getPlcIndex());
+        out.writeInt(t.getScannerNumber());
+        writeString(out, t.getScannerName());
+        writeString(out, t.getTelegramVersion());
+        writeString(out, t.getStatus());
+        out.writeInt(t.getResponseLength());
+        writeString(out, t.getBarcodes());
+        writeString(out, t.getResponseAscii());
+        return bytes.toByteArray();
+    }
+
+    private static ScannerTelegram decode(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            return new ScannerTelegram(in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readInt(),
+                    in.readInt(), readString(in), readString(in), readString(in), in.readInt(),
+                    readString(in), readString(in));
+        } catch (IOException e) {
+            System.err.println("❌ Corrupt spooled telegram skipped: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes the records collected so far without waiting for a full batch, and
+     * retries the database for spooled records now. Takes effect within flushMillis.
+     */
+    public void requestFlush() {
+        flushRequested = true;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushMillis() {
+        return flushMillis;
+    }
+
+    public void setFlushMillis(long flushMillis) {
+        if (flushMillis <= 0) throw new IllegalArgumentException("Flush interval must be positive: " + flushMillis);
+        this.flushMillis = flushMillis;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public long getFailedCount() {
+        return failed;
+    }
+
+    public long getBatchCount() {
+        return batches;
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /** Records written to the disk spool because the DB was unreachable. */
+    public long getSpooledCount() {
+        return spooled;
+    }
+
+    /** Records the database refused, written to the dead-letter file. */
+    public long getDeadLetteredCount() {
+        return deadLettered;
+    }
+
+    /** Spooled records later written to the DB (or dead-lettered). */
+    public long getDrainedCount() {
+        return drained;
+    }
+
+    public long getSpoolPending() {
+        MappedSpool s = spool;
+        return s == null ? 0 : s.getPendingRecords();
+    }
+
+    public long getSpoolDiskBytes() {
+        MappedSpool s = spool;
+        return s == null ? 0 : s.getDiskBytes();
+    }
+}
@@ -0,0 +1,83 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : AppSettings Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Process wide settings loaded from config/csc.properties
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings shared by every PLC connection (engine threads, queues, caches...).
+ * Values are read once from <code>config/csc.properties</code>; every getter takes
+ * a default so a missing file or key keeps the built-in behaviour.
+ */
+public final class AppSettings {
+
+    private static final Properties PROPS = new Properties();
+
+    static {
+        String baseDir = System.getProperty("user.dir");
+        File file = new File(baseDir + "/config/csc.properties");
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                PROPS.load(in);
+                System.out.println("✅ Application settings loaded from " + file.getAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("❌ Failed to load application settings: " + e.getMessage());
+            }
+        } else {
+            System.out.println("No " + file.getName() + " found, using default settings");
+        }
+    }
+
+    private AppSettings() {
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPS.getProperty(key);
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("❌ Invalid integer for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("❌ Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
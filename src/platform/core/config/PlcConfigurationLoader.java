@@ -9,6 +9,7 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Per-connection minimum log level ([Logging] Level)
 
 
 
@@ -16,6 +17,7 @@ package platform.core.config;
 
 import platform.core.log.FileLogger;
 import platform.core.log.Log;
+import platform.core.log.LogLevel;
 
 public class PlcConfigurationLoader {
     private final String connectionName;
@@ -37,6 +39,9 @@ public class PlcConfigurationLoader {
             this.remoteTsap = config.get("ProtocolHandler", "RemoteTSAP"); 
             this.logPrefix = connectionName + ".io.RFC1006TSAPHandler";
             this.logger = new FileLogger(connectionName);
+            // [Logging] Level = DEBUG|INFO|WARN|ERROR, default from log.level in csc.properties
+            this.logger.setLevel(LogLevel.parse(config.get("Logging", "Level"),
+                    LogLevel.parse(AppSettings.getString("log.level", "DEBUG"), LogLevel.DEBUG)));
         } catch (Exception e) {
             throw new RuntimeException("Failed to load PLC configuration from file: " + configFilePath, e);
         }
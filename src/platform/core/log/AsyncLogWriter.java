@@ -0,0 +1,412 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : AsyncLogWriter Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Lock-free log ring and the single thread writing the log files
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import platform.core.config.AppSettings;
+
+/**
+ * Moves log file I/O off the telegram threads.
+ * <p>
+ * {@link FileLogger} only claims a pre-allocated slot in a bounded
+ * lock-free ring (multi-producer, CAS on the tail, per-slot sequence numbers) and
+ * fills in time, level, prefix and message. The "CSC-Log-Writer" thread drains
+ * the ring in batches, formats the lines into one direct buffer per batch and
+ * writes it to a log file channel that stays open until the daily rotation.
+ * <p>
+ * When the ring is full the <code>log.overflowPolicy</code> decides:
+ * <ul>
+ * <li><code>block</code>: the producer waits for a free slot (nothing is lost)</li>
+ * <li><code>drop-debug</code>: DEBUG lines are dropped, others wait (default)</li>
+ * <li><code>drop-oldest</code>: the oldest queued line is discarded for the new one</li>
+ * </ul>
+ */
+public final class AsyncLogWriter implements Runnable {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_DEBUG, DROP_OLDEST;
+
+        static OverflowPolicy forName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                System.err.println("❌ Unknown log.overflowPolicy '" + name + "', using drop-debug");
+                return DROP_DEBUG;
+            }
+        }
+    }
+
+    /** One log line waiting in the ring; slots are reused. */
+    private static final class LogEvent {
+        LogTarget target;
+        long timeMillis;
+        String level;
+        boolean debug;
+        String prefix;
+        String message;
+        Throwable thrown;
+
+        void clear() {
+            target = null;
+            prefix = null;
+            message = null;
+            thrown = null;
+        }
+    }
+
+    /** One log file: base name, current day and its open channel. Writer thread only. */
+    static final class LogTarget {
+        private final File dir;
+        private final String baseName;
+        private LocalDate date;
+        private FileChannel channel;
+
+        LogTarget(File dir, String baseName) {
+            this.dir = dir;
+            this.baseName = baseName;
+        }
+
+        File fileFor(LocalDate day) {
+            return new File(dir, baseName + "_" + day.format(FILE_DATE) + ".log");
+        }
+
+        FileChannel channel(LocalDate today) throws IOException {
+            if (channel == null || !today.equals(date)) {
+                close();
+                date = today;
+                channel = FileChannel.open(fileFor(today).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            return channel;
+        }
+
+        void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                channel = null;
+            }
+        }
+    }
+
+    private static final DateTimeFormatter LINE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private static volatile AsyncLogWriter defaultWriter;
+
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim
+    private final AtomicLong head = new AtomicLong(); // next slot to read
+    private final OverflowPolicy policy;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private volatile long written;
+
+    // writer thread state
+    private final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(512);
+    private final List<LogTarget> targets = new ArrayList<>();
+    private long cachedSecond = -1;
+    private String cachedTime;
+    private LocalDate cachedDate;
+
+    AsyncLogWriter(int capacity, OverflowPolicy policy) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Log ring size must be a power of two: " + capacity);
+        }
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.thread = new Thread(this, "CSC-Log-Writer");
+        this.thread.setDaemon(true);
+    }
+
+    /** Process-wide writer shared by all FileLoggers; flushed by a shutdown hook. */
+    public static AsyncLogWriter getDefault() {
+        AsyncLogWriter writer = defaultWriter;
+        if (writer == null) {
+            synchronized (AsyncLogWriter.class) {
+                writer = defaultWriter;
+                if (writer == null) {
+                    writer = new AsyncLogWriter(AppSettings.getInt("log.ringSize", 8192),
+                            OverflowPolicy.forName(AppSettings.getString("log.overflowPolicy", "drop-debug")));
+                    writer.thread.start();
+                    final AsyncLogWriter w = writer;
+                    Runtime.getRuntime().addShutdownHook(new Thread(w::shutdown, "CSC-Log-Flush"));
+                    defaultWriter = writer;
+                }
+            }
+        }
+        return writer;
+    }
+
+    LogTarget target(File dir, String baseName) {
+        return new LogTarget(dir, baseName);
+    }
+
+    // === Producer side ===
+
+    void append(LogTarget target, String level, boolean debug, String prefix, String message, Throwable thrown) {
+        long seq;
+        LogEvent event;
+        while (true) {
+            seq = tail.get();
+            int index = (int) seq & mask;
+            long slotSeq = sequences.get(index);
+            if (slotSeq == seq) {
+                if (tail.compareAndSet(seq, seq + 1)) {
+                    event = slots[index];
+                    break;
+                }
+            } else if (slotSeq < seq) {
+                // ring full
+                if (!running) return;
+                if (debug && policy == OverflowPolicy.DROP_DEBUG) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                if (policy == OverflowPolicy.DROP_OLDEST) {
+                    if (discardOldest()) dropped.incrementAndGet();
+                } else {
+                    blocked.incrementAndGet();
+                    wakeWriter();
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+            // else another producer claimed this slot, retry
+        }
+        event.target = target;
+        event.timeMillis = System.currentTimeMillis();
+        event.level = level;
+        event.debug = debug;
+        event.prefix = prefix;
+        event.message = message;
+        event.thrown = thrown;
+        sequences.set((int) seq & mask, seq + 1); // publish
+        if (writerParked) wakeWriter();
+    }
+
+    /** Frees the oldest slot without writing it (drop-oldest policy). */
+    private boolean discardOldest() {
+        long seq = claimHead();
+        if (seq < 0) return false;
+        release(seq);
+        return true;
+    }
+
+    // === Consumer side (writer thread, or a producer discarding the oldest line) ===
+
+    /** @return the sequence of the oldest published slot, now owned by the caller, or -1 if empty */
+    private long claimHead() {
+        while (true) {
+            long seq = head.get();
+            long slotSeq = sequences.get((int) seq & mask);
+            if (slotSeq == seq + 1) {
+                if (head.compareAndSet(seq, seq + 1)) return seq;
+            } else if (slotSeq < seq + 1) {
+                return -1;
+            }
+        }
+    }
+
+    private void release(long seq) {
+        int index = (int) seq & mask;
+        slots[index].clear();
+        sequences.set(index, seq + slots.length);
+    }
+
+    @Override
+    public void run() {
+        while (running || head.get() != tail.get()) {
+            int n = drain();
+            if (n == 0) {
+                if (!running) break;
+                writerParked = true;
+                if (head.get() == tail.get()) {
+                    LockSupport.parkNanos(10_000_000);
+                }
+                writerParked = false;
+            }
+        }
+        drain();
+        for (LogTarget target : targets) {
+            target.close();
+        }
+    }
+
+    // === Step 1: Format every queued line, write per target when it changes or the buffer fills ===
+    private int drain() {
+        int n = 0;
+        LogTarget current = null;
+        long seq;
+        while ((seq = claimHead()) >= 0) {
+            LogEvent event = slots[(int) seq & mask];
+            if (current != null && event.target != current) {
+                flush(current);
+            }
+            current = event.target;
+            if (!targets.contains(current)) targets.add(current);
+            format(event);
+            release(seq);
+            if (!encode(current)) {
+                flush(current);
+                encode(current);
+            }
+            n++;
+            if (n >= slots.length) break; // give rotation and shutdown a chance
+        }
+        if (current != null) flush(current);
+        written += n;
+        return n;
+    }
+
+    private void format(LogEvent event) {
+        line.setLength(0);
+        line.append(time(event.timeMillis)).append(' ').append(event.prefix)
+            .append(" [").append(event.level).append("] ").append(event.message)
+            .append(System.lineSeparator());
+        if (event.thrown != null) {
+            StringWriter trace = new StringWriter();
+            event.thrown.printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+
+    /** @return false if the line did not fit into the rest of the buffer */
+    private boolean encode(LogTarget target) {
+        CharBuffer chars = CharBuffer.wrap(line);
+        int mark = out.position();
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, out, true);
+        if (result.isOverflow()) {
+            if (mark == 0) {
+                // single line larger than the buffer: write it in pieces
+                do {
+                    flush(target);
+                    result = encoder.encode(chars, out, true);
+                } while (result.isOverflow());
+                return true;
+            }
+            out.position(mark);
+            return false;
+        }
+        return true;
+    }
+
+    private void flush(LogTarget target) {
+        out.flip();
+        try {
+            FileChannel channel = target.channel(cachedDate != null ? cachedDate : LocalDate.now());
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Log write failed for " + target.baseName + ": " + e.getMessage());
+        } finally {
+            out.clear();
+        }
+    }
+
+    private String time(long millis) {
+        long second = millis / 1000;
+        if (second != cachedSecond) {
+            LocalDateTime t = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            cachedSecond = second;
+            cachedTime = t.format(LINE_TIME);
+            cachedDate = t.toLocalDate();
+        }
+        return cachedTime;
+    }
+
+    private void wakeWriter() {
+        LockSupport.unpark(thread);
+    }
+
+    /** Writes everything queued, closes the files and stops the writer thread. */
+    public void shutdown() {
+        running = false;
+        wakeWriter();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getDepth() {
+        return Math.max(0, tail.get() - head.get());
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Times a producer had to wait for a free slot. */
+    public long getBlockedCount() {
+        return blocked.get();
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+}
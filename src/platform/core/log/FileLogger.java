@@ -9,24 +9,28 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Lines queued to AsyncLogWriter instead of open/write/close per line
+//01.02    2026.10.18    Giresh         Level filtering moved to Log, only write() overridden
 
 
 package platform.core.log;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * FileLogger that logs into logs/<logFileName>
  * and extends base Log class to override debug/info/error methods.
+ * Lines are handed to the {@link AsyncLogWriter}, which writes them in batches.
  */
 public class FileLogger extends Log {
 
     private File logFile;
    // private final File logDir = new File("logs");
-    private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final AsyncLogWriter writer = AsyncLogWriter.getDefault();
+    private final AsyncLogWriter.LogTarget target;
     private final DateTimeFormatter fileDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private LocalDate currentLogDate;
     private final File logDir = new File(System.getProperty("user.home"), "CSC_SAC_logs");
@@ -54,64 +58,14 @@ public class FileLogger extends Log {
             e.printStackTrace();
             throw new RuntimeException("Failed to initialize log file", e);
         }
+        // the writer thread keeps the file open and rotates it daily
+        target = writer.target(logDir, logFileNamePrefix);
     }
 
 
-    private void rotateLogFileIfNeeded(String logFileNamePrefix) {
-        LocalDate today = LocalDate.now();
-        if (!today.equals(currentLogDate)) {
-            currentLogDate = today;
-            logFile = new File(logDir, logFileNamePrefix + "_" + currentLogDate.format(fileDateFormatter) + ".log");
-            try {
-                if (!logFile.exists()) {
-                    logFile.createNewFile();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-    }
-
-    private void write(String level, String prefix, String message) {
-        rotateLogFileIfNeeded("application"); // Replace with your base filename if needed
-
-        String timestamp = LocalDateTime.now().format(dtf);
-        String entry = timestamp + " " + prefix + " [" + level + "] " + message;
-
-        try (FileWriter fw = new FileWriter(logFile, true)) {
-            fw.write(entry + System.lineSeparator());
-        } catch (IOException e) {
-            e.printStackTrace(); // fallback to console
-        }
-    }
-
-    @Override
-    public void debug(String prefix, String message) {
-        write("DEBUG", prefix, message);
-    }
-
-    @Override
-    public void info(String prefix, String message) {
-        write("INFO", prefix, message);
-    }
-
-    @Override
-    public void error(String prefix, String message) {
-        write("ERROR", prefix, message);
-    }
-
+    /** Queues the line for the log writer thread; the caller never touches the file. */
     @Override
-    public void error(String prefix, String message, Throwable t) {
-        write("ERROR", prefix, message);
-        try (FileWriter fw = new FileWriter(logFile, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            t.printStackTrace(pw);
-        } catch (IOException e) {
-            e.printStackTrace(); // fallback
-        }
-    }
-
-    public void log(LogLevel level, String prefix, String message) {
-        write(level.name(), prefix, message);
+    protected void write(LogLevel level, String prefix, String message, Throwable t) {
+        writer.append(target, level.name(), level == LogLevel.DEBUG, prefix, message, t);
     }
 }
@@ -9,26 +9,133 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Minimum level, Supplier and {} parameter overloads, warn()
 
 package platform.core.log;
 
+import java.util.function.Supplier;
+
+/**
+ * Console log and base class of {@link FileLogger}.
+ * <p>
+ * Every call first checks the minimum level of this logger (one per PLC
+ * connection). Messages below it are dropped before any text is built when
+ * they are passed as a {@link Supplier} or as a "{}" pattern with arguments:
+ * <pre>
+ *   log.debug(logPrefix, () -> "Raw frame: " + telegram.hex());
+ *   log.info(logPrefix, "Item {} entered at location {}", globalId, location);
+ * </pre>
+ * Subclasses only override {@link #write}.
+ */
 public class Log {
 
+	private volatile LogLevel level = LogLevel.DEBUG;
+
+	public LogLevel getLevel() {
+		return level;
+	}
+
+	public void setLevel(LogLevel level) {
+		this.level = level;
+	}
+
+	public boolean isEnabled(LogLevel messageLevel) {
+		return messageLevel.ordinal() >= level.ordinal();
+	}
+
+	public boolean isDebugEnabled() {
+		return isEnabled(LogLevel.DEBUG);
+	}
+
+	public boolean isInfoEnabled() {
+		return isEnabled(LogLevel.INFO);
+	}
+
+	/** Writes one line that already passed the level check. */
+	protected void write(LogLevel messageLevel, String prefix, String message, Throwable t) {
+		if (messageLevel == LogLevel.ERROR || messageLevel == LogLevel.WARN) {
+			System.err.println(prefix + "[" + messageLevel + "]" + message);
+			if (t != null) t.printStackTrace();
+		} else {
+			System.out.println(prefix + "[" + messageLevel + "]" + message);
+		}
+	}
+
+	public void log(LogLevel messageLevel, String prefix, String message) {
+		if (isEnabled(messageLevel)) write(messageLevel, prefix, message, null);
+	}
+
+	public void log(LogLevel messageLevel, String prefix, Supplier<String> message) {
+		if (isEnabled(messageLevel)) write(messageLevel, prefix, message.get(), null);
+	}
+
+	public void log(LogLevel messageLevel, String prefix, String pattern, Object... args) {
+		if (isEnabled(messageLevel)) write(messageLevel, prefix, format(pattern, args), null);
+	}
+
 	public void debug(String prefix , String message) {
-		System.out.println(prefix+"[DEBUG]"+message) ;	
+		log(LogLevel.DEBUG, prefix, message);
+	}
+	public void debug(String prefix, Supplier<String> message) {
+		log(LogLevel.DEBUG, prefix, message);
+	}
+	public void debug(String prefix, String pattern, Object arg) {
+		if (isEnabled(LogLevel.DEBUG)) write(LogLevel.DEBUG, prefix, format(pattern, arg), null);
+	}
+	public void debug(String prefix, String pattern, Object arg1, Object arg2) {
+		if (isEnabled(LogLevel.DEBUG)) write(LogLevel.DEBUG, prefix, format(pattern, arg1, arg2), null);
 	}
+	public void debug(String prefix, String pattern, Object... args) {
+		log(LogLevel.DEBUG, prefix, pattern, args);
+	}
+
 	public void info(String prefix , String message) {
-		System.out.println(prefix+"[INFO]"+message) ;	
+		log(LogLevel.INFO, prefix, message);
+	}
+	public void info(String prefix, Supplier<String> message) {
+		log(LogLevel.INFO, prefix, message);
+	}
+	public void info(String prefix, String pattern, Object arg) {
+		if (isEnabled(LogLevel.INFO)) write(LogLevel.INFO, prefix, format(pattern, arg), null);
 	}
+	public void info(String prefix, String pattern, Object arg1, Object arg2) {
+		if (isEnabled(LogLevel.INFO)) write(LogLevel.INFO, prefix, format(pattern, arg1, arg2), null);
+	}
+	public void info(String prefix, String pattern, Object... args) {
+		log(LogLevel.INFO, prefix, pattern, args);
+	}
+
+	public void warn(String prefix, String message) {
+		log(LogLevel.WARN, prefix, message);
+	}
+	public void warn(String prefix, Supplier<String> message) {
+		log(LogLevel.WARN, prefix, message);
+	}
+	public void warn(String prefix, String pattern, Object... args) {
+		log(LogLevel.WARN, prefix, pattern, args);
+	}
+
 	public void error(String prefix , String message) {
-		System.err.println(prefix+"[ERROR]"+message) ;	
+		log(LogLevel.ERROR, prefix, message);
 	}
 	public void error(String prefix , String message,Throwable t) {
-		System.err.println(prefix+"[ERROR]"+message) ;	
-		t.printStackTrace();
+		if (isEnabled(LogLevel.ERROR)) write(LogLevel.ERROR, prefix, message, t);
 	}
-	public void warn(String logPrefix, String string) {
-		// TODO Auto-generated method stub
-		
+	public void error(String prefix, Supplier<String> message) {
+		log(LogLevel.ERROR, prefix, message);
+	}
+
+	/** Replaces each "{}" with the next argument, like the usual logging facades. */
+	static String format(String pattern, Object... args) {
+		if (args == null || args.length == 0) return pattern;
+		StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
+		int start = 0;
+		int arg = 0;
+		int at;
+		while (arg < args.length && (at = pattern.indexOf("{}", start)) >= 0) {
+			sb.append(pattern, start, at).append(args[arg++]);
+			start = at + 2;
+		}
+		return sb.append(pattern, start, pattern.length()).toString();
 	}
 }
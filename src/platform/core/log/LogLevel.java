@@ -9,11 +9,24 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         WARN level, parse() for config values
 
 package platform.core.log;
 
 public enum LogLevel {
     DEBUG,
     INFO,
-    ERROR    
+    WARN,
+    ERROR;
+
+    /** Level from a config value (case insensitive); <code>defaultLevel</code> if blank or unknown. */
+    public static LogLevel parse(String value, LogLevel defaultLevel) {
+        if (value == null || value.trim().isEmpty()) return defaultLevel;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Unknown log level '" + value + "', using " + defaultLevel);
+            return defaultLevel;
+        }
+    }
 }
@@ -0,0 +1,161 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ScanLatencyMetrics Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Scanner result to destination latency per connection and scanner
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Measured to the socket write, not to the hand-off to the write queue
+
+
+package platform.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import platform.core.config.AppSettings;
+import platform.core.util.LatencyHistogram;
+import platform.core.util.RollingLatencyHistogram;
+
+/**
+ * Time from reading the last byte of a SCANNER RESULT (TT 26) until the event
+ * loop has written its destination telegram to the socket, per PLC connection
+ * and scanner.
+ * <p>
+ * Each key keeps a rolling window (<code>metrics.latency.windowSeconds</code>,
+ * default 60) and an all-time histogram, both fixed size, so recording costs a
+ * map lookup and a few atomic increments and memory does not grow with traffic.
+ * Every <code>metrics.latency.reportSeconds</code> (default 60, 0 = off) the window
+ * of each active scanner is printed.
+ */
+public final class ScanLatencyMetrics {
+
+    private static final ScanLatencyMetrics INSTANCE = new ScanLatencyMetrics();
+    private static final int WINDOW_SLOTS = 6;
+
+    /** Latencies of one scanner on one connection. */
+    public static final class Entry {
+        private final String connection;
+        private final int scannerNumber;
+        private final String scannerName;
+        private final RollingLatencyHistogram window;
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        Entry(String connection, int scannerNumber, String scannerName, long windowNanos) {
+            this.connection = connection;
+            this.scannerNumber = scannerNumber;
+            this.scannerName = scannerName;
+            this.window = new RollingLatencyHistogram(windowNanos, WINDOW_SLOTS);
+        }
+
+        public String getConnection() {
+            return connection;
+        }
+
+        public int getScannerNumber() {
+            return scannerNumber;
+        }
+
+        public String getScannerName() {
+            return scannerName;
+        }
+
+        /** Copy of the rolling window. */
+        public LatencyHistogram getWindow() {
+            return window.snapshot();
+        }
+
+        /** Since start-up. */
+        public LatencyHistogram getTotal() {
+            return total;
+        }
+    }
+
+    /** log prefix -> scanner number -> entry; no key objects built per record. */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, Entry>> entries = new ConcurrentHashMap<>();
+    private final long windowNanos = TimeUnit.SECONDS.toNanos(
+            Math.max(AppSettings.getInt("metrics.latency.windowSeconds", 60), 1));
+    private ScheduledExecutorService reporter;
+
+    private ScanLatencyMetrics() {
+    }
+
+    public static ScanLatencyMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param logPrefix log prefix of the PLC connection, e.g.
+     *                  <code>ConveyorPlcChannel_03.io.RFC1006TSAPHandler</code>
+     * @param nanos     {@link System#nanoTime()} difference
+     */
+    public void record(String logPrefix, int scannerNumber, String scannerName, long nanos) {
+        ConcurrentHashMap<Integer, Entry> scanners = entries.get(logPrefix);
+        if (scanners == null) {
+            scanners = entries.computeIfAbsent(logPrefix, k -> new ConcurrentHashMap<>());
+        }
+        Entry entry = scanners.get(scannerNumber);
+        if (entry == null) {
+            entry = scanners.computeIfAbsent(scannerNumber,
+                    k -> new Entry(connectionOf(logPrefix), scannerNumber, scannerName, windowNanos));
+        }
+        entry.window.record(nanos);
+        entry.total.record(nanos);
+    }
+
+    /** All keys seen so far, by connection and scanner. */
+    public List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>();
+        for (ConcurrentHashMap<Integer, Entry> scanners : entries.values()) {
+            list.addAll(scanners.values());
+        }
+        list.sort(Comparator.comparing(Entry::getConnection).thenComparingInt(Entry::getScannerNumber));
+        return list;
+    }
+
+    public long getWindowSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(windowNanos);
+    }
+
+    public synchronized void start() {
+        int seconds = AppSettings.getInt("metrics.latency.reportSeconds", 60);
+        if (reporter != null || seconds <= 0) return;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Scan-Latency-Report");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::report, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    private void report() {
+        for (Entry e : getEntries()) {
+            LatencyHistogram window = e.getWindow();
+            if (window.getCount() == 0) continue;
+            System.out.println("⏱ Scan→destination " + e.getConnection() + " scanner " + e.getScannerNumber()
+                    + " (" + e.getScannerName() + ") last " + getWindowSeconds() + "s: " + window.summary());
+        }
+    }
+
+    /** <code>ConveyorPlcChannel_03</code> from a log prefix such as <code>ConveyorPlcChannel_03.io.RFC1006TSAPHandler</code>. */
+    public static String connectionOf(String logPrefix) {
+        int dot = logPrefix.indexOf('.');
+        return dot > 0 ? logPrefix.substring(0, dot) : logPrefix;
+    }
+}
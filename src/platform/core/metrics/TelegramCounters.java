@@ -0,0 +1,80 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramCounters Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Received telegram counts per TT for one PLC connection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts what one connection received, without locks: one atomic slot per
+ * telegram type below {@link #TRACKED_TYPES} (all types the PLCs send today) and
+ * one shared slot for anything higher. Readers such as the status endpoint see
+ * each counter on its own; the set is not a consistent snapshot.
+ */
+public final class TelegramCounters {
+
+    /** Types 0..TRACKED_TYPES-1 get their own counter. */
+    public static final int TRACKED_TYPES = 256;
+    /** Index returned by {@link #forEach} for the shared counter of higher types. */
+    public static final int OTHER = TRACKED_TYPES;
+
+    private final AtomicLongArray received = new AtomicLongArray(TRACKED_TYPES + 1);
+    private final AtomicLong keepAlives = new AtomicLong();
+    private final AtomicLong acksSent = new AtomicLong();
+
+    /** Counter visitor, see {@link #forEach}. */
+    public interface Visitor {
+        void count(int telegramType, long count);
+    }
+
+    public void received(int telegramType) {
+        received.incrementAndGet(telegramType >= 0 && telegramType < TRACKED_TYPES ? telegramType : OTHER);
+    }
+
+    public void keepAlive() {
+        keepAlives.incrementAndGet();
+    }
+
+    public void ackSent() {
+        acksSent.incrementAndGet();
+    }
+
+    /** Calls the visitor for every type received at least once; higher types as {@link #OTHER}. */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i <= TRACKED_TYPES; i++) {
+            long n = received.get(i);
+            if (n != 0) visitor.count(i, n);
+        }
+    }
+
+    public long getReceived(int telegramType) {
+        return received.get(telegramType >= 0 && telegramType < TRACKED_TYPES ? telegramType : OTHER);
+    }
+
+    public long getTotalReceived() {
+        long total = 0;
+        for (int i = 0; i <= TRACKED_TYPES; i++) {
+            total += received.get(i);
+        }
+        return total;
+    }
+
+    public long getKeepAlives() {
+        return keepAlives.get();
+    }
+
+    public long getAcksSent() {
+        return acksSent.get();
+    }
+}
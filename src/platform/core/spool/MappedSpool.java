@@ -0,0 +1,417 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : MappedSpool Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Append-only memory-mapped spool for records the DB could not take
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Segments that cannot be deleted yet (still mapped on Windows) retried, disk use counted from the files left
+
+
+package platform.core.spool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Local store-and-forward queue on disk.
+ * <p>
+ * Records are appended to fixed size segment files (<code>0000000001.spool</code>,
+ * <code>0000000002.spool</code>, ...) that are memory mapped, so an append is a copy
+ * into the page cache plus an optional <code>force()</code>. Each record is
+ * <pre>
+ *   int  length   type + payload bytes
+ *   int  crc32    over type + payload
+ *   byte type     record kind, chosen by the caller
+ *   byte[] payload
+ * </pre>
+ * A zero length marks the end of the data in a segment (new segments are zero
+ * filled). The read position is kept in <code>spool.checkpoint</code> and only
+ * moves when the caller {@link #commit(int)}s a batch it has stored elsewhere, so
+ * after a crash everything not yet committed is read again (at-least-once).
+ * Torn records at the end of the last segment fail the CRC and are cut off.
+ * <p>
+ * The spool holds at most <code>maxSegments</code> segments between read and
+ * write position; when that is reached {@link #append} refuses records. Segments
+ * are deleted once fully read and committed. On Windows a file cannot be deleted
+ * while a <code>MappedByteBuffer</code> of it is still reachable, which lasts until
+ * the buffer is garbage collected, so a failed delete is remembered and retried
+ * on every commit and by {@link #retryDeletes()}; {@link #getDiskBytes()} counts
+ * those files until they are really gone. Not thread safe: one owner thread
+ * appends and reads.
+ */
+public final class MappedSpool implements AutoCloseable {
+
+    public static final int HEADER_SIZE = 9; // length + crc + type
+
+    private static final String SUFFIX = ".spool";
+    private static final String CHECKPOINT = "spool.checkpoint";
+
+    /** One record read back from the spool. */
+    public static final class Record {
+        private final byte type;
+        private final byte[] payload;
+
+        Record(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private final File dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final CRC32 crc = new CRC32();
+
+    /** Mapped segments by id: only the write segment and the read segment are kept. */
+    private final TreeMap<Long, MappedByteBuffer> mapped = new TreeMap<>();
+    private final RandomAccessFile checkpointFile;
+    /** Committed segments whose file could not be deleted yet. */
+    private final List<Long> undeleted = new ArrayList<>();
+
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+    // position after the records handed out by the last read(), applied by commit()
+    private long pendingSegment;
+    private int pendingOffset;
+
+    private volatile long pendingRecords;
+    private volatile long appendedCount;
+    private volatile long rejectedCount;
+    private volatile long corruptCount;
+    private volatile int segmentCount;
+
+    public MappedSpool(File dir, int segmentBytes, int maxSegments) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create spool directory " + dir.getAbsolutePath());
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(maxSegments, 2);
+        this.checkpointFile = new RandomAccessFile(new File(dir, CHECKPOINT), "rw");
+        recover();
+    }
+
+    // === Step 1: Recovery - checkpoint, existing segments, end of the last segment ===
+    private void recover() throws IOException {
+        long cpSegment = 0;
+        int cpOffset = 0;
+        if (checkpointFile.length() >= 12) {
+            checkpointFile.seek(0);
+            cpSegment = checkpointFile.readLong();
+            cpOffset = checkpointFile.readInt();
+        }
+        // segments before the checkpoint were fully committed before the crash
+        for (long id : listSegments()) {
+            if (id < cpSegment) deleteSegment(id);
+        }
+        long[] ids = listSegments();
+        int first = 0;
+        while (first < ids.length && ids[first] < cpSegment) {
+            first++; // could not be deleted above, stays in undeleted
+        }
+        ids = Arrays.copyOfRange(ids, first, ids.length);
+        if (ids.length == 0) {
+            writeSegment = Math.max(cpSegment, 1);
+            createSegment(writeSegment);
+            readSegment = writeSegment;
+            readOffset = 0;
+        } else {
+            writeSegment = ids[ids.length - 1];
+            MappedByteBuffer last = segment(writeSegment);
+            writeOffset = scanEnd(last);
+            zeroFrom(last, writeOffset);
+            readSegment = ids[0];
+            readOffset = ids[0] == cpSegment ? cpOffset : 0;
+            if (readSegment == writeSegment) readOffset = Math.min(readOffset, writeOffset);
+        }
+        pendingSegment = readSegment;
+        pendingOffset = readOffset;
+        updateSegmentCount();
+        pendingRecords = countPending();
+    }
+
+    /**
+     * Appends one record to the page cache; call {@link #force()} to make a batch durable.
+     *
+     * @return false if the spool is at its disk limit and the record was not stored
+     */
+    public boolean append(byte type, byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (size + 4 > segmentBytes) {
+            throw new IOException("Spool record of " + payload.length + " bytes exceeds segment size " + segmentBytes);
+        }
+        MappedByteBuffer buf = segment(writeSegment);
+        if (writeOffset + size + 4 > segmentBytes) { // keep room for the zero end marker
+            if (writeSegment - readSegment + 1 >= maxSegments) {
+                rejectedCount++;
+                return false;
+            }
+            buf.force();
+            if (writeSegment != readSegment) mapped.remove(writeSegment);
+            writeSegment++;
+            writeOffset = 0;
+            createSegment(writeSegment);
+            buf = segment(writeSegment);
+        }
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+        // payload first, length last: a crash in between leaves length 0 or a bad CRC
+        buf.put(writeOffset + HEADER_SIZE - 1, type);
+        buf.put(writeOffset + HEADER_SIZE, payload);
+        buf.putInt(writeOffset + 4, (int) crc.getValue());
+        buf.putInt(writeOffset, payload.length + 1);
+        writeOffset += size;
+        appendedCount++;
+        pendingRecords++;
+        return true;
+    }
+
+    /** Forces appended records to the storage device. */
+    public void force() {
+        MappedByteBuffer buf = mapped.get(writeSegment);
+        if (buf != null) buf.force();
+    }
+
+    /**
+     * Reads up to <code>max</code> records starting at the committed position.
+     * Until {@link #commit} is called, the next read returns the same records again.
+     */
+    public int read(int max, List<Record> out) throws IOException {
+        long segmentId = readSegment;
+        int offset = readOffset;
+        MappedByteBuffer buf = segment(segmentId);
+        int n = 0;
+        while (n < max) {
+            int length = offset + 8 <= segmentBytes ? buf.getInt(offset) : 0;
+            boolean valid = length > 0 && offset + 8 + length <= segmentBytes && crcMatches(buf, offset, length);
+            if (!valid) {
+                if (segmentId >= writeSegment) break; // nothing more written yet
+                if (length != 0) corruptCount++; // torn record before a crash, rest of segment skipped
+                segmentId++;
+                offset = 0;
+                buf = segment(segmentId);
+                continue;
+            }
+            byte type = buf.get(offset + HEADER_SIZE - 1);
+            byte[] payload = new byte[length - 1];
+            buf.get(offset + HEADER_SIZE, payload);
+            out.add(new Record(type, payload));
+            offset += 8 + length;
+            n++;
+        }
+        pendingSegment = segmentId;
+        pendingOffset = offset;
+        return n;
+    }
+
+    /** Marks everything returned by the last {@link #read} as stored; deletes finished segments. */
+    public void commit(int records) throws IOException {
+        long oldSegment = readSegment;
+        readSegment = pendingSegment;
+        readOffset = pendingOffset;
+        checkpointFile.seek(0);
+        checkpointFile.writeLong(readSegment);
+        checkpointFile.writeInt(readOffset);
+        checkpointFile.getFD().sync();
+        retryDeletes();
+        for (long id = oldSegment; id < readSegment; id++) {
+            deleteSegment(id);
+        }
+        if (!mapped.containsKey(readSegment)) segment(readSegment);
+        pendingRecords = Math.max(0, pendingRecords - records);
+    }
+
+    /**
+     * Deletes committed segment files a previous attempt could not delete.
+     *
+     * @return number of such files still left
+     */
+    public int retryDeletes() {
+        if (undeleted.isEmpty()) return 0;
+        for (Iterator<Long> it = undeleted.iterator(); it.hasNext(); ) {
+            if (deleteFile(it.next())) it.remove();
+        }
+        updateSegmentCount();
+        return undeleted.size();
+    }
+
+    public boolean isEmpty() {
+        return readSegment == writeSegment && readOffset >= writeOffset;
+    }
+
+    private boolean crcMatches(ByteBuffer buf, int offset, int length) {
+        crc.reset();
+        ByteBuffer view = buf.duplicate();
+        view.limit(offset + 8 + length).position(offset + 8);
+        crc.update(view);
+        return (int) crc.getValue() == buf.getInt(offset + 4);
+    }
+
+    private int scanEnd(MappedByteBuffer buf) {
+        int offset = 0;
+        while (offset + 8 <= segmentBytes) {
+            int length = buf.getInt(offset);
+            if (length <= 0 || offset + 8 + length > segmentBytes || !crcMatches(buf, offset, length)) {
+                if (length != 0) corruptCount++;
+                break;
+            }
+            offset += 8 + length;
+        }
+        return offset;
+    }
+
+    private long countPending() throws IOException {
+        long count = 0;
+        long segmentId = readSegment;
+        int offset = readOffset;
+        MappedByteBuffer buf = segment(segmentId);
+        while (true) {
+            int length = offset + 8 <= segmentBytes ? buf.getInt(offset) : 0;
+            if (length > 0 && offset + 8 + length <= segmentBytes) {
+                count++;
+                offset += 8 + length;
+            } else if (segmentId < writeSegment) {
+                segmentId++;
+                offset = 0;
+                buf = segment(segmentId);
+            } else {
+                return count;
+            }
+        }
+    }
+
+    /** Clears whatever a torn write left behind the last valid record. */
+    private static void zeroFrom(MappedByteBuffer buf, int offset) {
+        int i = offset;
+        for (; i < buf.capacity() && (i & 7) != 0; i++) {
+            buf.put(i, (byte) 0);
+        }
+        for (; i + 8 <= buf.capacity(); i += 8) {
+            if (buf.getLong(i) != 0) buf.putLong(i, 0L); // untouched pages of the sparse file stay unallocated
+        }
+        for (; i < buf.capacity(); i++) {
+            buf.put(i, (byte) 0);
+        }
+    }
+
+    private MappedByteBuffer segment(long id) throws IOException {
+        MappedByteBuffer buf = mapped.get(id);
+        if (buf == null) {
+            try (RandomAccessFile raf = new RandomAccessFile(segmentFile(id), "rw")) {
+                buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            }
+            if (id == writeSegment || id == readSegment) {
+                mapped.put(id, buf);
+            }
+        }
+        return buf;
+    }
+
+    private void createSegment(long id) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile(id), "rw")) {
+            raf.setLength(segmentBytes); // sparse, reads as zeros
+        }
+        updateSegmentCount();
+    }
+
+    private void deleteSegment(long id) {
+        mapped.remove(id); // the buffer is unmapped once garbage collected
+        if (!deleteFile(id) && !undeleted.contains(id)) undeleted.add(id);
+        updateSegmentCount();
+    }
+
+    private boolean deleteFile(long id) {
+        File file = segmentFile(id);
+        return file.delete() || !file.exists();
+    }
+
+    /** Segment files on disk: read segment to write segment, plus those not deleted yet. */
+    private void updateSegmentCount() {
+        segmentCount = (int) (writeSegment - readSegment + 1) + undeleted.size();
+    }
+
+    private File segmentFile(long id) {
+        return new File(dir, String.format("%010d", id) + SUFFIX);
+    }
+
+    private long[] listSegments() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        if (files == null) return new long[0];
+        long[] ids = new long[files.length];
+        int n = 0;
+        for (File f : files) {
+            try {
+                ids[n++] = Long.parseLong(f.getName().substring(0, f.getName().length() - SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        long[] result = Arrays.copyOf(ids, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        mapped.clear();
+        checkpointFile.close();
+    }
+
+    public long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    public long getAppendedCount() {
+        return appendedCount;
+    }
+
+    /** Records refused because the disk limit was reached. */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getCorruptCount() {
+        return corruptCount;
+    }
+
+    /** Committed segments whose file is still waiting to be deleted. */
+    public int getUndeletedSegments() {
+        return undeleted.size();
+    }
+
+    /** Size of the segment files on disk, including those not deleted yet. */
+    public long getDiskBytes() {
+        return (long) segmentCount * segmentBytes;
+    }
+
+    public long getMaxDiskBytes() {
+        return (long) maxSegments * segmentBytes;
+    }
+}
@@ -0,0 +1,310 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ConnectionPool Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Bounded JDBC connection pool behind DBConnection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps physical connections open between repository calls.
+ * <p>
+ * At most <code>db.pool.maxSize</code> connections are handed out at a time; a caller
+ * waits up to <code>db.pool.acquireTimeoutMillis</code> for one and then gets a
+ * {@link SQLTimeoutException}. An idle connection is checked with
+ * {@link Connection#isValid(int)} before it is handed out (unless it was returned
+ * less than <code>db.pool.validationSkipMillis</code> ago); a dead one is closed and
+ * replaced by a new one. The repositories keep using try-with-resources: closing
+ * the returned connection gives it back to the pool.
+ */
+public final class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long validationSkipMillis;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong replaced = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(Properties props) {
+        this.url = props.getProperty("db.url");
+        this.user = props.getProperty("db.user");
+        this.password = props.getProperty("db.password");
+        this.maxSize = intProperty(props, "db.pool.maxSize", 10);
+        this.acquireTimeoutMillis = intProperty(props, "db.pool.acquireTimeoutMillis", 5000);
+        this.validationTimeoutSeconds = intProperty(props, "db.pool.validationTimeoutSeconds", 2);
+        this.validationSkipMillis = intProperty(props, "db.pool.validationSkipMillis", 500);
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a connection; close it to give it back.
+     *
+     * @throws SQLTimeoutException if none became free within the acquisition timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("No database connection free after " + acquireTimeoutMillis
+                        + " ms (" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            borrowed.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // === Step 1: Newest idle connection that still answers, dead ones are dropped ===
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.poll();
+            }
+            if (pooled == null) return null;
+            if (pooled.isUsable()) return pooled;
+            replaced.incrementAndGet();
+            pooled.closePhysical();
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        return conn;
+    }
+
+    // === Step 2: Called by the lease proxy on close() ===
+    private void giveBack(PooledConnection pooled) {
+        try {
+            if (closed || !pooled.reset()) {
+                pooled.closePhysical();
+            } else {
+                synchronized (idle) {
+                    idle.push(pooled);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            for (PooledConnection pooled : idle) {
+                pooled.closePhysical();
+            }
+            idle.clear();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("❌ Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /** One physical connection and the proxy currently lent out for it. */
+    private final class PooledConnection {
+        private final Connection physical;
+        private long returnedAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.returnedAt = System.currentTimeMillis();
+        }
+
+        boolean isUsable() {
+            try {
+                if (physical.isClosed()) return false;
+                if (System.currentTimeMillis() - returnedAt < validationSkipMillis) return true;
+                return physical.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /** Undo what a borrower may have changed; false if the connection is no longer usable. */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                returnedAt = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // already broken
+            }
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+    }
+
+    /** Forwards everything to the physical connection except close(), which returns it. */
+    private final class Lease implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name) && method.getParameterCount() == 0) {
+                PooledConnection p;
+                synchronized (this) {
+                    p = pooled;
+                    pooled = null;
+                }
+                if (p != null) giveBack(p);
+                return null;
+            }
+            if ("isClosed".equals(name) && method.getParameterCount() == 0 && pooled == null) {
+                return true;
+            }
+            if ("equals".equals(name)) return proxy == args[0];
+            if ("hashCode".equals(name)) return System.identityHashCode(proxy);
+            if ("toString".equals(name)) return "Pooled" + (pooled != null ? pooled.physical : "[closed]");
+            PooledConnection p = pooled;
+            if (p == null) throw new SQLException("Connection already returned to the pool");
+            try {
+                return method.invoke(p.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // === Statistics ===
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /** Callers currently waiting for a connection. */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getBorrowCount() {
+        return borrowed.get();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /** Dead connections found on borrow and replaced. */
+    public long getReplacedCount() {
+        return replaced.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long n = borrowed.get() + timeouts.get();
+        return n == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / n;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DB pool: active=%d idle=%d waiting=%d max=%d borrowed=%d created=%d replaced=%d timeouts=%d avgWait=%.2fms maxWait=%.2fms",
+                getActiveCount(), getIdleCount(), getWaitingCount(), maxSize, getBorrowCount(), getCreatedCount(),
+                getReplacedCount(), getTimeoutCount(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
@@ -1,36 +1,56 @@
 package platform.core.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 import java.io.FileInputStream;
 
 public class DBConnection {
 
+    // Connections are pooled; closing one returns it (see ConnectionPool)
+    private static ConnectionPool POOL;
     private static String URL;
-    private static String USER;
-    private static String PASSWORD;
+    private static String CONFIG_PATH;
 
     static {
         try {
             String baseDir = System.getProperty("user.dir");
-            String configPath = baseDir + "/config/db.properties";
+            // -Ddb.config points a tool (e.g. TelegramReplay --with-db) at another database
+            String configPath = System.getProperty("db.config", baseDir + "/config/db.properties");
 
             Properties props = new Properties();
-            props.load(new FileInputStream(configPath));
+            try (FileInputStream in = new FileInputStream(configPath)) {
+                props.load(in);
+            }
 
+            POOL = new ConnectionPool(props);
             URL = props.getProperty("db.url");
-            USER = props.getProperty("db.user");
-            PASSWORD = props.getProperty("db.password");
+            CONFIG_PATH = configPath;
 
-            System.out.println("✅ DB configuration loaded");
+            System.out.println("✅ DB configuration loaded from " + configPath + " (pool max " + POOL.getMaxSize() + ")");
         } catch (Exception e) {
             throw new RuntimeException("❌ Failed to load DB configuration", e);
         }
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    /** JDBC URL of the pool, with any password in it masked. */
+    public static String getUrl() {
+        return URL == null ? null : URL.replaceAll("(?i)(password=)[^;&]*", "$1***");
+    }
+
+    public static String getConfigPath() {
+        return CONFIG_PATH;
+    }
+
+    public static void shutdown() {
+        POOL.close();
     }
 }
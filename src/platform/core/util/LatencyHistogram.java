@@ -0,0 +1,143 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : LatencyHistogram Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Fixed-size log-linear latency histogram with percentile queries
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         getTotalNanos() for Prometheus summaries
+
+
+package platform.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram in the style of HdrHistogram: values (nanoseconds) are counted
+ * in log-linear buckets, 64 per power of two, so every recorded value is kept with
+ * better than 1.6% precision over the whole range, in a fixed 18 KB of counters.
+ * <p>
+ * Recording is lock-free and allocation-free, so it can sit on the telegram path;
+ * percentiles are read from the counters at any time by another thread. Values
+ * above {@link #HIGHEST_TRACKABLE} (about 18 minutes) are counted as that value.
+ */
+public final class LatencyHistogram {
+
+    public static final long HIGHEST_TRACKABLE = 1L << 40;
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 64
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;    // values below 128 counted exactly
+    private static final int SIZE = index(HIGHEST_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE);
+        counts.incrementAndGet(index(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised max meanwhile, try again
+        }
+    }
+
+    /** Adds all counts of <code>other</code> to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < SIZE; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalNanos.addAndGet(other.totalNanos.get());
+        long otherMax = other.max.get();
+        long current;
+        while (otherMax > (current = max.get()) && !max.compareAndSet(current, otherMax)) {
+            // retry
+        }
+    }
+
+    /** Clears the histogram; values recorded concurrently may be lost or kept. */
+    public void reset() {
+        for (int i = 0; i < SIZE; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Value at or below which <code>percentile</code> percent of the recorded values fall
+     * (the highest value of the bucket, as HdrHistogram reports it); 0 when empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) return 0;
+        long wanted = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < SIZE; i++) {
+            seen += counts.get(i);
+            if (seen >= wanted) return Math.min(highestEquivalent(i), getMax());
+        }
+        return getMax();
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /** Sum of all recorded values. */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /** <code>count p50 p99 p99.9 max</code> in milliseconds, for logs and reports. */
+    public String summary() {
+        return String.format("count=%d p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                getCount(), millis(getValueAtPercentile(50)), millis(getValueAtPercentile(99)),
+                millis(getValueAtPercentile(99.9)), millis(getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Below 128 the index is the value; above, <code>e = log2(value) - 6</code> and the
+     * top 7 bits of the value (64..127) select one of 64 buckets of width 2^e.
+     */
+    private static int index(long value) {
+        if (value < LINEAR_LIMIT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (exponent << SUB_BUCKET_BITS) + (int) (value >>> exponent);
+    }
+
+    private static long highestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int exponent = (index >>> SUB_BUCKET_BITS) - 1;
+        long sub = index - ((long) exponent << SUB_BUCKET_BITS);
+        return ((sub + 1) << exponent) - 1;
+    }
+}
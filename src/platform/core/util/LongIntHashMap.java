@@ -0,0 +1,135 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : LongIntHashMap Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Open-addressing long -> int map without boxing
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non-negative <code>long</code> keys (numeric bag tags) to <code>int</code>
+ * values, stored in two flat arrays with linear probing.
+ * <p>
+ * No entry objects and no boxing: a lookup is a multiply, a shift and usually one
+ * array probe. Not thread safe; the BSM index fills a map on its refresh thread and
+ * publishes it, after which it is only read.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = -1L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(Math.max(expectedSize, 16)));
+    }
+
+    /** Copy of another map, used to apply incremental changes to a published map. */
+    public LongIntHashMap(LongIntHashMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        mask = other.mask;
+        size = other.size;
+        resizeAt = other.resizeAt;
+    }
+
+    /**
+     * @param key a non-negative key
+     * @return the previous value, or <code>missingValue</code> when the key was new
+     */
+    public int put(long key, int value, int missingValue) {
+        if (key < 0) throw new IllegalArgumentException("Negative key: " + key);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) rehash(keys.length << 1);
+        return missingValue;
+    }
+
+    public int get(long key, int missingValue) {
+        if (key < 0) return missingValue;
+        int slot = slot(key);
+        long k;
+        while ((k = keys[slot]) != EMPTY) {
+            if (k == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key < 0) return false;
+        int slot = slot(key);
+        long k;
+        while ((k = keys[slot]) != EMPTY) {
+            if (k == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing: tag numbers are dense and sequential, spread them over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
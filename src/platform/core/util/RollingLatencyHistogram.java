@@ -0,0 +1,72 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RollingLatencyHistogram Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Latency histogram over a sliding time window
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The last <code>window</code> of latencies, kept as a ring of {@link LatencyHistogram}
+ * slots of <code>window / slots</code> each. A slot is cleared when time moves on to
+ * it, so memory is constant and a snapshot covers between <code>window - slot</code>
+ * and <code>window</code> of history. Values recorded by another thread exactly
+ * while a slot is being cleared may be lost; for monitoring that is acceptable.
+ */
+public final class RollingLatencyHistogram {
+
+    private final LatencyHistogram[] slots;
+    private final AtomicLongArray epochs;
+    private final long slotNanos;
+
+    public RollingLatencyHistogram(long windowNanos, int slotCount) {
+        int n = Math.max(slotCount, 2);
+        this.slots = new LatencyHistogram[n];
+        this.epochs = new AtomicLongArray(n);
+        this.slotNanos = Math.max(windowNanos / n, 1);
+        for (int i = 0; i < n; i++) {
+            slots[i] = new LatencyHistogram();
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void record(long nanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), slotNanos);
+        int i = (int) Math.floorMod(epoch, (long) slots.length);
+        if (epochs.get(i) != epoch) {
+            synchronized (slots[i]) {
+                if (epochs.get(i) != epoch) {
+                    slots[i].reset();
+                    epochs.set(i, epoch);
+                }
+            }
+        }
+        slots[i].record(nanos);
+    }
+
+    /** A new histogram holding the values of the current window. */
+    public LatencyHistogram snapshot() {
+        long epoch = Math.floorDiv(System.nanoTime(), slotNanos);
+        LatencyHistogram result = new LatencyHistogram();
+        for (int i = 0; i < slots.length; i++) {
+            long e = epochs.get(i);
+            if (e != Long.MIN_VALUE && e > epoch - slots.length) {
+                result.add(slots[i]);
+            }
+        }
+        return result;
+    }
+
+    public long getWindowNanos() {
+        return slotNanos * slots.length;
+    }
+}
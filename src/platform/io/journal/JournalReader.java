@@ -0,0 +1,216 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : JournalReader Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Queries over the binary telegram journal of one connection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import platform.io.telegraph.FrameUtil;
+
+/**
+ * Read side of {@link TelegramJournal}; works on a live journal directory.
+ * <p>
+ * Operators can run it directly:
+ * <pre>
+ *   java -cp CSC_SAC.jar platform.io.journal.JournalReader &lt;journal dir&gt; gid 4711
+ *   java -cp CSC_SAC.jar platform.io.journal.JournalReader &lt;journal dir&gt; time "2026-10-18 08:00:00" "2026-10-18 08:05:00"
+ *   java -cp CSC_SAC.jar platform.io.journal.JournalReader &lt;journal dir&gt; all
+ * </pre>
+ */
+public final class JournalReader {
+
+    /** One journaled frame. */
+    public static final class Entry {
+        private final byte direction;
+        private final long epochNanos;
+        private final int sequence;
+        private final int telegramType;
+        private final int globalId;
+        private final byte[] frame;
+
+        Entry(byte direction, long epochNanos, int sequence, int telegramType, int globalId, byte[] frame) {
+            this.direction = direction;
+            this.epochNanos = epochNanos;
+            this.sequence = sequence;
+            this.telegramType = telegramType;
+            this.globalId = globalId;
+            this.frame = frame;
+        }
+
+        public boolean isInbound() {
+            return direction == TelegramJournal.INBOUND;
+        }
+
+        public long getEpochNanos() {
+            return epochNanos;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public int getTelegramType() {
+            return telegramType;
+        }
+
+        public int getGlobalId() {
+            return globalId;
+        }
+
+        /** Complete TPKT frame. */
+        public byte[] getFrame() {
+            return frame;
+        }
+
+        @Override
+        public String toString() {
+            LocalDateTime t = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
+            return TIME.format(t) + (isInbound() ? " RX " : " TX ") + "seq=" + Integer.toUnsignedString(sequence)
+                    + " TT=" + telegramType + " GID=" + globalId + " : " + FrameUtil.hex(ByteBuffer.wrap(frame));
+        }
+    }
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final DateTimeFormatter INPUT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private interface Filter {
+        boolean accept(long epochNanos, int globalId);
+    }
+
+    private final File dir;
+
+    public JournalReader(File dir) {
+        this.dir = dir;
+    }
+
+    /** Every frame in time order. */
+    public List<Entry> readAll() throws IOException {
+        return read(Long.MIN_VALUE, Long.MAX_VALUE, (t, g) -> true);
+    }
+
+    /** Frames with <code>fromNanos &lt;= time &lt; toNanos</code> (epoch nanoseconds). */
+    public List<Entry> byTime(long fromNanos, long toNanos) throws IOException {
+        return read(fromNanos, toNanos, (t, g) -> true);
+    }
+
+    /** Frames of one item, in and out. */
+    public List<Entry> byGlobalId(int globalId) throws IOException {
+        return read(Long.MIN_VALUE, Long.MAX_VALUE, (t, g) -> g == globalId);
+    }
+
+    private List<Entry> read(long fromNanos, long toNanos, Filter filter) throws IOException {
+        List<Entry> result = new ArrayList<>();
+        for (long id : TelegramJournal.segmentIds(dir)) {
+            File dataFile = new File(dir, TelegramJournal.name(id) + TelegramJournal.DATA_SUFFIX);
+            File indexFile = new File(dir, TelegramJournal.name(id) + TelegramJournal.INDEX_SUFFIX);
+            if (!indexFile.exists()) continue;
+            try (RandomAccessFile dataRaf = new RandomAccessFile(dataFile, "r");
+                 RandomAccessFile indexRaf = new RandomAccessFile(indexFile, "r")) {
+                ByteBuffer data = dataRaf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, dataRaf.length());
+                ByteBuffer index = indexRaf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, indexRaf.length());
+                int entries = entryCount(index);
+                if (entries == 0) continue;
+                if (entryTime(index, 0) >= toNanos || entryTime(index, entries - 1) < fromNanos) continue;
+                for (int i = firstAtOrAfter(index, entries, fromNanos); i < entries; i++) {
+                    int at = i * TelegramJournal.INDEX_ENTRY_SIZE;
+                    long nanos = index.getLong(at);
+                    if (nanos >= toNanos) break;
+                    int globalId = index.getInt(at + 8);
+                    if (!filter.accept(nanos, globalId)) continue;
+                    Entry entry = entry(data, index.getInt(at + 16), index.getShort(at + 20) & 0xFFFF, globalId);
+                    if (entry != null) result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Entry entry(ByteBuffer data, int offset, int type, int globalId) {
+        if (offset < TelegramJournal.FILE_HEADER_SIZE || offset + TelegramJournal.RECORD_HEADER_SIZE > data.limit()) {
+            return null;
+        }
+        int length = data.getInt(offset);
+        if (length <= 0 || offset + TelegramJournal.RECORD_HEADER_SIZE + length > data.limit()) return null;
+        byte direction = data.get(offset + 4);
+        long nanos = data.getLong(offset + 5);
+        int seq = data.getInt(offset + 13);
+        byte[] frame = new byte[length];
+        data.get(offset + TelegramJournal.RECORD_HEADER_SIZE, frame);
+        return new Entry(direction, nanos, seq, type, globalId, frame);
+    }
+
+    /** Entries end at the first zero timestamp (the index file is pre-sized). */
+    private static int entryCount(ByteBuffer index) {
+        int lo = 0;
+        int hi = index.limit() / TelegramJournal.INDEX_ENTRY_SIZE;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entryTime(index, mid) != 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int firstAtOrAfter(ByteBuffer index, int entries, long nanos) {
+        int lo = 0;
+        int hi = entries;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entryTime(index, mid) < nanos) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static long entryTime(ByteBuffer index, int i) {
+        return index.getLong(i * TelegramJournal.INDEX_ENTRY_SIZE);
+    }
+
+    static long toEpochNanos(String localTime) {
+        Instant instant = LocalDateTime.parse(localTime, INPUT).atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JournalReader <journal dir> gid <globalId> | time <from> <to> | all");
+            System.err.println("       times as \"yyyy-MM-dd HH:mm:ss\" (local time)");
+            System.exit(1);
+        }
+        JournalReader reader = new JournalReader(new File(args[0]));
+        List<Entry> entries;
+        switch (args[1]) {
+            case "gid":
+                entries = reader.byGlobalId(Integer.parseInt(args[2]));
+                break;
+            case "time":
+                entries = reader.byTime(toEpochNanos(args[2]), toEpochNanos(args[3]));
+                break;
+            default:
+                entries = reader.readAll();
+        }
+        for (Entry e : entries) {
+            System.out.println(e);
+        }
+        System.out.println(entries.size() + " frames");
+    }
+}
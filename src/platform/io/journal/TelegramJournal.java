@@ -0,0 +1,253 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramJournal Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Binary append-only journal of raw PLC frames per connection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Failed segment deletes logged and retried on every roll
+
+
+package platform.io.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import platform.core.config.AppSettings;
+import platform.io.telegraph.TpktFrameDecoder;
+
+/**
+ * Raw frames of one PLC connection, as received and as sent, in binary.
+ * <p>
+ * Each segment is a pair of memory-mapped files in
+ * <code>journal.dir/&lt;connection&gt;/</code>:
+ * <ul>
+ * <li><code>NNNNNN.tjr</code> - file header, then one record per frame:
+ *     <code>int length, byte direction, long epochNanos, int seq, frame bytes</code></li>
+ * <li><code>NNNNNN.tjx</code> - one fixed {@value #INDEX_ENTRY_SIZE} byte entry per
+ *     record: <code>long epochNanos, int globalId, int seq, int offset, short type,
+ *     byte direction, byte 0</code>. Entries are in time order, so a time range is a
+ *     binary search and a globalId lookup is a scan over a few bytes per frame.</li>
+ * </ul>
+ * The index entry is written after its record, and readers trust only the index,
+ * so a crash leaves at most the last frame unindexed. A new segment is started
+ * when either file is full and on every start; the oldest segments beyond
+ * <code>journal.maxSegments</code> are deleted. A file that cannot be deleted
+ * yet (on Windows while a buffer of it, ours or a {@link JournalReader}'s, is
+ * still mapped) is logged and tried again on every roll.
+ */
+public final class TelegramJournal implements AutoCloseable {
+
+    public static final byte INBOUND = 'I';
+    public static final byte OUTBOUND = 'O';
+
+    static final int MAGIC = 0x544A5231; // "TJR1"
+    static final int FILE_HEADER_SIZE = 16; // magic, version, start epoch millis
+    static final int RECORD_HEADER_SIZE = 17;
+    static final int INDEX_ENTRY_SIZE = 24;
+    static final String DATA_SUFFIX = ".tjr";
+    static final String INDEX_SUFFIX = ".tjx";
+
+    private static final int CHANNEL_HEADER_SIZE = 8;
+    private static final byte COTP_DT = (byte) 0xF0;
+
+    private final File dir;
+    private final int segmentBytes;
+    private final int indexBytes;
+    private final int maxSegments;
+
+    private final long baseEpochNanos = System.currentTimeMillis() * 1_000_000L;
+    private final long baseNanoTime = System.nanoTime();
+
+    private long segmentId;
+    private MappedByteBuffer data;
+    private MappedByteBuffer index;
+    private boolean closed;
+
+    private volatile long recordCount;
+    private volatile long bytesWritten;
+    private volatile int undeletedFiles;
+
+    public TelegramJournal(File dir, int segmentBytes, int maxSegments) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + dir.getAbsolutePath());
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        // smallest record: TPKT + COTP + channel header
+        this.indexBytes = segmentBytes / (RECORD_HEADER_SIZE + TpktFrameDecoder.DATA_OFFSET + CHANNEL_HEADER_SIZE)
+                * INDEX_ENTRY_SIZE;
+        this.maxSegments = Math.max(maxSegments, 1);
+        long[] ids = segmentIds(dir);
+        this.segmentId = ids.length == 0 ? 0 : ids[ids.length - 1];
+        roll();
+    }
+
+    /** Journal of one connection, configured from csc.properties; null if disabled or it cannot be opened. */
+    public static TelegramJournal open(String connectionName) {
+        if (!AppSettings.getBoolean("journal.enabled", true)) return null;
+        File dir = new File(AppSettings.getString("journal.dir",
+                System.getProperty("user.home") + "/CSC_SAC_journal"), connectionName);
+        try {
+            return new TelegramJournal(dir, AppSettings.getInt("journal.segmentMB", 64) * 1024 * 1024,
+                    AppSettings.getInt("journal.maxSegments", 16));
+        } catch (IOException e) {
+            System.err.println("❌ Telegram journal disabled for " + connectionName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Appends the remaining bytes of <code>frame</code> (a whole TPKT frame) without
+     * moving its position. Called from the event loop and the processor thread.
+     */
+    public synchronized void record(byte direction, ByteBuffer frame) {
+        if (closed) return;
+        int start = frame.position();
+        int length = frame.remaining();
+        if (length < TpktFrameDecoder.DATA_OFFSET) return;
+        try {
+            if (data.position() + RECORD_HEADER_SIZE + length > segmentBytes
+                    || index.position() + INDEX_ENTRY_SIZE > indexBytes) {
+                if (RECORD_HEADER_SIZE + length + FILE_HEADER_SIZE > segmentBytes) return; // cannot fit anywhere
+                roll();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Telegram journal roll failed: " + e.getMessage());
+            closed = true;
+            return;
+        }
+
+        long nanos = baseEpochNanos + (System.nanoTime() - baseNanoTime);
+        int channelHeader = start + TpktFrameDecoder.DATA_OFFSET;
+        int payload = channelHeader + CHANNEL_HEADER_SIZE;
+        // CR / CC are COTP control frames without a channel header
+        int limit = frame.get(start + 5) == COTP_DT ? start + length : 0;
+        int seq = payload <= limit ? frame.getInt(channelHeader + 4) : 0;
+        int type = payload + 2 <= limit ? frame.getShort(payload) & 0xFFFF : 0;
+        // item telegrams: TT LL SS CC GGGG
+        int globalId = payload + 12 <= limit ? frame.getInt(payload + 8) : 0;
+
+        // === Step 1: Record ===
+        int offset = data.position();
+        data.putInt(length).put(direction).putLong(nanos).putInt(seq);
+        ByteBuffer src = frame.duplicate();
+        src.limit(start + length).position(start);
+        data.put(src);
+
+        // === Step 2: Index entry, after the record it points to ===
+        index.putLong(nanos).putInt(globalId).putInt(seq).putInt(offset)
+             .putShort((short) type).put(direction).put((byte) 0);
+
+        recordCount++;
+        bytesWritten += RECORD_HEADER_SIZE + length;
+    }
+
+    public synchronized void record(byte direction, byte[] frame) {
+        record(direction, ByteBuffer.wrap(frame));
+    }
+
+    private void roll() throws IOException {
+        if (data != null) {
+            data.force();
+            index.force();
+        }
+        segmentId++;
+        data = map(new File(dir, name(segmentId) + DATA_SUFFIX), segmentBytes);
+        index = map(new File(dir, name(segmentId) + INDEX_SUFFIX), indexBytes);
+        data.putInt(MAGIC).putInt(1).putLong(System.currentTimeMillis());
+        deleteOldSegments();
+    }
+
+    /** Deletes data and index files older than the newest maxSegments, including leftovers of earlier rolls. */
+    private void deleteOldSegments() {
+        long[] ids = segmentIds(dir);
+        if (ids.length <= maxSegments) return;
+        long oldestKept = ids[ids.length - maxSegments];
+        int failed = 0;
+        for (String suffix : new String[] { DATA_SUFFIX, INDEX_SUFFIX }) {
+            for (long id : segmentIds(dir, suffix)) {
+                if (id >= oldestKept) break;
+                File file = new File(dir, name(id) + suffix);
+                if (!file.delete() && file.exists()) {
+                    failed++;
+                    System.err.println("⚠️ Telegram journal file " + file.getName() + " could not be deleted (still mapped?), retried at next roll");
+                }
+            }
+        }
+        undeletedFiles = failed;
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    static String name(long id) {
+        return String.format("%06d", id);
+    }
+
+    static long[] segmentIds(File dir) {
+        return segmentIds(dir, DATA_SUFFIX);
+    }
+
+    private static long[] segmentIds(File dir, String suffix) {
+        File[] files = dir.listFiles((d, n) -> n.endsWith(suffix));
+        if (files == null) return new long[0];
+        long[] ids = new long[files.length];
+        int n = 0;
+        for (File f : files) {
+            try {
+                long id = Long.parseLong(f.getName().substring(0, f.getName().length() - suffix.length()));
+                ids[n++] = id;
+            } catch (NumberFormatException e) {
+                // not a journal segment
+            }
+        }
+        long[] result = Arrays.copyOf(ids, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Forces the current segment to disk. */
+    public synchronized void force() {
+        if (!closed) {
+            data.force();
+            index.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        force();
+        closed = true;
+    }
+
+    public File getDirectory() {
+        return dir;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /** Files of deleted segments still on disk after the last roll. */
+    public int getUndeletedFiles() {
+        return undeletedFiles;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+}
@@ -0,0 +1,97 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : BatchProcessor Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Consumer thread of a RingBuffer
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains a {@link RingBuffer} in batches on its own thread. Entries are handed
+ * to the {@link EventHandler} in publish order; the slot is released to the
+ * producer after the whole batch has been handled.
+ */
+public class BatchProcessor<E> implements Runnable {
+
+    /** Processing stage for ring entries. */
+    public interface EventHandler<E> {
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    private static final long IDLE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RingBuffer<E> ring;
+    private final EventHandler<E> handler;
+    private final Runnable onCapacityAvailable;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * @param onCapacityAvailable run (on this thread) after a batch when the
+     *                            producer had found the ring full; may be null
+     */
+    public BatchProcessor(RingBuffer<E> ring, EventHandler<E> handler, Runnable onCapacityAvailable) {
+        this.ring = ring;
+        this.handler = handler;
+        this.onCapacityAvailable = onCapacityAvailable;
+    }
+
+    public void halt() {
+        running = false;
+        ring.getWaitStrategy().signalAllWhenBlocking();
+    }
+
+    @Override
+    public void run() {
+        running = true;
+        long next = ring.gating.get() + 1;
+        while (running) {
+            long available;
+            try {
+                available = ring.getWaitStrategy().waitFor(next, ring.cursor, IDLE_CHECK_NANOS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (available < next) continue;
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                try {
+                    handler.onEvent(ring.get(sequence), sequence, sequence == available);
+                } catch (Throwable t) {
+                    System.err.println(Thread.currentThread().getName() + " event handler failed: " + t);
+                    t.printStackTrace();
+                }
+            }
+            processed.addAndGet(available - next + 1);
+            batches.incrementAndGet();
+            ring.gating.set(available);
+            next = available + 1;
+
+            if (ring.takeProducerWaiting() && onCapacityAvailable != null) {
+                onCapacityAvailable.run();
+            }
+        }
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /** Average entries per wake-up; shows how much batching the load produces. */
+    public double getAverageBatchSize() {
+        long b = batches.get();
+        return b == 0 ? 0 : (double) processed.get() / b;
+    }
+}
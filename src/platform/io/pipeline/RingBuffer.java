@@ -0,0 +1,127 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RingBuffer Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Bounded, pre-allocated single-producer ring buffer
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed ring of reusable entries between exactly one producer thread and one
+ * {@link BatchProcessor}. Entries are created up front and overwritten in
+ * place, so publishing allocates nothing.
+ * <p>
+ * Producer protocol: {@link #tryNext()} (returns -1 when full), fill
+ * {@link #get(long)}, then {@link #publish(long)}. The ring never blocks the
+ * producer; when it is full the caller decides what to do (the RFC1006 reader
+ * stops reading the socket, see TelegramProcessor).
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    /** Last published sequence (written by the producer). */
+    final AtomicLong cursor = new AtomicLong(-1);
+    /** Last consumed sequence (written by the consumer). */
+    final AtomicLong gating = new AtomicLong(-1);
+    /** Set by the producer when it found the ring full. */
+    private volatile boolean producerWaiting;
+
+    // producer-owned
+    private long nextSequence = 0;
+    private long cachedGating = -1;
+
+    // backpressure metrics
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int maxDepth;
+
+    public RingBuffer(int capacity, Supplier<E> factory, WaitStrategy waitStrategy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+        }
+    }
+
+    /** Claims the next slot, or returns -1 when the consumer is a full lap behind. */
+    public long tryNext() {
+        long sequence = nextSequence;
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > cachedGating) {
+            cachedGating = gating.get();
+            if (wrapPoint > cachedGating) {
+                producerWaiting = true;
+                cachedGating = gating.get(); // consumer may have moved on before it saw the flag
+                if (wrapPoint > cachedGating) {
+                    rejected.incrementAndGet();
+                    return -1;
+                }
+            }
+        }
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) (sequence & mask)];
+    }
+
+    public void publish(long sequence) {
+        cursor.set(sequence);
+        published.incrementAndGet();
+        int depth = (int) (sequence - cachedGating);
+        if (depth > maxDepth) maxDepth = depth;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /** Clears and returns the "producer hit a full ring" flag (consumer side). */
+    boolean takeProducerWaiting() {
+        if (!producerWaiting) return false;
+        producerWaiting = false;
+        return true;
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /** Entries published but not yet consumed. */
+    public int getDepth() {
+        return (int) Math.max(0, cursor.get() - gating.get());
+    }
+
+    /** Highest depth seen by the producer (upper bound, uses its cached consumer position). */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /** Number of times the producer found the ring full. */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
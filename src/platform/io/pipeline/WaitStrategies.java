@@ -0,0 +1,179 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : WaitStrategies Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Built-in ring buffer wait strategies
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <ul>
+ *   <li><b>blocking</b>  - lock/condition, no CPU while idle (default)</li>
+ *   <li><b>sleeping</b>  - spin, then yield, then park for short periods</li>
+ *   <li><b>yielding</b>  - spin, then Thread.yield(); low latency, one busy core</li>
+ *   <li><b>busy-spin</b> - never gives the core away; lowest latency, dedicated core</li>
+ * </ul>
+ */
+public final class WaitStrategies {
+
+    private WaitStrategies() {
+    }
+
+    public static WaitStrategy forName(String name) {
+        switch (name == null ? "blocking" : name.trim().toLowerCase()) {
+            case "sleeping":
+                return new SleepingWaitStrategy();
+            case "yielding":
+                return new YieldingWaitStrategy();
+            case "busy-spin":
+            case "busyspin":
+                return new BusySpinWaitStrategy();
+            case "blocking":
+                return new BlockingWaitStrategy();
+            default:
+                System.err.println("❌ Unknown wait strategy '" + name + "', using blocking");
+                return new BlockingWaitStrategy();
+        }
+    }
+
+    /** Parks on a condition; the producer only takes the lock when a consumer is waiting. */
+    public static final class BlockingWaitStrategy implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+        @Override
+        public long waitFor(long sequence, AtomicLong cursor, long timeoutNanos) throws InterruptedException {
+            long available = cursor.get();
+            if (available >= sequence) return available;
+            lock.lock();
+            try {
+                long remaining = timeoutNanos;
+                while ((available = cursor.get()) < sequence && remaining > 0) {
+                    signalNeeded.set(true);
+                    if ((available = cursor.get()) >= sequence) break; // published while flagging
+                    remaining = published.awaitNanos(remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (signalNeeded.getAndSet(false)) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "blocking";
+        }
+    }
+
+    public static final class SleepingWaitStrategy implements WaitStrategy {
+        private static final int SPINS = 100;
+        private static final int YIELDS = 100;
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        @Override
+        public long waitFor(long sequence, AtomicLong cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            int counter = 0;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (counter < SPINS) {
+                    Thread.onSpinWait();
+                } else if (counter < SPINS + YIELDS) {
+                    Thread.yield();
+                } else {
+                    if (System.nanoTime() - deadline >= 0) break;
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                counter++;
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+
+        @Override
+        public String toString() {
+            return "sleeping";
+        }
+    }
+
+    public static final class YieldingWaitStrategy implements WaitStrategy {
+        private static final int SPINS = 100;
+
+        @Override
+        public long waitFor(long sequence, AtomicLong cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            int counter = 0;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (counter++ < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    if (System.nanoTime() - deadline >= 0) break;
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+
+        @Override
+        public String toString() {
+            return "yielding";
+        }
+    }
+
+    public static final class BusySpinWaitStrategy implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, AtomicLong cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (System.nanoTime() - deadline >= 0) break;
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+
+        @Override
+        public String toString() {
+            return "busy-spin";
+        }
+    }
+}
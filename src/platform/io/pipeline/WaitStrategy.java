@@ -0,0 +1,35 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : WaitStrategy Interface
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : How a ring buffer consumer waits for new entries
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strategy used by the consumer of a {@link RingBuffer} while it waits for the
+ * producer. Implementations trade CPU for wake-up latency; see
+ * {@link WaitStrategies#forName(String)}.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until <code>cursor</code> reaches <code>sequence</code> or the
+     * timeout passes.
+     *
+     * @return the highest published sequence (may be lower than requested on timeout)
+     */
+    long waitFor(long sequence, AtomicLong cursor, long timeoutNanos) throws InterruptedException;
+
+    /** Called by the producer after publishing. */
+    void signalAllWhenBlocking();
+}
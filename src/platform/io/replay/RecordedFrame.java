@@ -0,0 +1,40 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RecordedFrame Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : One PLC frame read back from a log or journal for replay
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.replay;
+
+/** A complete TPKT frame the PLC sent, with the time it was recorded. */
+public final class RecordedFrame {
+
+    private final long timeNanos;
+    private final byte[] frame;
+
+    public RecordedFrame(long timeNanos, byte[] frame) {
+        this.timeNanos = timeNanos;
+        this.frame = frame;
+    }
+
+    /** Recording time in epoch nanoseconds; only differences between frames matter. */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public byte[] getFrame() {
+        return frame;
+    }
+
+    /** TT of the telegram in the frame. */
+    public int getTelegramType() {
+        return ((frame[15] & 0xFF) << 8) | (frame[16] & 0xFF);
+    }
+}
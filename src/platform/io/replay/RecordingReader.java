@@ -0,0 +1,137 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RecordingReader Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Extracts recorded PLC frames from hex-dump logs and telegram journals
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.replay;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import platform.io.journal.JournalReader;
+
+/**
+ * Reads the telegrams a PLC sent from what we already keep on disk.
+ * <p>
+ * Only frames worth replaying are returned: ISO data frames of at least 25 bytes
+ * (the size below which the dispatcher treats a frame as keep-alive) that are not
+ * READY, since the replay performs its own handshake.
+ */
+public final class RecordingReader {
+
+    private static final DateTimeFormatter LINE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TIME_LENGTH = 19;
+    private static final int MIN_FRAME = 25;
+    private static final int READY = 5;
+
+    private RecordingReader() {
+    }
+
+    /**
+     * Frames from connection log files, e.g. <code>logs/ConveyorPlcChannel_03_*.log</code>.
+     * Lines logged as received from the PLC whose text ends in a hex dump of a whole
+     * TPKT frame are used (the dispatcher's "Raw frame from PLC" DEBUG line).
+     * Log times only have whole seconds, so the frames of one second are spread
+     * evenly over that second.
+     */
+    public static List<RecordedFrame> fromHexLog(File file) throws IOException {
+        List<RecordedFrame> frames = new ArrayList<>();
+        long second = Long.MIN_VALUE;
+        List<byte[]> sameSecond = new ArrayList<>();
+        // InputStreamReader replaces malformed bytes; some older logs contain raw binary
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.length() <= TIME_LENGTH || !isInbound(line)) continue;
+                byte[] frame = parseHexFrame(line);
+                if (frame == null || !isReplayable(frame)) continue;
+                long time;
+                try {
+                    time = LocalDateTime.parse(line.substring(0, TIME_LENGTH), LINE_TIME)
+                            .atZone(ZoneId.systemDefault()).toEpochSecond();
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                if (time != second) {
+                    spread(second, sameSecond, frames);
+                    second = time;
+                }
+                sameSecond.add(frame);
+            }
+        }
+        spread(second, sameSecond, frames);
+        return frames;
+    }
+
+    /** Inbound frames from the journal directory of one connection, e.g. <code>CSC_SAC_journal/ConveyorPlcChannel_03</code>. */
+    public static List<RecordedFrame> fromJournal(File dir) throws IOException {
+        List<RecordedFrame> frames = new ArrayList<>();
+        for (JournalReader.Entry e : new JournalReader(dir).readAll()) {
+            if (e.isInbound() && isReplayable(e.getFrame())) {
+                frames.add(new RecordedFrame(e.getEpochNanos(), e.getFrame()));
+            }
+        }
+        return frames;
+    }
+
+    /** Journal directory or log file, whichever <code>source</code> is. */
+    public static List<RecordedFrame> read(File source) throws IOException {
+        return source.isDirectory() ? fromJournal(source) : fromHexLog(source);
+    }
+
+    private static void spread(long second, List<byte[]> frames, List<RecordedFrame> out) {
+        int n = frames.size();
+        for (int i = 0; i < n; i++) {
+            out.add(new RecordedFrame(second * 1_000_000_000L + i * (1_000_000_000L / n), frames.get(i)));
+        }
+        frames.clear();
+    }
+
+    private static boolean isInbound(String line) {
+        return line.contains("from PLC") || line.contains("Receiv");
+    }
+
+    /** Hex bytes after the last ": " of the line, if they form exactly one TPKT frame. */
+    static byte[] parseHexFrame(String line) {
+        int start = line.lastIndexOf(": ");
+        if (start < 0) return null;
+        String[] tokens = line.substring(start + 2).trim().split("\\s+");
+        if (tokens.length < 4) return null;
+        byte[] bytes = new byte[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String t = tokens[i];
+            if (t.length() != 2) return null;
+            int hi = Character.digit(t.charAt(0), 16);
+            int lo = Character.digit(t.charAt(1), 16);
+            if (hi < 0 || lo < 0) return null;
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        int length = ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+        return bytes[0] == 0x03 && length == bytes.length ? bytes : null;
+    }
+
+    private static boolean isReplayable(byte[] frame) {
+        if (frame.length < MIN_FRAME || frame[5] != (byte) 0xF0) return false;
+        int type = ((frame[15] & 0xFF) << 8) | (frame[16] & 0xFF);
+        return type != READY;
+    }
+}
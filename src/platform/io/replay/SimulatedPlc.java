@@ -0,0 +1,294 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : SimulatedPlc Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : PLC side of one RFC1006 connection, for replay and load tests
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Byte payload frames and ACK deadline for the PLC simulator
+
+
+package platform.io.replay;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import platform.core.util.LatencyHistogram;
+
+/**
+ * Plays the PLC for one CSC connection: accepts the CSC's connect, answers CR with
+ * CC, waits for CONNECTED and READY, sends its own READY and then lets the caller
+ * send telegrams with {@link #send(byte[])}.
+ * <p>
+ * Every telegram sent gets the next sequence number of this PLC, so the ACK (TT 102)
+ * the CSC returns can be matched and timed. Telegrams from the CSC other than ACKs
+ * and keep-alives (destination replies, table downloads, ...) are counted per TT
+ * and offered to a {@link ReplyListener}.
+ */
+public final class SimulatedPlc implements AutoCloseable {
+
+    public static final int TT_READY = 5;
+    public static final int TT_ACK = 102;
+
+    public static final int PAYLOAD = 15; // TPKT 4 + COTP 3 + channel header 8
+    private static final int CHANNEL_ID = 7;
+    private static final int VERSION = 1;
+    private static final int SUBSYSTEM_ID = 1;
+    private static final int HANDSHAKE_TIMEOUT = 30000;
+
+    /** Called on the reader thread for every telegram that is not an ACK. */
+    public interface ReplyListener {
+        void onReply(int telegramType, byte[] frame, long receivedNanos);
+    }
+
+    private final String name;
+    private final ServerSocket server;
+    private Socket socket;
+    private OutputStream out;
+    private DataInputStream in;
+    private Thread reader;
+    private volatile ReplyListener replyListener;
+    private volatile boolean closed;
+
+    private final AtomicInteger nextSeq = new AtomicInteger(1);
+    private final Map<Integer, Long> inFlight = new ConcurrentHashMap<>();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong unexpectedAcks = new AtomicLong();
+    private final AtomicLong lateAcks = new AtomicLong();
+    private volatile long ackDeadlineNanos = Long.MAX_VALUE;
+    private final AtomicLongArray repliesByType = new AtomicLongArray(256);
+
+    /** Listens on <code>port</code> (0 for any free port) of the loopback interface. */
+    public SimulatedPlc(String name, int port) throws IOException {
+        this.name = name;
+        this.server = new ServerSocket(port, 1, java.net.InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setReplyListener(ReplyListener replyListener) {
+        this.replyListener = replyListener;
+    }
+
+    /** ACKs slower than this are counted by {@link #getLateAcks()}. */
+    public void setAckDeadlineMillis(long millis) {
+        this.ackDeadlineNanos = millis * 1_000_000L;
+    }
+
+    /** Blocks until the CSC has connected and the handshake is complete. */
+    public void awaitOnline() throws IOException {
+        // === Step 1: Accept, CR -> CC ===
+        server.setSoTimeout(HANDSHAKE_TIMEOUT);
+        socket = server.accept();
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+        in = new DataInputStream(socket.getInputStream());
+        out = socket.getOutputStream();
+        byte[] cr = readFrame();
+        if (cr[5] != (byte) 0xE0) throw new IOException(name + ": expected CR, got " + hex(cr));
+        byte[] cc = { 0x03, 0x00, 0x00, 0x0E, 0x09, (byte) 0xD0, 0x00, 0x01, 0x00, 0x01, 0x00, (byte) 0xC0, 0x01, 0x0A };
+        out.write(cc);
+
+        // === Step 2: CONNECTED and READY from the CSC, then our READY ===
+        expect(readFrame(), 2);
+        expect(readFrame(), TT_READY);
+        out.write(frame(nextSeq.getAndIncrement(), TT_READY, new int[] { SUBSYSTEM_ID, 0, 0 }));
+        out.flush();
+
+        // === Step 3: Everything else is read on its own thread ===
+        socket.setSoTimeout(0);
+        reader = new Thread(this::readLoop, name + "-Reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends a telegram frame (TPKT included) with this PLC's next sequence number
+     * written into its channel header. Thread-safe.
+     *
+     * @return the sequence number used
+     */
+    public int send(byte[] frame) throws IOException {
+        byte[] copy = frame.clone();
+        int seq;
+        synchronized (this) {
+            seq = nextSeq.getAndIncrement();
+            copy[11] = (byte) (seq >>> 24);
+            copy[12] = (byte) (seq >>> 16);
+            copy[13] = (byte) (seq >>> 8);
+            copy[14] = (byte) seq;
+            inFlight.put(seq, System.nanoTime());
+            out.write(copy);
+        }
+        sent.incrementAndGet();
+        return seq;
+    }
+
+    private void readLoop() {
+        try {
+            while (!closed) {
+                byte[] frame = readFrame();
+                long now = System.nanoTime();
+                if (frame.length < PAYLOAD + 2) continue; // keep-alive
+                int type = word(frame, PAYLOAD);
+                if (type == TT_ACK) {
+                    Long sentAt = inFlight.remove(dword(frame, 11));
+                    if (sentAt != null) {
+                        long latency = now - sentAt;
+                        ackLatency.record(latency);
+                        acked.incrementAndGet();
+                        if (latency > ackDeadlineNanos) lateAcks.incrementAndGet();
+                    } else {
+                        unexpectedAcks.incrementAndGet(); // e.g. the ACK of our READY
+                    }
+                    continue;
+                }
+                repliesByType.incrementAndGet(type & 0xFF);
+                ReplyListener listener = replyListener;
+                if (listener != null) listener.onReply(type, frame, now);
+            }
+        } catch (IOException e) {
+            if (!closed) System.err.println("❌ " + name + ": connection from CSC lost: " + e.getMessage());
+        }
+    }
+
+    private byte[] readFrame() throws IOException {
+        byte[] header = new byte[4];
+        try {
+            in.readFully(header);
+        } catch (SocketTimeoutException e) {
+            throw new IOException(name + ": no telegram from CSC within " + HANDSHAKE_TIMEOUT + " ms");
+        } catch (EOFException e) {
+            throw new IOException(name + ": CSC closed the connection");
+        }
+        int length = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+        if (header[0] != 0x03 || length < 4) throw new IOException(name + ": bad TPKT header " + hex(header));
+        byte[] frame = new byte[length];
+        System.arraycopy(header, 0, frame, 0, 4);
+        in.readFully(frame, 4, length - 4);
+        return frame;
+    }
+
+    private void expect(byte[] frame, int type) throws IOException {
+        if (frame.length < PAYLOAD + 2 || word(frame, PAYLOAD) != type) {
+            throw new IOException(name + ": expected TT " + type + ", got " + hex(frame));
+        }
+    }
+
+    /**
+     * Builds a telegram frame: channel header with <code>seq</code>, then TT, LL (length
+     * in words) and the given payload words.
+     */
+    public static byte[] frame(int seq, int type, int[] words) {
+        byte[] body = new byte[words.length * 2];
+        for (int i = 0; i < words.length; i++) {
+            putWord(body, i * 2, words[i]);
+        }
+        return frame(seq, type, body);
+    }
+
+    /** As {@link #frame(int, int, int[])} with the payload after TT and LL as bytes (even length). */
+    public static byte[] frame(int seq, int type, byte[] body) {
+        int length = PAYLOAD + 4 + body.length;
+        byte[] f = new byte[length];
+        f[0] = 0x03;
+        f[2] = (byte) (length >>> 8);
+        f[3] = (byte) length;
+        f[4] = 0x02;
+        f[5] = (byte) 0xF0;
+        f[6] = (byte) 0x80;
+        putWord(f, 7, CHANNEL_ID);
+        putWord(f, 9, VERSION);
+        putWord(f, 11, seq >>> 16);
+        putWord(f, 13, seq);
+        putWord(f, PAYLOAD, type);
+        putWord(f, PAYLOAD + 2, body.length / 2 + 2); // LL counts TT and LL too
+        System.arraycopy(body, 0, f, PAYLOAD + 4, body.length);
+        return f;
+    }
+
+    public static void putWord(byte[] f, int at, int value) {
+        f[at] = (byte) (value >>> 8);
+        f[at + 1] = (byte) value;
+    }
+
+    public static int word(byte[] f, int at) {
+        return ((f[at] & 0xFF) << 8) | (f[at + 1] & 0xFF);
+    }
+
+    public static int dword(byte[] f, int at) {
+        return (word(f, at) << 16) | word(f, at + 2);
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02X ", b));
+        }
+        return sb.toString().trim();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (socket != null) socket.close();
+            server.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getAcked() {
+        return acked.get();
+    }
+
+    /** Telegrams sent that have not been acknowledged yet. */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /** ACKs that arrived later than the deadline set with {@link #setAckDeadlineMillis}. */
+    public long getLateAcks() {
+        return lateAcks.get();
+    }
+
+    public long getUnexpectedAcks() {
+        return unexpectedAcks.get();
+    }
+
+    public LatencyHistogram getAckLatency() {
+        return ackLatency;
+    }
+
+    /** Non-ACK telegrams received from the CSC with the given TT (low 8 bits). */
+    public long getReplies(int telegramType) {
+        return repliesByType.get(telegramType & 0xFF);
+    }
+}
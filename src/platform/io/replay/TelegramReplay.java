@@ -0,0 +1,268 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramReplay Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Replays recorded PLC traffic into the dispatcher for load tests
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Database only with --with-db and a config of its own; report names it
+
+
+package platform.io.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import platform.core.Repository.BSMIndex;
+import platform.core.Repository.TelegramWriteBehind;
+import platform.core.config.AppSettings;
+import platform.core.log.FileLogger;
+import platform.core.log.Log;
+import platform.core.log.LogLevel;
+import platform.core.util.DBConnection;
+import platform.core.util.LatencyHistogram;
+import rfc.RFC1006SelectorEngine;
+import rfc.RFC1006TSAPHandler;
+
+/**
+ * Feeds recorded PLC telegrams back through the CSC to size hardware and catch
+ * regressions before peak season.
+ * <pre>
+ *   java -cp CSC_SAC.jar:lib/* platform.io.replay.TelegramReplay [options] &lt;log file | journal dir&gt;...
+ *
+ *   --speed original | max | &lt;factor&gt;   original timing (default), as fast as possible,
+ *                                       or N times faster than recorded (e.g. 10)
+ *   --port &lt;n&gt;                         loopback port of the simulated PLC (default: any free port)
+ *   --external                         do not start an in-process CSC; wait for a running
+ *                                       CSC whose channel config points at 127.0.0.1:&lt;port&gt;
+ *   --drain &lt;seconds&gt;                  how long to wait for outstanding ACKs (default 10)
+ *   --with-db &lt;db.properties&gt;          also look up tbl_IATA and write scanner_telegram in the
+ *                                       database of this file; never the production config/db.properties
+ * </pre>
+ * By default a CSC connection (selector engine, handler and dispatcher, as in
+ * {@link rfc.MainApp}) is started in this JVM against a {@link SimulatedPlc} on the
+ * loopback interface, without a database: the BSM index is empty and scanner
+ * records are discarded. With <code>--with-db</code> the BSM index and the
+ * write-behind run against the given database, so everything from the socket to
+ * the database is exercised; the disk spool is off so replayed records never mix
+ * with the live spool. Recorded sequence numbers are replaced; each telegram's
+ * ACK (TT 102) is timed from the moment it was written to the socket.
+ */
+public final class TelegramReplay {
+
+    private final List<RecordedFrame> frames;
+    private final double speed; // 0 = as fast as possible
+    private final SimulatedPlc plc;
+    private String database; // report line, null when the CSC is external
+
+    private long scheduleLagMaxNanos;
+    private long firstSendNanos;
+    private long lastSendNanos;
+
+    public TelegramReplay(List<RecordedFrame> frames, double speed, SimulatedPlc plc) {
+        this.frames = frames;
+        this.speed = speed;
+        this.plc = plc;
+    }
+
+    /** What the in-process CSC wrote to, shown in the report. */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /** Sends every frame on its (scaled) recorded schedule. The PLC must be online. */
+    public void run() throws IOException {
+        if (frames.isEmpty()) return;
+        long base = frames.get(0).getTimeNanos();
+        firstSendNanos = System.nanoTime();
+        for (RecordedFrame f : frames) {
+            if (speed > 0) {
+                long due = firstSendNanos + (long) ((f.getTimeNanos() - base) / speed);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                scheduleLagMaxNanos = Math.max(scheduleLagMaxNanos, -wait);
+            }
+            plc.send(f.getFrame());
+        }
+        lastSendNanos = System.nanoTime();
+    }
+
+    /** Waits until every telegram is acknowledged or <code>timeoutMillis</code> passed. */
+    public boolean drain(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (plc.getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        return plc.getInFlight() == 0;
+    }
+
+    public String report() {
+        LatencyHistogram ack = plc.getAckLatency();
+        long now = System.nanoTime();
+        double sendSeconds = Math.max(lastSendNanos - firstSendNanos, 1) / 1e9;
+        double totalSeconds = Math.max(now - firstSendNanos, 1) / 1e9;
+        double recordedSeconds = frames.size() < 2 ? 0
+                : (frames.get(frames.size() - 1).getTimeNanos() - frames.get(0).getTimeNanos()) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("📊 Replay of %d telegrams (%.1f s recorded) at %s%n", frames.size(), recordedSeconds,
+                speed > 0 ? speed + "x" : "max speed"));
+        sb.append(String.format("   sent      : %d in %.3f s = %.0f telegrams/s%n", plc.getSent(), sendSeconds,
+                plc.getSent() / sendSeconds));
+        sb.append(String.format("   acked     : %d, missing %d, throughput %.0f ACKs/s%n", plc.getAcked(),
+                plc.getInFlight(), plc.getAcked() / totalSeconds));
+        sb.append(String.format("   ACK (TT102) latency: p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms mean=%.3fms%n",
+                ms(ack.getValueAtPercentile(50)), ms(ack.getValueAtPercentile(90)), ms(ack.getValueAtPercentile(99)),
+                ms(ack.getValueAtPercentile(99.9)), ms(ack.getMax()), ack.getMean() / 1e6));
+        if (speed > 0) {
+            sb.append(String.format("   schedule  : sender fell behind by at most %.3f ms%n", ms(scheduleLagMaxNanos)));
+        }
+        StringBuilder replies = new StringBuilder();
+        for (int tt = 0; tt < 256; tt++) {
+            long n = plc.getReplies(tt);
+            if (n > 0) replies.append(" TT").append(tt).append('=').append(n);
+        }
+        if (replies.length() > 0) sb.append("   replies   :").append(replies).append('\n');
+        if (database != null) sb.append("   database  : ").append(database).append('\n');
+        return sb.toString();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static double parseSpeed(String value) {
+        switch (value.toLowerCase()) {
+            case "original":
+                return 1.0;
+            case "max":
+                return 0;
+            default:
+                double factor = Double.parseDouble(value.endsWith("x") ? value.substring(0, value.length() - 1) : value);
+                if (factor <= 0) throw new IllegalArgumentException("Speed factor must be positive: " + value);
+                return factor;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        double speed = 1.0;
+        int port = 0;
+        boolean external = false;
+        long drainMillis = 10000;
+        File dbConfig = null;
+        List<File> sources = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--speed":
+                    speed = parseSpeed(args[++i]);
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--external":
+                    external = true;
+                    break;
+                case "--drain":
+                    drainMillis = Long.parseLong(args[++i]) * 1000;
+                    break;
+                case "--with-db":
+                    dbConfig = new File(args[++i]);
+                    break;
+                default:
+                    sources.add(new File(args[i]));
+            }
+        }
+        if (sources.isEmpty()) {
+            System.err.println("Usage: TelegramReplay [--speed original|max|<factor>] [--port <n>] [--external]"
+                    + " [--drain <seconds>] [--with-db <db.properties>] <log file | journal dir>...");
+            System.exit(2);
+        }
+        if (dbConfig != null) {
+            // === Step 0: Refuse anything that could write into the live database ===
+            File production = new File(System.getProperty("user.dir"), "config/db.properties");
+            if (external) {
+                System.err.println("❌ --with-db has no effect with --external, the running CSC uses its own database");
+                System.exit(2);
+            }
+            if (!dbConfig.isFile()) {
+                System.err.println("❌ Database config not found: " + dbConfig);
+                System.exit(2);
+            }
+            if (production.exists() && dbConfig.getCanonicalFile().equals(production.getCanonicalFile())) {
+                System.err.println("❌ --with-db needs a database config of its own, not the production " + production);
+                System.exit(2);
+            }
+            System.setProperty("db.config", dbConfig.getCanonicalPath());
+            System.setProperty("spool.enabled", "false");
+        }
+
+        // === Step 1: Load the recording ===
+        List<RecordedFrame> frames = new ArrayList<>();
+        for (File source : sources) {
+            List<RecordedFrame> read = RecordingReader.read(source);
+            System.out.println("Loaded " + read.size() + " telegrams from " + source);
+            frames.addAll(read);
+        }
+        frames.sort(Comparator.comparingLong(RecordedFrame::getTimeNanos));
+        if (frames.isEmpty()) {
+            System.err.println("No replayable telegrams found (hex dumps are logged at DEBUG)");
+            System.exit(1);
+        }
+
+        // === Step 2: Simulated PLC, and the CSC side unless one is already running ===
+        SimulatedPlc plc = new SimulatedPlc("Replay-PLC", port);
+        RFC1006SelectorEngine engine = null;
+        if (external) {
+            System.out.println("Waiting for the CSC to connect to 127.0.0.1:" + plc.getPort() + " ...");
+        } else {
+            if (dbConfig != null) {
+                BSMIndex.getInstance().start();
+                TelegramWriteBehind.getInstance().start();
+                System.out.println("🗄 Replay writes to " + DBConnection.getUrl() + " (" + DBConnection.getConfigPath() + ")");
+            } else {
+                BSMIndex.getInstance().startEmpty();
+                TelegramWriteBehind.getInstance().startDiscarding();
+            }
+            engine = new RFC1006SelectorEngine();
+            engine.start();
+            Log log = new FileLogger("Replay");
+            log.setLevel(LogLevel.parse(AppSettings.getString("log.level", "DEBUG"), LogLevel.DEBUG));
+            engine.register(new RFC1006TSAPHandler("127.0.0.1", plc.getPort(), log,
+                    "Replay.io.RFC1006TSAPHandler", "REPLAY", "REPLAY"));
+        }
+
+        // === Step 3: Replay and report ===
+        boolean complete;
+        TelegramReplay replay = new TelegramReplay(frames, speed, plc);
+        if (dbConfig != null) {
+            replay.setDatabase(DBConnection.getUrl() + " (" + DBConnection.getConfigPath() + ")");
+        } else if (!external) {
+            replay.setDatabase("none, BSM index empty and scanner records discarded (use --with-db <db.properties>)");
+        }
+        try {
+            plc.awaitOnline();
+            System.out.println("▶ Replaying " + frames.size() + " telegrams at "
+                    + (speed > 0 ? speed + "x" : "max speed") + "...");
+            replay.run();
+            complete = replay.drain(drainMillis);
+            System.out.print(replay.report());
+        } finally {
+            plc.close();
+            if (engine != null) {
+                engine.shutdown();
+                BSMIndex.getInstance().shutdown();
+                TelegramWriteBehind.getInstance().shutdown();
+            }
+        }
+        System.exit(complete ? 0 : 1);
+    }
+}
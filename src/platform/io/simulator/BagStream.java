@@ -0,0 +1,231 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : BagStream Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Item telegram stream of one simulated PLC
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.simulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import platform.core.util.LatencyHistogram;
+import platform.io.replay.SimulatedPlc;
+
+/**
+ * Generates the bags of one simulated PLC and checks the CSC's answers.
+ * <p>
+ * Each bag is an ItemEnter (TT 40), a ScannerResult (TT 26) after the scan delay
+ * and an ItemExit (TT 51), or with the configured probability an ItemLost (TT 46),
+ * after the exit delay. Delays vary by &plusmn;10%. The first item destination
+ * (TT 42) the CSC sends for a bag is timed from its ScannerResult and checked
+ * against the destination deadline; further ones are counted as duplicates.
+ */
+final class BagStream implements Runnable {
+
+    static final int TT_SCANNER_RESULT = 26;
+    static final int TT_ITEM_ENTER = 40;
+    static final int TT_ITEM_DESTINATION = 42;
+    static final int TT_ITEM_LOST = 46;
+    static final int TT_ITEM_EXIT = 51;
+
+    private static final int SUBSYSTEM_ID = 1;
+    private static final int SCANNER_NUMBER = 5;
+    private static final int ENTER_LOCATION = 1;
+    private static final int EXIT_LOCATION = 9;
+
+    /** One telegram due at a given time. */
+    private static final class Event implements Comparable<Event> {
+        final long due;
+        final int type;
+        final int globalId;
+
+        Event(long due, int type, int globalId) {
+            this.due = due;
+            this.type = type;
+            this.globalId = globalId;
+        }
+
+        @Override
+        public int compareTo(Event o) {
+            return Long.compare(due, o.due);
+        }
+    }
+
+    private final SimulatedPlc plc;
+    private final SimulatorSettings settings;
+    private final int plcIndex;
+    private final List<String> tags;
+    private final Random random;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+
+    private final Map<Integer, Long> awaitingDestination = new ConcurrentHashMap<>();
+    private final LatencyHistogram destinationLatency = new LatencyHistogram();
+    private final AtomicLong bags = new AtomicLong();
+    private final AtomicLong lateDestinations = new AtomicLong();
+    private final AtomicLong duplicateDestinations = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private long nextGlobalId;
+
+    BagStream(SimulatedPlc plc, SimulatorSettings settings, int plcIndex, List<String> tags) {
+        this.plc = plc;
+        this.settings = settings;
+        this.plcIndex = plcIndex;
+        this.tags = tags;
+        this.random = new Random(settings.seed + plcIndex);
+        this.nextGlobalId = plcIndex * 1_000_000L + 1;
+        plc.setAckDeadlineMillis(settings.ackDeadlineMillis);
+        plc.setReplyListener(this::onReply);
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long end = start + settings.durationSeconds * 1_000_000_000L;
+        long nextBag = start;
+        try {
+            while (true) {
+                // === Step 1: Bags are scheduled as soon as they are earlier than the next telegram ===
+                if (nextBag < end && (events.isEmpty() || nextBag <= events.peek().due)) {
+                    addBag(nextBag);
+                    nextBag += interArrivalNanos();
+                    continue;
+                }
+                Event event = events.poll();
+                if (event == null) break;
+
+                // === Step 2: Send when due ===
+                long wait;
+                while ((wait = event.due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                send(event);
+            }
+        } catch (IOException e) {
+            sendErrors.incrementAndGet();
+            System.err.println("❌ " + plc.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void addBag(long at) {
+        int globalId = (int) nextGlobalId++;
+        bags.incrementAndGet();
+        events.add(new Event(at, TT_ITEM_ENTER, globalId));
+        events.add(new Event(at + jitter(settings.scanDelayMillis), TT_SCANNER_RESULT, globalId));
+        boolean lost = random.nextDouble() * 100 < settings.lostPercent;
+        events.add(new Event(at + jitter(settings.exitDelayMillis), lost ? TT_ITEM_LOST : TT_ITEM_EXIT, globalId));
+    }
+
+    private void send(Event event) throws IOException {
+        int gidHigh = event.globalId >>> 16;
+        int gidLow = event.globalId & 0xFFFF;
+        switch (event.type) {
+            case TT_ITEM_ENTER:
+                plc.send(SimulatedPlc.frame(0, TT_ITEM_ENTER,
+                        new int[] { SUBSYSTEM_ID, 0, gidHigh, gidLow, plcIndex, ENTER_LOCATION, 0 }));
+                break;
+            case TT_SCANNER_RESULT:
+                byte[] frame = scannerResult(event.globalId);
+                awaitingDestination.put(event.globalId, System.nanoTime());
+                plc.send(frame);
+                break;
+            case TT_ITEM_LOST:
+                plc.send(SimulatedPlc.frame(0, TT_ITEM_LOST,
+                        new int[] { SUBSYSTEM_ID, 0, gidHigh, gidLow, plcIndex, EXIT_LOCATION, 1 }));
+                break;
+            default:
+                plc.send(SimulatedPlc.frame(0, TT_ITEM_EXIT,
+                        new int[] { SUBSYSTEM_ID, 0, gidHigh, gidLow, plcIndex, EXIT_LOCATION }));
+        }
+    }
+
+    /** Scanner response <code>SC01#0B&lt;10 digit tag&gt;</code>, padded with 0xFF to whole words. */
+    private byte[] scannerResult(int globalId) {
+        String tag = tags.isEmpty()
+                ? String.format("%010d", (long) (random.nextDouble() * 10_000_000_000L))
+                : tags.get(random.nextInt(tags.size()));
+        byte[] response = ("SC01#0B" + tag).getBytes(StandardCharsets.US_ASCII);
+        int responseLength = response.length;
+        byte[] body = new byte[18 + responseLength + (responseLength & 1)];
+        SimulatedPlc.putWord(body, 0, SUBSYSTEM_ID);
+        SimulatedPlc.putWord(body, 2, 0);
+        SimulatedPlc.putWord(body, 4, globalId >>> 16);
+        SimulatedPlc.putWord(body, 6, globalId);
+        SimulatedPlc.putWord(body, 8, plcIndex);
+        SimulatedPlc.putWord(body, 10, SCANNER_NUMBER);
+        body[12] = '0';
+        body[13] = '1'; // scanner protocol version
+        SimulatedPlc.putWord(body, 14, 0); // status OK
+        SimulatedPlc.putWord(body, 16, body.length - 18); // pad included
+        System.arraycopy(response, 0, body, 18, responseLength);
+        if ((responseLength & 1) != 0) body[body.length - 1] = (byte) 0xFF;
+        return SimulatedPlc.frame(0, TT_SCANNER_RESULT, body);
+    }
+
+    /** Reader thread of the PLC connection. */
+    private void onReply(int telegramType, byte[] frame, long receivedNanos) {
+        if (telegramType != TT_ITEM_DESTINATION || frame.length < SimulatedPlc.PAYLOAD + 12) return;
+        int globalId = SimulatedPlc.dword(frame, SimulatedPlc.PAYLOAD + 8);
+        Long sentAt = awaitingDestination.remove(globalId);
+        if (sentAt == null) {
+            duplicateDestinations.incrementAndGet();
+            return;
+        }
+        long latency = receivedNanos - sentAt;
+        destinationLatency.record(latency);
+        if (latency > settings.destinationDeadlineMillis * 1_000_000L) lateDestinations.incrementAndGet();
+    }
+
+    private long interArrivalNanos() {
+        double mean = 1e9 / settings.bagsPerSecond;
+        if (!settings.poisson) return (long) mean;
+        return (long) (-Math.log(1 - random.nextDouble()) * mean);
+    }
+
+    private long jitter(long millis) {
+        return (long) (millis * 1_000_000L * (0.9 + 0.2 * random.nextDouble()));
+    }
+
+    SimulatedPlc getPlc() {
+        return plc;
+    }
+
+    long getBags() {
+        return bags.get();
+    }
+
+    LatencyHistogram getDestinationLatency() {
+        return destinationLatency;
+    }
+
+    /** ScannerResults without any destination so far. */
+    int getMissingDestinations() {
+        return awaitingDestination.size();
+    }
+
+    long getLateDestinations() {
+        return lateDestinations.get();
+    }
+
+    long getDuplicateDestinations() {
+        return duplicateDestinations.get();
+    }
+
+    long getSendErrors() {
+        return sendErrors.get();
+    }
+}
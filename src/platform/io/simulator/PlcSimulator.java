@@ -0,0 +1,231 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : PlcSimulator Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Simulated PLCs generating bag traffic for local throughput tests
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.simulator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import platform.core.config.IniConfigLoader;
+import platform.core.util.LatencyHistogram;
+import platform.io.replay.SimulatedPlc;
+
+/**
+ * Stands in for the PLC hardware: one {@link SimulatedPlc} per port, each driven
+ * by a {@link BagStream}, while the CSC runs as usual and connects to them.
+ * <pre>
+ *   java -cp CSC_SAC.jar platform.io.simulator.PlcSimulator [settings file] [sim.key=value ...]
+ * </pre>
+ * Without <code>sim.ports</code> a PLC is simulated for every
+ * <code>ConveyorPlcChannel_*.config</code> whose PeerAddress is on this machine
+ * (e.g. channel 04 on 127.0.0.1:9000). Once every PLC is ONLINE all streams start
+ * together; a progress line is printed every 5 seconds and a report per PLC at the
+ * end. The exit code is 1 when any ACK or destination was missing or late.
+ */
+public final class PlcSimulator {
+
+    private static final long PROGRESS_MILLIS = 5000;
+    private static final long DRAIN_MILLIS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        File settingsFile = new File("config/simulator.properties");
+        Properties overrides = new Properties();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) overrides.setProperty(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+            else settingsFile = new File(arg);
+        }
+        SimulatorSettings settings = SimulatorSettings.load(settingsFile, overrides);
+
+        // === Step 1: Ports and tags ===
+        List<Integer> ports = settings.ports.isEmpty() ? portsFromChannelConfigs(new File(settings.configDir))
+                : parsePorts(settings.ports);
+        if (ports.isEmpty()) {
+            System.err.println("No ports to simulate: set sim.ports or point a channel config at 127.0.0.1");
+            System.exit(2);
+        }
+        List<String> tags = settings.tagsFile.isEmpty() ? Collections.emptyList()
+                : readTags(new File(settings.tagsFile));
+        System.out.println("🏭 Simulating " + ports.size() + " PLC(s) on " + ports + ": " + settings);
+
+        // === Step 2: Wait until the CSC has brought every PLC online ===
+        List<SimulatedPlc> plcs = new ArrayList<>();
+        for (int port : ports) {
+            plcs.add(new SimulatedPlc("SimPLC-" + port, port));
+        }
+        List<Thread> waiting = new ArrayList<>();
+        List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        for (SimulatedPlc plc : plcs) {
+            Thread t = new Thread(() -> {
+                try {
+                    plc.awaitOnline();
+                    System.out.println("✅ " + plc.getName() + " ONLINE");
+                } catch (IOException e) {
+                    failures.add(e);
+                }
+            }, plc.getName() + "-Accept");
+            t.start();
+            waiting.add(t);
+        }
+        for (Thread t : waiting) {
+            t.join();
+        }
+        if (!failures.isEmpty()) {
+            for (IOException e : failures) {
+                System.err.println("❌ " + e.getMessage());
+            }
+            plcs.forEach(SimulatedPlc::close);
+            System.exit(2);
+        }
+
+        // === Step 3: Run all bag streams ===
+        List<BagStream> streams = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < plcs.size(); i++) {
+            BagStream stream = new BagStream(plcs.get(i), settings, i + 1, tags);
+            streams.add(stream);
+            Thread t = new Thread(stream, plcs.get(i).getName() + "-Bags");
+            t.start();
+            threads.add(t);
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            while (t.isAlive()) {
+                t.join(PROGRESS_MILLIS);
+                if (t.isAlive()) System.out.println(progress(streams, start));
+            }
+        }
+
+        // === Step 4: Outstanding answers, then the report ===
+        long deadline = System.currentTimeMillis() + DRAIN_MILLIS;
+        while (System.currentTimeMillis() < deadline && outstanding(streams) > 0) {
+            Thread.sleep(10);
+        }
+        boolean ok = report(streams, start);
+        plcs.forEach(SimulatedPlc::close);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static int outstanding(List<BagStream> streams) {
+        int n = 0;
+        for (BagStream s : streams) {
+            n += s.getPlc().getInFlight() + s.getMissingDestinations();
+        }
+        return n;
+    }
+
+    private static String progress(List<BagStream> streams, long start) {
+        long bags = 0;
+        long sent = 0;
+        long acked = 0;
+        LatencyHistogram destination = new LatencyHistogram();
+        for (BagStream s : streams) {
+            bags += s.getBags();
+            sent += s.getPlc().getSent();
+            acked += s.getPlc().getAcked();
+            destination.add(s.getDestinationLatency());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format("⏱ %5.0fs  bags=%d  telegrams=%d (%.0f/s)  acked=%d  destination p99=%.1fms",
+                seconds, bags, sent, sent / seconds, acked, destination.getValueAtPercentile(99) / 1e6);
+    }
+
+    /** @return true when every ACK and destination came back in time */
+    private static boolean report(List<BagStream> streams, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LatencyHistogram ackTotal = new LatencyHistogram();
+        LatencyHistogram destinationTotal = new LatencyHistogram();
+        long bags = 0;
+        long sent = 0;
+        long violations = 0;
+        System.out.println("📊 Simulator report (" + String.format("%.1f", seconds) + " s)");
+        for (BagStream s : streams) {
+            SimulatedPlc plc = s.getPlc();
+            System.out.println(String.format("   %-14s bags=%d telegrams=%d acks missing=%d late=%d"
+                    + " | destinations missing=%d late=%d duplicate=%d",
+                    plc.getName(), s.getBags(), plc.getSent(), plc.getInFlight(), plc.getLateAcks(),
+                    s.getMissingDestinations(), s.getLateDestinations(), s.getDuplicateDestinations()));
+            System.out.println("      ACK         " + plc.getAckLatency().summary());
+            System.out.println("      destination " + s.getDestinationLatency().summary());
+            ackTotal.add(plc.getAckLatency());
+            destinationTotal.add(s.getDestinationLatency());
+            bags += s.getBags();
+            sent += plc.getSent();
+            violations += plc.getInFlight() + plc.getLateAcks() + s.getMissingDestinations()
+                    + s.getLateDestinations() + s.getSendErrors();
+        }
+        System.out.println(String.format("   TOTAL  %d bags, %d telegrams = %.0f telegrams/s", bags, sent, sent / seconds));
+        System.out.println("      ACK         " + ackTotal.summary());
+        System.out.println("      destination " + destinationTotal.summary());
+        System.out.println(violations == 0 ? "✅ All ACKs and destinations within their deadlines"
+                : "❌ " + violations + " missing or late ACKs/destinations");
+        return violations == 0;
+    }
+
+    /** Ports of the channel configs whose peer is this machine. */
+    static List<Integer> portsFromChannelConfigs(File configDir) throws IOException {
+        File[] files = configDir.listFiles(
+                (dir, name) -> name.startsWith("ConveyorPlcChannel_") && name.endsWith(".config"));
+        TreeSet<Integer> ports = new TreeSet<>();
+        if (files == null) return new ArrayList<>();
+        Arrays.sort(files);
+        for (File f : files) {
+            IniConfigLoader config = new IniConfigLoader(f.getPath());
+            String peer = config.get("ConnectionHandler", "PeerAddress");
+            if (peer == null) continue;
+            InetAddress address = InetAddress.getByName(peer.trim());
+            if (address.isLoopbackAddress()) {
+                ports.add(config.getInt("ConnectionHandler", "PeerPort"));
+            }
+        }
+        return new ArrayList<>(ports);
+    }
+
+    /** <code>9000,9010-9019</code> */
+    static List<Integer> parsePorts(String spec) {
+        TreeSet<Integer> ports = new TreeSet<>();
+        for (String part : spec.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            int dash = p.indexOf('-');
+            if (dash < 0) {
+                ports.add(Integer.parseInt(p));
+            } else {
+                int from = Integer.parseInt(p.substring(0, dash).trim());
+                int to = Integer.parseInt(p.substring(dash + 1).trim());
+                for (int port = from; port <= to; port++) {
+                    ports.add(port);
+                }
+            }
+        }
+        return new ArrayList<>(ports);
+    }
+
+    private static List<String> readTags(File file) throws IOException {
+        List<String> tags = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII)) {
+            String tag = line.trim();
+            if (tag.length() == 10) tags.add(tag);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,80 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : SimulatorSettings Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Load profile and timing expectations of a simulator run
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.simulator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings of a {@link PlcSimulator} run, read from a properties file
+ * (<code>config/simulator.properties</code> by default) and <code>sim.key=value</code>
+ * command line arguments; every key is optional.
+ */
+final class SimulatorSettings {
+
+    /** Bags per second generated by each simulated PLC. */
+    double bagsPerSecond = 10;
+    long durationSeconds = 60;
+    /** Exponential inter-arrival times (true) or an even spacing (false). */
+    boolean poisson = true;
+    long scanDelayMillis = 400;
+    long exitDelayMillis = 3000;
+    double lostPercent = 1.0;
+    long ackDeadlineMillis = 100;
+    long destinationDeadlineMillis = 500;
+    long seed = 1;
+    /** Ports to simulate, e.g. <code>9000,9010-9019</code>; empty = loopback peers in the channel configs. */
+    String ports = "";
+    String configDir = "config";
+    /** File with one 10 digit bag tag per line, used for ScannerResults; empty = random tags. */
+    String tagsFile = "";
+
+    /** Settings from <code>file</code> (if it exists) with <code>overrides</code> applied on top. */
+    static SimulatorSettings load(File file, Properties overrides) throws IOException {
+        SimulatorSettings s = new SimulatorSettings();
+        Properties p = new Properties();
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                p.load(in);
+            }
+        }
+        p.putAll(overrides);
+        s.bagsPerSecond = Double.parseDouble(p.getProperty("sim.bagsPerSecond", String.valueOf(s.bagsPerSecond)));
+        s.durationSeconds = Long.parseLong(p.getProperty("sim.durationSeconds", String.valueOf(s.durationSeconds)));
+        s.poisson = !"uniform".equalsIgnoreCase(p.getProperty("sim.arrivals", "poisson"));
+        s.scanDelayMillis = Long.parseLong(p.getProperty("sim.scanDelayMillis", String.valueOf(s.scanDelayMillis)));
+        s.exitDelayMillis = Long.parseLong(p.getProperty("sim.exitDelayMillis", String.valueOf(s.exitDelayMillis)));
+        s.lostPercent = Double.parseDouble(p.getProperty("sim.lostPercent", String.valueOf(s.lostPercent)));
+        s.ackDeadlineMillis = Long.parseLong(p.getProperty("sim.ackDeadlineMillis", String.valueOf(s.ackDeadlineMillis)));
+        s.destinationDeadlineMillis = Long.parseLong(
+                p.getProperty("sim.destinationDeadlineMillis", String.valueOf(s.destinationDeadlineMillis)));
+        s.seed = Long.parseLong(p.getProperty("sim.seed", String.valueOf(s.seed)));
+        s.ports = p.getProperty("sim.ports", s.ports).trim();
+        s.configDir = p.getProperty("sim.configDir", s.configDir).trim();
+        s.tagsFile = p.getProperty("sim.tagsFile", s.tagsFile).trim();
+        if (s.bagsPerSecond <= 0) throw new IllegalArgumentException("sim.bagsPerSecond must be positive");
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f bags/s per PLC for %d s (%s), scan after %d ms, exit after %d ms, %.1f%% lost;"
+                + " deadlines ACK %d ms, destination %d ms", bagsPerSecond, durationSeconds,
+                poisson ? "poisson" : "uniform", scanDelayMillis, exitDelayMillis, lostPercent,
+                ackDeadlineMillis, destinationDeadlineMillis);
+    }
+}
@@ -0,0 +1,78 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ByteBufferPool Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Pool of direct buffers used by the RFC1006 receive path
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.telegraph;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import platform.core.config.AppSettings;
+
+/**
+ * Fixed size direct buffers that are handed out to connections and returned
+ * when the connection closes, so reconnect storms do not churn off-heap memory.
+ */
+public class ByteBufferPool {
+
+    /** Large enough for the biggest possible TPKT frame (length field is 16 bit). */
+    public static final int FRAME_BUFFER_SIZE = 0x10000;
+
+    private static final ByteBufferPool FRAME_POOL =
+            new ByteBufferPool(FRAME_BUFFER_SIZE, AppSettings.getInt("engine.bufferPool.maxBuffers", 64));
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /** Pool shared by all connections for their receive buffers. */
+    public static ByteBufferPool framePool() {
+        return FRAME_POOL;
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || !buffer.isDirect()) return;
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet(); // pool is full, let the GC have it
+            return;
+        }
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+
+    public int getPooledCount() {
+        return pooled.get();
+    }
+}
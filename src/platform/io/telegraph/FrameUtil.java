@@ -0,0 +1,88 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : FrameUtil Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Field access helpers for telegram frames in ByteBuffers
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         digits() for numeric bag tags
+//01.02    2026.10.18    Giresh         hex(byte[]) for the DEBUG dumps of sent telegrams
+
+
+package platform.io.telegraph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Big-endian field readers working on absolute indexes, so a frame view can be
+ * parsed without moving its position or copying it into a byte[].
+ */
+public final class FrameUtil {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private FrameUtil() {
+    }
+
+    /** Unsigned 16 bit word at the absolute index. */
+    public static int word(ByteBuffer buffer, int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+
+    /** 32 bit double word at the absolute index. */
+    public static int dword(ByteBuffer buffer, int index) {
+        return buffer.getInt(index);
+    }
+
+    public static String ascii(ByteBuffer buffer, int index, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Numeric value of <code>length</code> ASCII digits (at most 18), parsed without
+     * creating a String.
+     *
+     * @return the value, or -1 if any byte is not a digit
+     */
+    public static long digits(ByteBuffer buffer, int index, int length) {
+        if (length <= 0 || length > 18) return -1;
+        long value = 0;
+        for (int i = index, end = index + length; i < end; i++) {
+            int d = buffer.get(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /** Same "%02X " layout as the bytesToHex helpers of the telegram classes. */
+    public static String hex(ByteBuffer buffer, int index, int length) {
+        if (length <= 0) return "";
+        char[] out = new char[length * 3 - 1];
+        int o = 0;
+        for (int i = index; i < index + length; i++) {
+            int b = buffer.get(i) & 0xFF;
+            if (o > 0) out[o++] = ' ';
+            out[o++] = HEX[b >>> 4];
+            out[o++] = HEX[b & 0x0F];
+        }
+        return new String(out);
+    }
+
+    /** Hex dump of a whole telegram. */
+    public static String hex(byte[] bytes) {
+        return hex(ByteBuffer.wrap(bytes));
+    }
+
+    /** Hex dump of the remaining bytes of the buffer. */
+    public static String hex(ByteBuffer buffer) {
+        return hex(buffer, buffer.position(), buffer.remaining());
+    }
+}
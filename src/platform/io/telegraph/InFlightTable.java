@@ -0,0 +1,264 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : InFlightTable Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : CSC -> PLC telegrams waiting for their ACK (TT 102)
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         awaitBelow() for windowed senders
+//01.02    2026.10.18    Giresh         Telegrams tracked as slices of a batch buffer
+//01.03    2026.10.18    Giresh         ACKs of untracked telegrams counted apart from duplicate or late ACKs
+
+
+package platform.io.telegraph;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import platform.core.config.AppSettings;
+import platform.core.util.LatencyHistogram;
+
+/**
+ * Telegrams sent with a sequence number from {@link SequenceGenerator}, keyed by
+ * that number until the PLC's ACK (TT 102) for it arrives.
+ * <p>
+ * A telegram not acknowledged within <code>inflight.ackTimeoutMillis</code> is sent
+ * again unchanged (same sequence number, so a late ACK still matches), at most
+ * <code>inflight.maxRetries</code> times; after that it is counted as lost.
+ * The ACK round-trip time goes into a histogram, sampled only from telegrams
+ * that were sent once, so a retransmission cannot be mistaken for a slow ACK.
+ * <p>
+ * Bulk senders (table downloads) bound their window with {@link #awaitBelow};
+ * every ACK, loss or clear wakes them.
+ * <p>
+ * Only table telegrams are tracked; the PLC ACKs destination replies and
+ * keep-alives as well. An ACK matching nothing in flight therefore counts as a
+ * duplicate only when its sequence number is one of the last
+ * {@value #RECENT} telegrams acknowledged or given up on, otherwise as untracked.
+ */
+public final class InFlightTable {
+
+    /** Writes a telegram again; the connection's output stream. */
+    public interface Resender {
+        void resend(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    /** Called for each telegram given up on. */
+    public interface LossListener {
+        void lost(int sequenceNumber, int telegramType, int attempts);
+    }
+
+    private static final class Pending {
+        final int telegramType;
+        final byte[] buffer;
+        final int offset;
+        final int length;
+        volatile long sentNanos;
+        volatile int retransmits;
+
+        Pending(int telegramType, byte[] buffer, int offset, int length, long sentNanos) {
+            this.telegramType = telegramType;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final long ackTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(AppSettings.getLong("inflight.ackTimeoutMillis", 2000), 1));
+    private final int maxRetries = Math.max(AppSettings.getInt("inflight.maxRetries", 2), 0);
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong retransmitted = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong untrackedAcks = new AtomicLong();
+    private final AtomicLong duplicateAcks = new AtomicLong();
+    private final LatencyHistogram ackRtt = new LatencyHistogram();
+    private final Object window = new Object();
+
+    private static final int RECENT = 256;
+    /** Sequence numbers of the last telegrams acknowledged or lost, a ring guarded by itself. */
+    private final int[] recent = new int[RECENT];
+    private int recentNext;
+    private int recentSize;
+
+    /** Registers a telegram; call before writing it, so a fast ACK cannot arrive first. */
+    public void track(int sequenceNumber, int telegramType, byte[] telegram) {
+        track(sequenceNumber, telegramType, telegram, 0, telegram.length);
+    }
+
+    /**
+     * Registers one telegram of a batch buffer. The buffer is kept for
+     * retransmission and must not be changed afterwards.
+     */
+    public void track(int sequenceNumber, int telegramType, byte[] buffer, int offset, int length) {
+        pending.put(sequenceNumber, new Pending(telegramType, buffer, offset, length, System.nanoTime()));
+        sent.incrementAndGet();
+    }
+
+    /** The write failed; the telegram never left. */
+    public void forget(int sequenceNumber) {
+        if (pending.remove(sequenceNumber) != null) {
+            sent.decrementAndGet();
+            released();
+        }
+    }
+
+    /**
+     * Matches an ACK from the PLC.
+     *
+     * @return false if nothing with this sequence number was waiting (untracked, duplicate or late ACK)
+     */
+    public boolean acknowledge(int sequenceNumber) {
+        Pending p = pending.remove(sequenceNumber);
+        if (p == null) {
+            if (isRecent(sequenceNumber)) {
+                duplicateAcks.incrementAndGet();
+            } else {
+                untrackedAcks.incrementAndGet();
+            }
+            return false;
+        }
+        remember(sequenceNumber);
+        acked.incrementAndGet();
+        if (p.retransmits == 0) ackRtt.record(System.nanoTime() - p.sentNanos);
+        released();
+        return true;
+    }
+
+    /**
+     * Resends or gives up on every telegram whose ACK is overdue. Called
+     * periodically by one thread at a time.
+     */
+    public void retransmitOverdue(Resender resender, LossListener listener) {
+        long now = System.nanoTime();
+        for (Map.Entry<Integer, Pending> e : pending.entrySet()) {
+            Pending p = e.getValue();
+            if (now - p.sentNanos < ackTimeoutNanos) continue;
+            if (p.retransmits >= maxRetries) {
+                if (pending.remove(e.getKey(), p)) {
+                    remember(e.getKey());
+                    lost.incrementAndGet();
+                    released();
+                    listener.lost(e.getKey(), p.telegramType, p.retransmits + 1);
+                }
+                continue;
+            }
+            p.retransmits++;
+            p.sentNanos = now;
+            try {
+                resender.resend(p.buffer, p.offset, p.length);
+                retransmitted.incrementAndGet();
+            } catch (IOException ex) {
+                return; // link is going down; clear() follows
+            }
+        }
+    }
+
+    /** Link closed: nothing that is still waiting will be acknowledged any more. */
+    public void clear() {
+        int n = pending.size();
+        pending.clear();
+        if (n > 0) lost.addAndGet(n);
+        released();
+    }
+
+    /**
+     * Blocks until fewer than <code>limit</code> telegrams are waiting for their ACK.
+     * Must not be called on the event loop or processor thread, which deliver the ACKs.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitBelow(int limit, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (window) {
+            while (pending.size() >= limit) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(window, left);
+            }
+        }
+        return true;
+    }
+
+    private void remember(int sequenceNumber) {
+        synchronized (recent) {
+            recent[recentNext] = sequenceNumber;
+            recentNext = (recentNext + 1) % RECENT;
+            if (recentSize < RECENT) recentSize++;
+        }
+    }
+
+    private boolean isRecent(int sequenceNumber) {
+        synchronized (recent) {
+            for (int i = 0; i < recentSize; i++) {
+                if (recent[i] == sequenceNumber) return true;
+            }
+            return false;
+        }
+    }
+
+    private void released() {
+        synchronized (window) {
+            window.notifyAll();
+        }
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public int getInFlight() {
+        return pending.size();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getAcked() {
+        return acked.get();
+    }
+
+    public long getRetransmitted() {
+        return retransmitted.get();
+    }
+
+    public long getLost() {
+        return lost.get();
+    }
+
+    /** ACKs for telegrams that were never tracked (destination replies, keep-alives). */
+    public long getUntrackedAcks() {
+        return untrackedAcks.get();
+    }
+
+    /** ACKs for a tracked telegram that was already acknowledged or given up on. */
+    public long getDuplicateAcks() {
+        return duplicateAcks.get();
+    }
+
+    /** Lost telegrams per sent telegram, 0..1. */
+    public double getLossRate() {
+        long n = sent.get();
+        return n == 0 ? 0.0 : (double) lost.get() / n;
+    }
+
+    public LatencyHistogram getAckRtt() {
+        return ackRtt;
+    }
+
+    public long getAckTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ackTimeoutNanos);
+    }
+}
@@ -0,0 +1,35 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : SequenceGenerator Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Monotonic channel header sequence numbers for CSC -> PLC telegrams
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.telegraph;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sequence numbers for one channel: 1, 2, 3, ... up to 2^31-1, then 1 again.
+ * Thread-safe without locks, so the trigger server, the operator UI and the
+ * processor thread can send on the same connection.
+ */
+public final class SequenceGenerator {
+
+    private final AtomicInteger last = new AtomicInteger();
+
+    public int next() {
+        return last.updateAndGet(v -> v == Integer.MAX_VALUE ? 1 : v + 1);
+    }
+
+    /** Most recently issued number, 0 before the first. */
+    public int current() {
+        return last.get();
+    }
+}
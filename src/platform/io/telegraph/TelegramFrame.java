@@ -0,0 +1,163 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramFrame Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Parsed channel header + payload view of one received telegram
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         digits()/indexOf() for allocation-free tag parsing
+//01.02    2026.10.18    Giresh         Receive time carried with the frame for latency metrics
+
+
+package platform.io.telegraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * One received telegram, framed and parsed exactly once by the dispatcher.
+ * <pre>
+ *   TPKT(4) | COTP DT(3) | ChannelId(2) Version(2) SeqNo(4) | TT(2) LL(2) fields...
+ *                          \___________ channel header ____/  \____ payload _____/
+ * </pre>
+ * Handlers get the channel header as plain ints and read payload fields with
+ * offsets relative to TT (TT = 0, LL = 2, first field = 4), so no handler ever
+ * touches the TPKT/COTP bytes or a stream.
+ * <p>
+ * Instances are flyweights: {@link #wrap(ByteBuffer)} re-points the same object
+ * at the next frame, so a handler must not keep it after it returns.
+ */
+public final class TelegramFrame {
+
+    public static final int CHANNEL_HEADER_SIZE = 8;
+    /** TPKT + COTP + channel header + TT + LL */
+    public static final int MIN_FRAME_SIZE = TpktFrameDecoder.DATA_OFFSET + CHANNEL_HEADER_SIZE + 4;
+
+    private ByteBuffer frame;
+    private int frameStart;
+    private int payloadStart;
+    private int totalLength;
+    private int channelId;
+    private int version;
+    private int sequenceNumber;
+    private int telegramType;
+    private int telegramLength;
+    private long receivedNanos;
+
+    /** Validates TPKT/COTP and parses the channel header and TT/LL of the frame. */
+    public TelegramFrame wrap(ByteBuffer frame) throws IOException {
+        int channelHeader = TpktFrameDecoder.dataOffset(frame, MIN_FRAME_SIZE);
+        this.frame = frame;
+        this.frameStart = frame.position();
+        this.totalLength = FrameUtil.word(frame, frameStart + 2);
+        this.payloadStart = channelHeader + CHANNEL_HEADER_SIZE;
+        this.channelId = FrameUtil.word(frame, channelHeader);
+        this.version = FrameUtil.word(frame, channelHeader + 2);
+        this.sequenceNumber = FrameUtil.dword(frame, channelHeader + 4);
+        this.telegramType = FrameUtil.word(frame, payloadStart);
+        this.telegramLength = FrameUtil.word(frame, payloadStart + 2);
+        return this;
+    }
+
+    /** {@link System#nanoTime()} at which the last byte of this frame was read from the socket. */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public void setReceivedNanos(long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+    }
+
+    /** Throws when the telegram is shorter than the handler needs. */
+    public void requireTotalLength(int minLength) throws IOException {
+        if (totalLength < minLength)
+            throw new IOException("Invalid total telegram length: " + totalLength + " (expected at least " + minLength + ")");
+    }
+
+    public int getChannelId() {
+        return channelId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public int getTelegramType() {
+        return telegramType;
+    }
+
+    /** LL field, in words. */
+    public int getTelegramLength() {
+        return telegramLength;
+    }
+
+    /** Whole frame in bytes, TPKT header included. */
+    public int getTotalLength() {
+        return totalLength;
+    }
+
+    /** Payload bytes from TT to the end of the frame. */
+    public int getPayloadSize() {
+        return frameStart + totalLength - payloadStart;
+    }
+
+    /** Unsigned word at the payload offset (TT = 0). */
+    public int word(int offset) {
+        return FrameUtil.word(frame, payloadStart + offset);
+    }
+
+    /** Double word at the payload offset (TT = 0). */
+    public int dword(int offset) {
+        return FrameUtil.dword(frame, payloadStart + offset);
+    }
+
+    /** Unsigned byte at the payload offset (TT = 0). */
+    public int byteAt(int offset) {
+        return frame.get(payloadStart + offset) & 0xFF;
+    }
+
+    public String ascii(int offset, int length) {
+        return FrameUtil.ascii(frame, payloadStart + offset, length);
+    }
+
+    /** ASCII digits as a number, -1 if not all digits. See {@link FrameUtil#digits}. */
+    public long digits(int offset, int length) {
+        return FrameUtil.digits(frame, payloadStart + offset, length);
+    }
+
+    /** Payload offset of the first <code>value</code> byte in [from, to), or -1. */
+    public int indexOf(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (frame.get(payloadStart + i) == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Read-only payload view positioned at TT and limited to the frame end.
+     * It is the receive view itself, valid only while the handler runs.
+     */
+    public ByteBuffer payload() {
+        frame.position(payloadStart);
+        return frame;
+    }
+
+    /** Hex dump of channel header + payload (the part after COTP). */
+    public String hex() {
+        int from = payloadStart - CHANNEL_HEADER_SIZE;
+        return FrameUtil.hex(frame, from, frameStart + totalLength - from);
+    }
+
+    /** Hex dump of the complete frame, TPKT header included. */
+    public String frameHex() {
+        return FrameUtil.hex(frame, frameStart, totalLength);
+    }
+}
@@ -0,0 +1,144 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TpktFrameDecoder Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Incremental TPKT (RFC1006) frame decoder
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Listener can refuse a frame and leave it buffered
+
+
+package platform.io.telegraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Cuts complete TPKT frames out of a pooled receive buffer. Socket reads go
+ * straight into {@link #buffer()}; {@link #decode(FrameListener)} then hands every
+ * complete frame to the listener as a read-only view on that same memory.
+ * <p>
+ * The view is reused for every frame: it is only valid inside the callback and
+ * its position marks the first TPKT byte, its limit the end of the frame.
+ */
+public class TpktFrameDecoder {
+
+    public static final int TPKT_HEADER_SIZE = 4;
+    public static final int COTP_DT_HEADER_SIZE = 3;
+    /** Offset of the channel header in a COTP data frame. */
+    public static final int DATA_OFFSET = TPKT_HEADER_SIZE + COTP_DT_HEADER_SIZE;
+
+    /**
+     * Receives decoded frames. Returning false means the frame was not taken:
+     * it stays buffered (with everything after it) for the next decode call.
+     */
+    public interface FrameListener {
+        boolean onFrame(ByteBuffer frame) throws IOException;
+    }
+
+    private final ByteBufferPool pool;
+    private ByteBuffer buffer;
+    private ByteBuffer view;
+
+    public TpktFrameDecoder() {
+        this(ByteBufferPool.framePool());
+    }
+
+    public TpktFrameDecoder(ByteBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /** Borrows a receive buffer from the pool. */
+    public void open() {
+        if (buffer != null) return;
+        buffer = pool.acquire();
+        view = buffer.asReadOnlyBuffer();
+    }
+
+    /** Drops any partial frame and gives the buffer back to the pool. */
+    public void close() {
+        if (buffer == null) return;
+        pool.release(buffer);
+        buffer = null;
+        view = null;
+    }
+
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    /** Buffer (in write mode) the next socket read should fill. */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /** True when a complete frame is still waiting in the buffer. */
+    public boolean hasCompleteFrame() {
+        if (buffer == null || buffer.position() < TPKT_HEADER_SIZE) return false;
+        return buffer.position() >= (buffer.getShort(2) & 0xFFFF);
+    }
+
+    /**
+     * Hands every complete frame to the listener.
+     *
+     * @return number of frames delivered
+     */
+    public int decode(FrameListener listener) throws IOException {
+        if (buffer == null) return 0;
+        ByteBuffer source = buffer;
+        source.flip();
+        int frames = 0;
+        try {
+            while (source.remaining() >= TPKT_HEADER_SIZE) {
+                int start = source.position();
+                if ((source.get(start) & 0xFF) != 0x03) {
+                    throw new IOException("Invalid TPKT version: " + (source.get(start) & 0xFF));
+                }
+                int totalLength = source.getShort(start + 2) & 0xFFFF;
+                if (totalLength < DATA_OFFSET) {
+                    throw new IOException("Invalid TPKT length: " + totalLength);
+                }
+                if (source.remaining() < totalLength) break;
+
+                view.limit(start + totalLength).position(start);
+                if (!listener.onFrame(view)) {
+                    source.position(start);
+                    break;
+                }
+                source.position(start + totalLength);
+                frames++;
+                if (buffer != source) break; // closed from the callback
+            }
+        } finally {
+            if (buffer == source) {
+                source.compact();
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Checks the TPKT and COTP data headers of a frame view.
+     *
+     * @return absolute index of the channel header (first byte after COTP)
+     */
+    public static int dataOffset(ByteBuffer frame, int minLength) throws IOException {
+        int start = frame.position();
+        if ((frame.get(start) & 0xFF) != 0x03)
+            throw new IOException("Invalid TPKT version: expected 0x03 but got " + (frame.get(start) & 0xFF));
+
+        int totalLength = frame.getShort(start + 2) & 0xFFFF;
+        if (totalLength < minLength || frame.remaining() < totalLength)
+            throw new IOException("Invalid total telegram length: " + totalLength);
+
+        if ((frame.get(start + 4) & 0xFF) != 0x02 || (frame.get(start + 5) & 0xFF) != 0xF0
+                || (frame.get(start + 6) & 0xFF) != 0x80)
+            throw new IOException("Invalid COTP header. Expected [0x02, 0xF0, 0x80]");
+
+        return start + DATA_OFFSET;
+    }
+}
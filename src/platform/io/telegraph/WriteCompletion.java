@@ -0,0 +1,30 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : WriteCompletion Interface
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Notification when a queued telegram has been written to the socket
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package platform.io.telegraph;
+
+/**
+ * Implemented by output streams that only queue a telegram and write it to the
+ * socket later (the PLC channels), so a caller can time the real write rather
+ * than the hand-off to the queue.
+ */
+public interface WriteCompletion {
+
+    /**
+     * Runs <code>action</code> once the last write made by the calling thread on
+     * this stream has been handed to the socket completely: on the thread that
+     * wrote it, or at once on the caller if that already happened. Never runs if
+     * that write is dropped (link lost before it went out).
+     */
+    void afterLastWrite(Runnable action);
+}
@@ -0,0 +1,104 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ApplicationControl Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMX view of the BSM index and the telegram write-behind
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package rfc;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import platform.core.Repository.BSMIndex;
+import platform.core.Repository.TelegramWriteBehind;
+
+/**
+ * Live tuning of the shared BSM routing cache and the scanner telegram
+ * write-behind. Changes are logged to the console and are lost on restart;
+ * csc.properties stays the source of the start-up values.
+ */
+public class ApplicationControl implements ApplicationControlMBean {
+
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ApplicationControl(),
+                    new ObjectName(PlcConnectionControl.DOMAIN + ":type=Application"));
+        } catch (JMException e) {
+            System.err.println("❌ JMX registration failed for the application MBean: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getBsmRefreshSeconds() {
+        return BSMIndex.getInstance().getRefreshSeconds();
+    }
+
+    @Override
+    public void setBsmRefreshSeconds(long seconds) {
+        BSMIndex.getInstance().setRefreshSeconds(seconds);
+        System.out.println("🔧 BSM index refresh interval set to " + seconds + " s via JMX");
+    }
+
+    @Override
+    public int getBsmIndexSize() {
+        return BSMIndex.getInstance().getSize();
+    }
+
+    @Override
+    public long getBsmLastRefreshTime() {
+        return BSMIndex.getInstance().getLastRefreshTime();
+    }
+
+    @Override
+    public void refreshBsmIndex() {
+        System.out.println("🔧 BSM index refresh requested via JMX");
+        BSMIndex.getInstance().refresh();
+    }
+
+    @Override
+    public int getWriteBehindBatchSize() {
+        return TelegramWriteBehind.getInstance().getBatchSize();
+    }
+
+    @Override
+    public void setWriteBehindBatchSize(int batchSize) {
+        TelegramWriteBehind.getInstance().setBatchSize(batchSize);
+        System.out.println("🔧 Write-behind batch size set to " + batchSize + " via JMX");
+    }
+
+    @Override
+    public long getWriteBehindFlushMillis() {
+        return TelegramWriteBehind.getInstance().getFlushMillis();
+    }
+
+    @Override
+    public void setWriteBehindFlushMillis(long millis) {
+        TelegramWriteBehind.getInstance().setFlushMillis(millis);
+        System.out.println("🔧 Write-behind flush interval set to " + millis + " ms via JMX");
+    }
+
+    @Override
+    public int getWriteBehindQueueDepth() {
+        return TelegramWriteBehind.getInstance().getQueueDepth();
+    }
+
+    @Override
+    public long getSpoolPending() {
+        return TelegramWriteBehind.getInstance().getSpoolPending();
+    }
+
+    @Override
+    public void flushWriteBehind() {
+        System.out.println("🔧 Write-behind flush requested via JMX");
+        TelegramWriteBehind.getInstance().requestFlush();
+    }
+}
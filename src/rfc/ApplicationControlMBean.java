@@ -0,0 +1,47 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ApplicationControlMBean Interface
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMX management interface of the shared caches and queues
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package rfc;
+
+/**
+ * Registered as <code>CSC_SAC:type=Application</code>: settings shared by all
+ * PLC connections.
+ */
+public interface ApplicationControlMBean {
+
+    long getBsmRefreshSeconds();
+
+    void setBsmRefreshSeconds(long seconds);
+
+    int getBsmIndexSize();
+
+    long getBsmLastRefreshTime();
+
+    /** Refreshes the BSM index now instead of waiting for the next interval. */
+    void refreshBsmIndex();
+
+    int getWriteBehindBatchSize();
+
+    void setWriteBehindBatchSize(int batchSize);
+
+    long getWriteBehindFlushMillis();
+
+    void setWriteBehindFlushMillis(long millis);
+
+    int getWriteBehindQueueDepth();
+
+    long getSpoolPending();
+
+    /** Writes queued scanner telegrams now and retries the database for spooled ones. */
+    void flushWriteBehind();
+}
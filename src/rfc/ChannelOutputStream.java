@@ -0,0 +1,75 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ChannelOutputStream Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : OutputStream facade over a non-blocking PLC channel
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         A write may carry several telegrams back to back
+//01.02    2026.10.18    Giresh         Writes tagged with the socket session, stale ones dropped after a reconnect
+//01.03    2026.10.18    Giresh         Application writes only while ONLINE; the event loop's own writes on a separate stream
+//01.04    2026.10.18    Giresh         WriteCompletion: callers can time the actual socket write
+
+
+package rfc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import platform.io.telegraph.WriteCompletion;
+
+/**
+ * Lets the existing telegram classes keep calling <code>send(OutputStream, ...)</code>.
+ * Every write is one complete telegram, or several complete telegrams back to
+ * back (a table download batch), and is queued on the owning connection as one
+ * buffer; the event loop writes it to the socket without blocking the caller.
+ * <p>
+ * The stream given to the dispatcher (telegram handlers, table downloads, the
+ * UI) accepts writes only while the connection is ONLINE, for the session of
+ * the frame being handled or, outside frame handling, the current one. The
+ * handshake telegrams and keep-alives, written by the event loop itself while
+ * the link is still connecting, go through a <code>loopWrites</code> stream
+ * that only needs an open socket.
+ */
+class ChannelOutputStream extends OutputStream implements WriteCompletion {
+
+    private final RFC1006TSAPHandler handler;
+    private final boolean loopWrites;
+
+    ChannelOutputStream(RFC1006TSAPHandler handler, boolean loopWrites) {
+        this.handler = handler;
+        this.loopWrites = loopWrites;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        // read before the check: a reconnect in between makes it stale
+        long session = loopWrites ? handler.getSession() : handler.getWriteSession();
+        if (loopWrites ? !handler.isChannelOpen() : !handler.isOnline(session)) {
+            throw new IOException("PLC channel is not connected");
+        }
+        byte[] copy = new byte[len];
+        System.arraycopy(b, off, copy, 0, len);
+        handler.enqueue(ByteBuffer.wrap(copy), session);
+    }
+
+    @Override
+    public void afterLastWrite(Runnable action) {
+        handler.afterLastWrite(action);
+    }
+
+    @Override
+    public void flush() {
+        // writes are queued as soon as they are made
+    }
+}
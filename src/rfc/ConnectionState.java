@@ -0,0 +1,43 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ConnectionState Enum
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : States of one RFC1006 PLC connection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package rfc;
+
+/**
+ * Life cycle of a PLC link. Only the connection's event loop thread changes it:
+ * <pre>
+ * DISCONNECTED -> CONNECTING -> CR_SENT -> READY -> ONLINE
+ *       ^              |            |         |        |
+ *       +--------------+------------+---------+--------+   (error, timeout, reconnect)
+ * </pre>
+ * From DISCONNECTED the next attempt is started by the reconnect timer (or an
+ * operator reconnect), never by the code that noticed the failure.
+ */
+public enum ConnectionState {
+    /** No socket; a reconnect may be scheduled. */
+    DISCONNECTED,
+    /** TCP connect in progress. */
+    CONNECTING,
+    /** Connection Request sent, waiting for Connection Confirm. */
+    CR_SENT,
+    /** CONNECTED and READY sent, waiting for the PLC's READY. */
+    READY,
+    /** Handshake done, telegrams flow to the dispatcher. */
+    ONLINE;
+
+    /** Transitions the handler may make; anything else is a bug. */
+    boolean canMoveTo(ConnectionState next) {
+        if (next == DISCONNECTED) return this != DISCONNECTED;
+        return next.ordinal() == ordinal() + 1;
+    }
+}
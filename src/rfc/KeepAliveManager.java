@@ -0,0 +1,77 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : KeepAliveManager Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : One scheduler supervising keep-alive and dead peers of all PLC links
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package rfc;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import platform.core.config.AppSettings;
+
+/**
+ * One thread for all connections instead of a monitor thread per PLC. Every
+ * <code>keepalive.tickMillis</code> it compares each link's last send/receive
+ * time with that connection's timeouts:
+ * <ul>
+ *   <li>nothing sent for <code>transmitTimeout</code> - a KeepAlive is queued</li>
+ *   <li>nothing received for <code>receiveTimeout</code> - the link is closed and
+ *       the normal reconnect takes over</li>
+ * </ul>
+ * A busy link therefore carries no keep-alives at all, and no socket is ever
+ * polled: the times come from the event loop's reads and writes.
+ */
+public class KeepAliveManager {
+
+    private final List<RFC1006TSAPHandler> handlers;
+    private final long tickMillis = Math.max(AppSettings.getLong("keepalive.tickMillis", 500), 10);
+    private ScheduledExecutorService scheduler;
+
+    /** @param handlers live list of the engine's connections */
+    public KeepAliveManager(List<RFC1006TSAPHandler> handlers) {
+        this.handlers = handlers;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "KeepAlive-Manager");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (RFC1006TSAPHandler handler : handlers) {
+            try {
+                handler.checkLink(now);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Keep-alive check failed for " + handler.getLogPrefix() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
@@ -5,43 +5,100 @@
 // Revision Number      : 1.0
 // Description          : Communication module with multi-PLC handling
 // ================================================================================
-// Change history 
-// Rev.     Date         Programmer    Description                               
+// Change history
+// Rev.     Date         Programmer    Description
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version with multi-threaded PLC
+//01.01    2026.10.18    Giresh         Selector engine, PLC channels discovered from config dir
+//01.02    2026.10.18    Giresh         BSM index preloaded before the PLCs connect
+//01.03    2026.10.18    Giresh         Telegram write-behind writer started/flushed with the app
+//01.04    2026.10.18    Giresh         Telegram journal opened per PLC connection
+//01.05    2026.10.18    Giresh         Scan to destination latency report started with the app
+//01.06    2026.10.18    Giresh         PlcStatusServer (/metrics, /status) started with the engine
+//01.07    2026.10.18    Giresh         JMX MBeans per connection and for the shared caches
+//01.08    2026.10.18    Giresh         One table broadcast trigger server for all PLCs
 
 package rfc;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import platform.core.config.AppSettings;
+import platform.core.config.PlcConfigurationLoader;
+import platform.core.Repository.BSMIndex;
+import platform.core.Repository.TelegramWriteBehind;
+import platform.core.metrics.ScanLatencyMetrics;
+import platform.io.journal.TelegramJournal;
 
 public class MainApp {
 
     public static void main(String[] args) {
         System.out.println("✅ CSC_SAC MainApp starting...");
-   
+
         // Get working directory dynamically
         String baseDir = System.getProperty("user.dir");
         System.out.println("Working Directory: " + baseDir);
-        String[] configPaths = {
-        		baseDir + "/config/ConveyorPlcChannel_03.config",
-                baseDir + "/config/ConveyorPlcChannel_04.config",
-        	};
+        File configDir = new File(AppSettings.getString("engine.configDir", baseDir + "/config"));
+        File[] configFiles = configDir.listFiles(
+                (dir, name) -> name.startsWith("ConveyorPlcChannel_") && name.endsWith(".config"));
+        if (configFiles == null || configFiles.length == 0) {
+            System.err.println("No ConveyorPlcChannel_*.config found in " + configDir.getAbsolutePath());
+            return;
+        }
+        Arrays.sort(configFiles);
+
+        // Routing data in memory before the first scanner result arrives
+        BSMIndex.getInstance().start();
+        TelegramWriteBehind.getInstance().start();
+        ScanLatencyMetrics.getInstance().start();
+
+        RFC1006SelectorEngine engine;
+        try {
+            engine = new RFC1006SelectorEngine();
+        } catch (IOException e) {
+            System.err.println("Failed to open selector: " + e.getMessage());
+            return;
+        }
+        engine.start();
 
-        ExecutorService executor = Executors.newFixedThreadPool(configPaths.length);
+        for (File configFile : configFiles) {
+            try {
+                PlcConfigurationLoader loader = new PlcConfigurationLoader(configFile.getPath());
+                System.out.println("Config loaded: PLC IP = " + loader.getPlcIp() + ", Port = " + loader.getPlcPort());
+                RFC1006TSAPHandler handler = new RFC1006TSAPHandler(loader.getPlcIp(), loader.getPlcPort(),
+                        loader.getLogger(), loader.getLogPrefix(), loader.gettsap(), loader.getremoteTsap());
+                handler.setJournal(TelegramJournal.open(loader.getConnectionName()));
+                engine.register(handler);
+            } catch (Exception e) {
+                System.err.println("Skipping " + configFile.getName() + ": " + e.getMessage());
+            }
+        }
 
-        for (String configPath : configPaths) {
-            PlcCommunicationTask task = new PlcCommunicationTask(configPath);
-            executor.submit(task);
+        // Live tuning through JMX: CSC_SAC:type=PlcConnection,name=... and CSC_SAC:type=Application
+        PlcConnectionControl.registerAll(engine);
+        ApplicationControl.register();
+
+        PlcStatusServer statusServer = null;
+        try {
+            statusServer = PlcStatusServer.startFromSettings(engine);
+        } catch (NoClassDefFoundError e) {
+            System.err.println("❌ Status endpoint not started, NanoHTTPD missing from the classpath: " + e.getMessage());
         }
+        // One trigger server (START_SENDING) for all PLCs, table loaded and encoded once per trigger
+        TableBroadcastService broadcast = TableBroadcastService.startFromSettings(engine);
+        if (statusServer != null) statusServer.setBroadcastService(broadcast);
+        PlcStatusServer status = statusServer;
 
         // Shutdown hook for cleanup
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("Shutting down all PLC handlers...");
-            executor.shutdownNow();
+            if (status != null) status.stop();
+            if (broadcast != null) broadcast.stop();
+            engine.shutdown();
+            BSMIndex.getInstance().shutdown();
+            TelegramWriteBehind.getInstance().shutdown();
+            ScanLatencyMetrics.getInstance().shutdown();
         }));
 
         // 🟡 Prevent the main thread from exiting immediately
@@ -0,0 +1,148 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : PlcConnectionControl Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMX view of one RFC1006TSAPHandler
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Reconnect backoff cap and failure count instead of the fixed delay
+
+
+package rfc;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import platform.core.log.LogLevel;
+import platform.core.metrics.ScanLatencyMetrics;
+
+/**
+ * Live tuning of one PLC connection through JMX (jconsole, VisualVM, ...).
+ * Every attribute is a volatile field of the handler, so a change is picked up
+ * by the next telegram or timer without locking the event loop.
+ */
+public class PlcConnectionControl implements PlcConnectionControlMBean {
+
+    static final String DOMAIN = "CSC_SAC";
+
+    private final RFC1006TSAPHandler handler;
+
+    public PlcConnectionControl(RFC1006TSAPHandler handler) {
+        this.handler = handler;
+    }
+
+    /** Registers an MBean for every connection of the engine; failures are logged and skipped. */
+    public static void registerAll(RFC1006SelectorEngine engine) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (RFC1006TSAPHandler handler : engine.getHandlers()) {
+            PlcConnectionControl control = new PlcConnectionControl(handler);
+            try {
+                server.registerMBean(control, new ObjectName(DOMAIN + ":type=PlcConnection,name="
+                        + ObjectName.quote(control.getConnectionName())));
+            } catch (JMException e) {
+                System.err.println("❌ JMX registration failed for " + control.getConnectionName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String getConnectionName() {
+        return ScanLatencyMetrics.connectionOf(handler.getLogPrefix());
+    }
+
+    @Override
+    public String getPlcAddress() {
+        return handler.getPlcAddress();
+    }
+
+    @Override
+    public String getState() {
+        return handler.getState();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return handler.isConnectionAlive();
+    }
+
+    @Override
+    public long getLastReceivedTime() {
+        return handler.getLastReceivedTime();
+    }
+
+    @Override
+    public long getLastSentTime() {
+        return handler.getLastSentTime();
+    }
+
+    @Override
+    public long getTelegramsReceived() {
+        return handler.getTelegramDispatcher().getCounters().getTotalReceived();
+    }
+
+    @Override
+    public long getTransmitTimeoutMillis() {
+        return handler.getTransmitTimeout();
+    }
+
+    @Override
+    public void setTransmitTimeoutMillis(long millis) {
+        handler.setTransmitTimeout(millis);
+        audit("transmit timeout", millis + " ms");
+    }
+
+    @Override
+    public long getReceiveTimeoutMillis() {
+        return handler.getReceiveTimeout();
+    }
+
+    @Override
+    public void setReceiveTimeoutMillis(long millis) {
+        handler.setReceiveTimeout(millis);
+        audit("receive timeout", millis + " ms");
+    }
+
+    @Override
+    public long getReconnectMaxDelayMillis() {
+        return handler.getReconnectMaxDelay();
+    }
+
+    @Override
+    public void setReconnectMaxDelayMillis(long millis) {
+        handler.setReconnectMaxDelay(millis);
+        audit("reconnect backoff cap", millis + " ms");
+    }
+
+    @Override
+    public int getReconnectFailures() {
+        return handler.getReconnectFailures();
+    }
+
+    @Override
+    public String getLogLevel() {
+        return handler.getLog().getLevel().name();
+    }
+
+    @Override
+    public void setLogLevel(String level) {
+        LogLevel parsed = LogLevel.valueOf(level.trim().toUpperCase()); // unknown names go back to the JMX client
+        handler.getLog().setLevel(parsed);
+        audit("log level", parsed.name());
+    }
+
+    @Override
+    public void forceReconnect() {
+        handler.forceReconnect();
+    }
+
+    private void audit(String what, String value) {
+        handler.getLog().warn(handler.getLogPrefix(), "🔧 " + what + " set to " + value + " via JMX");
+    }
+}
@@ -0,0 +1,62 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : PlcConnectionControlMBean Interface
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : JMX management interface of one PLC connection
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Reconnect backoff cap and failure count instead of the fixed delay
+
+
+package rfc;
+
+/**
+ * Registered as <code>CSC_SAC:type=PlcConnection,name=&lt;connection&gt;</code>.
+ * Setters take effect without a restart; values are not written back to the
+ * config files.
+ */
+public interface PlcConnectionControlMBean {
+
+    String getConnectionName();
+
+    String getPlcAddress();
+
+    /** DISCONNECTED, CONNECTING, CR_SENT, READY or ONLINE. */
+    String getState();
+
+    boolean isConnected();
+
+    long getLastReceivedTime();
+
+    long getLastSentTime();
+
+    long getTelegramsReceived();
+
+    long getTransmitTimeoutMillis();
+
+    void setTransmitTimeoutMillis(long millis);
+
+    long getReceiveTimeoutMillis();
+
+    void setReceiveTimeoutMillis(long millis);
+
+    /** Cap of the exponential reconnect backoff. */
+    long getReconnectMaxDelayMillis();
+
+    void setReconnectMaxDelayMillis(long millis);
+
+    /** Failed connection attempts since the link was last stable. */
+    int getReconnectFailures();
+
+    /** DEBUG, INFO, WARN or ERROR. */
+    String getLogLevel();
+
+    void setLogLevel(String level);
+
+    /** Drops the link and connects again immediately. */
+    void forceReconnect();
+}
@@ -1,9 +1,492 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : PlcStatusServer Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : HTTP status and metrics endpoint (NanoHTTPD)
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Prometheus /metrics and JSON /status on NanoHTTPD
+//01.02    2026.10.18    Giresh         Outbound telegrams in flight, retransmits, losses and ACK round trip
+//01.03    2026.10.18    Giresh         Airline table download progress in /status
+//01.04    2026.10.18    Giresh         Airline table sync: confirmed flag, skipped triggers, compare time
+//01.05    2026.10.18    Giresh         Last airline table broadcast in /status, download progress in /metrics
+//01.06    2026.10.18    Giresh         Airline table alarm in /status and /metrics
+//01.07    2026.10.18    Giresh         Untracked and duplicate ACKs reported separately
+//01.08    2026.10.18    Giresh         Connection state as csc_connection_state gauge, not a label of csc_connection_up
+//01.09    2026.10.18    Giresh         Dead-lettered scanner telegrams in /status and /metrics
+//01.10    2026.10.18    Giresh         Scan latency help text: measured to the socket write
+//01.11    2026.10.18    Giresh         Bound to 127.0.0.1 unless status.host says otherwise
+
+
 package rfc;
 
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import conveyorinterface.plctelegrams.AirlineTableDownload;
+import conveyorinterface.plctelegrams.TelegramDispatcher;
+import fi.iki.elonen.NanoHTTPD;
+import platform.core.Repository.TelegramWriteBehind;
+import platform.core.config.AppSettings;
+import platform.core.metrics.ScanLatencyMetrics;
+import platform.core.metrics.TelegramCounters;
+import platform.core.util.ConnectionPool;
+import platform.core.util.DBConnection;
+import platform.core.util.LatencyHistogram;
+import platform.io.telegraph.InFlightTable;
+
+/**
+ * Small embedded HTTP endpoint for monitoring:
+ * <ul>
+ *   <li><code>GET /metrics</code> - Prometheus text format 0.0.4</li>
+ *   <li><code>GET /status</code>  - the same figures as JSON</li>
+ * </ul>
+ * Per connection: state, last send/receive time, received telegrams per TT,
+ * keep-alives and ACKs, outbound telegrams awaiting ACK with their round trip
+ * and losses; scan to destination latency per scanner; ring depth
+ * per event loop; write-behind queue and spool; DB pool.
+ * <p>
+ * Every value is read from volatile fields or atomic counters the dispatch
+ * path already maintains, so a scrape never takes a lock the telegram
+ * handling could wait on. Enabled with <code>status.port</code> (0 = off).
+ * There is no authentication, so it listens on <code>127.0.0.1</code> unless
+ * <code>status.host</code> names another interface.
+ */
+public class PlcStatusServer extends NanoHTTPD {
+
+    private static final String PROMETHEUS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final RFC1006SelectorEngine engine;
+    private volatile TableBroadcastService broadcast;
+
+    public PlcStatusServer(String host, int port, RFC1006SelectorEngine engine) {
+        super(host, port);
+        this.engine = engine;
+    }
+
+    /**
+     * Starts the endpoint configured in csc.properties.
+     *
+     * @return the running server, or null when disabled or the port is taken
+     */
+    public static PlcStatusServer startFromSettings(RFC1006SelectorEngine engine) {
+        int port = AppSettings.getInt("status.port", 8085);
+        if (port <= 0) return null;
+        String host = AppSettings.getString("status.host", "127.0.0.1");
+        PlcStatusServer server = new PlcStatusServer(host, port, engine);
+        try {
+            server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, true);
+            System.out.println("📊 Status endpoint on http://" + host + ":" + port + "/metrics and /status");
+            return server;
+        } catch (IOException e) {
+            System.err.println("❌ Status endpoint not started on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Adds the last airline table broadcast to /status. */
+    public void setBroadcastService(TableBroadcastService broadcast) {
+        this.broadcast = broadcast;
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+        if (session.getMethod() != Method.GET) {
+            return newFixedLengthResponse(Response.Status.METHOD_NOT_ALLOWED, MIME_PLAINTEXT, "GET only\n");
+        }
+        switch (session.getUri()) {
+            case "/metrics":
+                return newFixedLengthResponse(Response.Status.OK, PROMETHEUS_TYPE, renderPrometheus());
+            case "/status":
+                return newFixedLengthResponse(Response.Status.OK, JSON_TYPE, renderJson());
+            case "/":
+                return newFixedLengthResponse(Response.Status.OK, MIME_PLAINTEXT, "CSC_SAC: /metrics /status\n");
+            default:
+                return newFixedLengthResponse(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "Not found\n");
+        }
+    }
+
+    // === Prometheus text format ===
+
+    String renderPrometheus() {
+        StringBuilder sb = new StringBuilder(8192);
+        List<RFC1006TSAPHandler> handlers = engine.getHandlers();
+
+        // === Step 1: Connections ===
+        header(sb, "csc_connection_up", "gauge", "1 when the PLC connection is ONLINE");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_connection_up", "connection=\"" + connection(h) + "\",plc=\"" + h.getPlcAddress() + "\"",
+                    h.isConnectionAlive() ? 1 : 0);
+        }
+        // one series per state with a fixed label set, so a state change does not leave stale series behind
+        header(sb, "csc_connection_state", "gauge", "1 for the current state of the PLC connection, 0 for the others");
+        for (RFC1006TSAPHandler h : handlers) {
+            String current = h.getState();
+            for (ConnectionState st : ConnectionState.values()) {
+                sample(sb, "csc_connection_state", connectionLabel(h) + ",state=\"" + st.name() + "\"",
+                        st.name().equals(current) ? 1 : 0);
+            }
+        }
+        header(sb, "csc_connection_last_receive_timestamp_seconds", "gauge", "Last byte received from the PLC");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_connection_last_receive_timestamp_seconds", connectionLabel(h), h.getLastReceivedTime() / 1000.0);
+        }
+        header(sb, "csc_connection_last_send_timestamp_seconds", "gauge", "Last telegram written to the PLC");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_connection_last_send_timestamp_seconds", connectionLabel(h), h.getLastSentTime() / 1000.0);
+        }
+
+        // === Step 2: Telegram counts ===
+        header(sb, "csc_telegrams_received_total", "counter", "Telegrams received per telegram type (tt=other above 255)");
+        for (RFC1006TSAPHandler h : handlers) {
+            TelegramDispatcher d = h.getTelegramDispatcher();
+            String conn = connection(h);
+            d.getCounters().forEach((tt, n) -> sample(sb, "csc_telegrams_received_total",
+                    "connection=\"" + conn + "\",tt=\"" + typeLabel(tt) + "\",name=\"" + typeName(d, tt) + "\"", n));
+        }
+        header(sb, "csc_keepalives_received_total", "counter", "Keep-alive frames received");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_keepalives_received_total", connectionLabel(h), h.getTelegramDispatcher().getCounters().getKeepAlives());
+        }
+        header(sb, "csc_acks_sent_total", "counter", "ACK (TT 102) telegrams sent");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_acks_sent_total", connectionLabel(h), h.getTelegramDispatcher().getCounters().getAcksSent());
+        }
+        header(sb, "csc_outbound_in_flight", "gauge", "Telegrams sent to the PLC and not yet acknowledged");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_in_flight", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getInFlight());
+        }
+        header(sb, "csc_outbound_sent_total", "counter", "Telegrams sent that expect an ACK");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_sent_total", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getSent());
+        }
+        header(sb, "csc_outbound_retransmits_total", "counter", "Telegrams sent again after the ACK timeout");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_retransmits_total", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getRetransmitted());
+        }
+        header(sb, "csc_outbound_lost_total", "counter", "Telegrams never acknowledged (retries exhausted or link closed)");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_lost_total", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getLost());
+        }
+        header(sb, "csc_outbound_untracked_acks_total", "counter", "ACKs for telegrams that are not tracked (destination replies, keep-alives)");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_untracked_acks_total", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getUntrackedAcks());
+        }
+        header(sb, "csc_outbound_duplicate_acks_total", "counter", "ACKs for a tracked telegram already acknowledged or given up on");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_outbound_duplicate_acks_total", connectionLabel(h), h.getTelegramDispatcher().getInFlight().getDuplicateAcks());
+        }
+        header(sb, "csc_outbound_ack_rtt_seconds", "summary", "Telegram written to ACK received, first transmissions only");
+        for (RFC1006TSAPHandler h : handlers) {
+            LatencyHistogram rtt = h.getTelegramDispatcher().getInFlight().getAckRtt();
+            String labels = connectionLabel(h);
+            sample(sb, "csc_outbound_ack_rtt_seconds", labels + ",quantile=\"0.5\"", seconds(rtt.getValueAtPercentile(50)));
+            sample(sb, "csc_outbound_ack_rtt_seconds", labels + ",quantile=\"0.99\"", seconds(rtt.getValueAtPercentile(99)));
+            sample(sb, "csc_outbound_ack_rtt_seconds_sum", labels, seconds(rtt.getTotalNanos()));
+            sample(sb, "csc_outbound_ack_rtt_seconds_count", labels, rtt.getCount());
+        }
+        header(sb, "csc_airline_table_entries_sent", "gauge", "Entries of the current or last airline table download sent");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_airline_table_entries_sent", connectionLabel(h), h.getTelegramDispatcher().getAirlineTableDownload().getEntriesSent());
+        }
+        header(sb, "csc_airline_table_entries_total", "gauge", "Entries of the current or last airline table download");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_airline_table_entries_total", connectionLabel(h), h.getTelegramDispatcher().getAirlineTableDownload().getEntriesTotal());
+        }
+        header(sb, "csc_airline_table_confirmed", "gauge", "1 when the PLC confirmed the current airline table (TT 161)");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_airline_table_confirmed", connectionLabel(h), h.getTelegramDispatcher().getAirlineTableDownload().isPlcTableConfirmed() ? 1 : 0);
+        }
+        header(sb, "csc_airline_table_alarm", "gauge", "1 when every airline table download attempt failed, until one completes");
+        for (RFC1006TSAPHandler h : handlers) {
+            sample(sb, "csc_airline_table_alarm", connectionLabel(h), h.getTelegramDispatcher().getAirlineTableDownload().isAlarm() ? 1 : 0);
+        }
+
+        // === Step 3: Scan to destination latency (quantiles over the window, count/sum since start) ===
+        ScanLatencyMetrics latency = ScanLatencyMetrics.getInstance();
+        header(sb, "csc_scan_to_destination_seconds", "summary",
+                "Scanner result read to destination telegram written to the socket, quantiles over the last "
+                        + latency.getWindowSeconds() + "s");
+        for (ScanLatencyMetrics.Entry e : latency.getEntries()) {
+            String labels = "connection=\"" + e.getConnection() + "\",scanner=\"" + e.getScannerNumber()
+                    + "\",scanner_name=\"" + escape(e.getScannerName()) + "\"";
+            LatencyHistogram window = e.getWindow();
+            sample(sb, "csc_scan_to_destination_seconds", labels + ",quantile=\"0.5\"", seconds(window.getValueAtPercentile(50)));
+            sample(sb, "csc_scan_to_destination_seconds", labels + ",quantile=\"0.99\"", seconds(window.getValueAtPercentile(99)));
+            sample(sb, "csc_scan_to_destination_seconds", labels + ",quantile=\"0.999\"", seconds(window.getValueAtPercentile(99.9)));
+            sample(sb, "csc_scan_to_destination_seconds_sum", labels, seconds(e.getTotal().getTotalNanos()));
+            sample(sb, "csc_scan_to_destination_seconds_count", labels, e.getTotal().getCount());
+        }
+        header(sb, "csc_scan_to_destination_max_seconds", "gauge", "Slowest scan to destination in the window");
+        for (ScanLatencyMetrics.Entry e : latency.getEntries()) {
+            sample(sb, "csc_scan_to_destination_max_seconds", "connection=\"" + e.getConnection()
+                    + "\",scanner=\"" + e.getScannerNumber() + "\"", seconds(e.getWindow().getMax()));
+        }
+
+        // === Step 4: Processing rings ===
+        List<TelegramProcessor> processors = engine.getProcessors();
+        header(sb, "csc_pipeline_ring_depth", "gauge", "Telegrams waiting in the processing ring");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_ring_depth", processorLabel(p), p.getDepth());
+        header(sb, "csc_pipeline_ring_max_depth", "gauge", "Highest ring depth seen");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_ring_max_depth", processorLabel(p), p.getMaxDepth());
+        header(sb, "csc_pipeline_ring_capacity", "gauge", "Ring slots");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_ring_capacity", processorLabel(p), p.getCapacity());
+        header(sb, "csc_pipeline_processed_total", "counter", "Telegrams handled by the processor");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_processed_total", processorLabel(p), p.getProcessedCount());
+        header(sb, "csc_pipeline_rejected_total", "counter", "Times a connection found the ring full");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_rejected_total", processorLabel(p), p.getRejectedCount());
+        header(sb, "csc_pipeline_read_paused_seconds_total", "counter", "Time connections stopped reading for backpressure");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_read_paused_seconds_total", processorLabel(p), p.getReadPausedMillis() / 1000.0);
+        header(sb, "csc_pipeline_stale_dropped_total", "counter", "Frames skipped because their connection was closed");
+        for (TelegramProcessor p : processors) sample(sb, "csc_pipeline_stale_dropped_total", processorLabel(p), p.getStaleDroppedCount());
+
+        // === Step 5: Write-behind and spool ===
+        TelegramWriteBehind wb = TelegramWriteBehind.getInstance();
+        gauge(sb, "csc_persist_queue_depth", "Scanner telegrams waiting for the database", wb.getQueueDepth());
+        gauge(sb, "csc_persist_queue_capacity", "Write-behind queue capacity", wb.getQueueCapacity());
+        counter(sb, "csc_persist_submitted_total", "Scanner telegrams queued", wb.getSubmittedCount());
+        counter(sb, "csc_persist_written_total", "Scanner telegrams written", wb.getWrittenCount());
+        counter(sb, "csc_persist_failed_total", "Scanner telegrams the database refused", wb.getFailedCount());
+        counter(sb, "csc_persist_dropped_total", "Scanner telegrams dropped, queue full", wb.getDroppedCount());
+        counter(sb, "csc_persist_dead_lettered_total", "Scanner telegrams the database refused, written to the dead-letter file", wb.getDeadLetteredCount());
+        gauge(sb, "csc_spool_pending", "Records spooled to disk and not yet written", wb.getSpoolPending());
+        gauge(sb, "csc_spool_disk_bytes", "Disk used by the spool", wb.getSpoolDiskBytes());
+
+        // === Step 6: DB pool (absent while the database is not configured) ===
+        ConnectionPool pool = pool();
+        if (pool != null) {
+            gauge(sb, "csc_db_pool_active", "Connections handed out", pool.getActiveCount());
+            gauge(sb, "csc_db_pool_waiting", "Callers waiting for a connection", pool.getWaitingCount());
+            gauge(sb, "csc_db_pool_max", "Pool size limit", pool.getMaxSize());
+            counter(sb, "csc_db_pool_borrowed_total", "Connections borrowed", pool.getBorrowCount());
+            counter(sb, "csc_db_pool_created_total", "Physical connections opened", pool.getCreatedCount());
+            counter(sb, "csc_db_pool_replaced_total", "Dead connections replaced", pool.getReplacedCount());
+            counter(sb, "csc_db_pool_timeouts_total", "Borrows that timed out", pool.getTimeoutCount());
+            gauge(sb, "csc_db_pool_wait_max_seconds", "Longest wait for a connection", pool.getMaxWaitMillis() / 1000.0);
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) sb.append((long) value);
+        else sb.append(String.format(Locale.ROOT, "%.6f", value));
+        sb.append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        header(sb, name, "gauge", help);
+        sample(sb, name, "", value);
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, double value) {
+        header(sb, name, "counter", help);
+        sample(sb, name, "", value);
+    }
+
+    private static String connectionLabel(RFC1006TSAPHandler h) {
+        return "connection=\"" + connection(h) + "\"";
+    }
+
+    private static String processorLabel(TelegramProcessor p) {
+        return "processor=\"" + p.getName() + "\"";
+    }
+
+    // === JSON ===
+
+    String renderJson() {
+        StringBuilder sb = new StringBuilder(8192);
+        sb.append("{\"time\":").append(System.currentTimeMillis());
+
+        // === Step 1: Connections with their telegram counts ===
+        sb.append(",\"connections\":[");
+        boolean first = true;
+        for (RFC1006TSAPHandler h : engine.getHandlers()) {
+            if (!first) sb.append(',');
+            first = false;
+            TelegramDispatcher d = h.getTelegramDispatcher();
+            TelegramCounters c = d.getCounters();
+            sb.append("{\"name\":\"").append(connection(h)).append('"')
+              .append(",\"plc\":\"").append(h.getPlcAddress()).append('"')
+              .append(",\"state\":\"").append(h.getState()).append('"')
+              .append(",\"connected\":").append(h.isConnectionAlive())
+              .append(",\"lastReceived\":").append(h.getLastReceivedTime())
+              .append(",\"lastSent\":").append(h.getLastSentTime())
+              .append(",\"keepAlives\":").append(c.getKeepAlives())
+              .append(",\"acksSent\":").append(c.getAcksSent());
+            InFlightTable f = d.getInFlight();
+            LatencyHistogram rtt = f.getAckRtt();
+            sb.append(",\"outbound\":{\"inFlight\":").append(f.getInFlight())
+              .append(",\"sent\":").append(f.getSent())
+              .append(",\"acked\":").append(f.getAcked())
+              .append(",\"retransmits\":").append(f.getRetransmitted())
+              .append(",\"lost\":").append(f.getLost())
+              .append(",\"untrackedAcks\":").append(f.getUntrackedAcks())
+              .append(",\"duplicateAcks\":").append(f.getDuplicateAcks())
+              .append(",\"lossRate\":").append(String.format(Locale.ROOT, "%.4f", f.getLossRate()))
+              .append(",\"ackRttP50Ms\":").append(millis(rtt.getValueAtPercentile(50)))
+              .append(",\"ackRttP99Ms\":").append(millis(rtt.getValueAtPercentile(99)))
+              .append(",\"ackRttMaxMs\":").append(millis(rtt.getMax()))
+              .append('}');
+            AirlineTableDownload dl = d.getAirlineTableDownload();
+            sb.append(",\"airlineTable\":{\"state\":\"").append(dl.getState()).append('"')
+              .append(",\"attempt\":").append(dl.getAttempt())
+              .append(",\"entriesSent\":").append(dl.getEntriesSent())
+              .append(",\"entriesTotal\":").append(dl.getEntriesTotal())
+              .append(",\"lastDurationMs\":").append(dl.getLastDurationMillis())
+              .append(",\"plcConfirmed\":").append(dl.isPlcTableConfirmed())
+              .append(",\"alarm\":").append(dl.isAlarm())
+              .append(",\"alarmSince\":").append(dl.getAlarmSince())
+              .append(",\"skippedSyncs\":").append(dl.getSkippedSyncs())
+              .append(",\"lastSyncCheckUs\":").append(dl.getLastSyncCheckMicros())
+              .append('}')
+              .append(",\"telegrams\":[");
+            int mark = sb.length();
+            c.forEach((tt, n) -> {
+                if (sb.length() > mark) sb.append(',');
+                sb.append("{\"tt\":\"").append(typeLabel(tt)).append("\",\"name\":\"").append(typeName(d, tt))
+                  .append("\",\"count\":").append(n).append('}');
+            });
+            sb.append("]}");
+        }
+        sb.append(']');
+
+        // === Step 2: Scan latency ===
+        ScanLatencyMetrics latency = ScanLatencyMetrics.getInstance();
+        sb.append(",\"scanLatency\":{\"windowSeconds\":").append(latency.getWindowSeconds()).append(",\"scanners\":[");
+        first = true;
+        for (ScanLatencyMetrics.Entry e : latency.getEntries()) {
+            if (!first) sb.append(',');
+            first = false;
+            LatencyHistogram w = e.getWindow();
+            sb.append("{\"connection\":\"").append(e.getConnection()).append('"')
+              .append(",\"scanner\":").append(e.getScannerNumber())
+              .append(",\"scannerName\":\"").append(escape(e.getScannerName())).append('"')
+              .append(",\"count\":").append(w.getCount())
+              .append(",\"p50Ms\":").append(millis(w.getValueAtPercentile(50)))
+              .append(",\"p99Ms\":").append(millis(w.getValueAtPercentile(99)))
+              .append(",\"p999Ms\":").append(millis(w.getValueAtPercentile(99.9)))
+              .append(",\"maxMs\":").append(millis(w.getMax()))
+              .append(",\"totalCount\":").append(e.getTotal().getCount())
+              .append('}');
+        }
+        sb.append("]}");
+
+        // === Step 3: Queues ===
+        sb.append(",\"pipeline\":[");
+        first = true;
+        for (TelegramProcessor p : engine.getProcessors()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"processor\":\"").append(p.getName()).append('"')
+              .append(",\"depth\":").append(p.getDepth())
+              .append(",\"maxDepth\":").append(p.getMaxDepth())
+              .append(",\"capacity\":").append(p.getCapacity())
+              .append(",\"processed\":").append(p.getProcessedCount())
+              .append(",\"rejected\":").append(p.getRejectedCount())
+              .append(",\"readPausedMillis\":").append(p.getReadPausedMillis())
+              .append(",\"staleDropped\":").append(p.getStaleDroppedCount())
+              .append('}');
+        }
+        sb.append(']');
+
+        TelegramWriteBehind wb = TelegramWriteBehind.getInstance();
+        sb.append(",\"persist\":{\"queueDepth\":").append(wb.getQueueDepth())
+          .append(",\"queueCapacity\":").append(wb.getQueueCapacity())
+          .append(",\"submitted\":").append(wb.getSubmittedCount())
+          .append(",\"written\":").append(wb.getWrittenCount())
+          .append(",\"failed\":").append(wb.getFailedCount())
+          .append(",\"dropped\":").append(wb.getDroppedCount())
+          .append(",\"deadLettered\":").append(wb.getDeadLetteredCount())
+          .append(",\"spoolPending\":").append(wb.getSpoolPending())
+          .append(",\"spoolDiskBytes\":").append(wb.getSpoolDiskBytes())
+          .append('}');
+
+        // === Step 4: DB pool ===
+        ConnectionPool pool = pool();
+        sb.append(",\"dbPool\":");
+        if (pool == null) {
+            sb.append("null");
+        } else {
+            sb.append("{\"active\":").append(pool.getActiveCount())
+              .append(",\"waiting\":").append(pool.getWaitingCount())
+              .append(",\"max\":").append(pool.getMaxSize())
+              .append(",\"borrowed\":").append(pool.getBorrowCount())
+              .append(",\"created\":").append(pool.getCreatedCount())
+              .append(",\"replaced\":").append(pool.getReplacedCount())
+              .append(",\"timeouts\":").append(pool.getTimeoutCount())
+              .append(",\"maxWaitMillis\":").append(pool.getMaxWaitMillis())
+              .append('}');
+        }
+
+        // === Step 5: Last airline table broadcast (per PLC progress is under connections) ===
+        TableBroadcastService bc = broadcast;
+        sb.append(",\"broadcast\":");
+        if (bc == null) {
+            sb.append("null");
+        } else {
+            sb.append("{\"running\":").append(bc.isRunning())
+              .append(",\"lastTrigger\":").append(bc.getLastTriggerTime())
+              .append(",\"entries\":").append(bc.getLastEntryCount())
+              .append(",\"blockBytes\":").append(bc.getLastBlockBytes())
+              .append(",\"encodeUs\":").append(bc.getLastEncodeMicros())
+              .append(",\"targets\":").append(bc.getLastTargets())
+              .append(",\"durationMs\":").append(bc.getLastDurationMillis())
+              .append('}');
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    // === Helpers ===
+
+    private static String connection(RFC1006TSAPHandler h) {
+        return ScanLatencyMetrics.connectionOf(h.getLogPrefix());
+    }
+
+    private static String typeLabel(int tt) {
+        return tt == TelegramCounters.OTHER ? "other" : Integer.toString(tt);
+    }
+
+    private static String typeName(TelegramDispatcher d, int tt) {
+        String name = tt == TelegramCounters.OTHER ? null : d.getTelegramName(tt);
+        return name == null ? "" : escape(name);
+    }
+
+    /** DBConnection fails to initialise without config/db.properties; report no pool then. */
+    private static ConnectionPool pool() {
+        try {
+            return DBConnection.getPool();
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
 
-public class PlcStatusServer  {
+    /** Escapes quotes and backslashes; safe for both label values and JSON strings. */
+    private static String escape(String s) {
+        if (s == null) return "";
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
 
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
 
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
 }
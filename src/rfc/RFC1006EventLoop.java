@@ -0,0 +1,203 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RFC1006EventLoop Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Selector thread multiplexing many RFC1006 connections
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         TelegramProcessor stage, read pause/resume for backpressure
+
+
+package rfc;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One selector thread. Every {@link RFC1006TSAPHandler} registered here is only
+ * ever touched from this thread; other threads hand work over with
+ * {@link #execute(Runnable)} or {@link #schedule(Runnable, long)}.
+ */
+public class RFC1006EventLoop implements Runnable {
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<ScheduledTask> timers = new PriorityQueue<>();
+    private final List<RFC1006TSAPHandler> pausedReaders = new ArrayList<>();
+    private final TelegramProcessor processor;
+    private volatile boolean running;
+    private Thread thread;
+    private long timerSequence;
+
+    public RFC1006EventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.processor = new TelegramProcessor(name + "-Processor", this);
+    }
+
+    public void start() {
+        processor.start();
+        running = true;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+        processor.shutdown();
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    Selector selector() {
+        return selector;
+    }
+
+    /** Processing stage fed by the connections of this loop. */
+    public TelegramProcessor processor() {
+        return processor;
+    }
+
+    /** Remembers a connection that stopped reading because the ring was full. Loop thread only. */
+    void pauseReader(RFC1006TSAPHandler handler) {
+        if (!pausedReaders.contains(handler)) {
+            pausedReaders.add(handler);
+        }
+    }
+
+    /** Called once the processor has freed ring space. Loop thread only. */
+    void resumePausedReaders() {
+        if (pausedReaders.isEmpty()) return;
+        List<RFC1006TSAPHandler> resume = new ArrayList<>(pausedReaders);
+        pausedReaders.clear();
+        for (RFC1006TSAPHandler handler : resume) {
+            handler.resumeReading(); // may pause again if the ring fills up right away
+        }
+    }
+
+    /** Runs the task on the loop thread (inline when already on it). */
+    public void execute(Runnable task) {
+        if (inEventLoop()) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /** Runs the task on the loop thread after the given delay. */
+    public void schedule(Runnable task, long delayMillis) {
+        long deadline = System.nanoTime() + delayMillis * 1_000_000L;
+        execute(() -> timers.add(new ScheduledTask(deadline, timerSequence++, task)));
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(nextTimeoutMillis());
+                processSelectedKeys();
+                runTasks();
+                runDueTimers();
+            } catch (Exception e) {
+                System.err.println(name + " event loop error: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof RFC1006TSAPHandler) {
+                ((RFC1006TSAPHandler) attachment).closeChannel();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println(name + " failed to close selector: " + e.getMessage());
+        }
+    }
+
+    private long nextTimeoutMillis() {
+        if (!tasks.isEmpty()) return 1;
+        ScheduledTask next = timers.peek();
+        if (next == null) return 0; // block until woken up
+        long waitMillis = (next.deadline - System.nanoTime()) / 1_000_000L;
+        return Math.max(1, waitMillis);
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            RFC1006TSAPHandler handler = (RFC1006TSAPHandler) key.attachment();
+            try {
+                if (!key.isValid()) continue;
+                if (key.isConnectable()) handler.onConnectable();
+                if (key.isValid() && key.isReadable()) handler.onReadable();
+                if (key.isValid() && key.isWritable()) handler.onWritable();
+            } catch (CancelledKeyException e) {
+                // connection was closed while handling an earlier event
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println(name + " task failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void runDueTimers() {
+        long now = System.nanoTime();
+        while (!timers.isEmpty() && timers.peek().deadline - now <= 0) {
+            try {
+                timers.poll().task.run();
+            } catch (Exception e) {
+                System.err.println(name + " timer failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+        final long deadline;
+        final long sequence;
+        final Runnable task;
+
+        ScheduledTask(long deadline, long sequence, Runnable task) {
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int cmp = Long.compare(deadline - other.deadline, 0);
+            return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+        }
+    }
+}
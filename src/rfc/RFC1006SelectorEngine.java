@@ -0,0 +1,88 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : RFC1006SelectorEngine Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Non-blocking multi-PLC connection engine
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         getProcessors() for the status endpoint
+//01.02    2026.10.18    Giresh         Shared KeepAliveManager for all registered connections
+
+
+package rfc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import platform.core.config.AppSettings;
+
+/**
+ * Owns a small, fixed set of {@link RFC1006EventLoop}s and spreads the PLC
+ * connections over them round-robin, so 40+ channels share a handful of threads
+ * instead of one blocking socket thread (plus helpers) per PLC.
+ */
+public class RFC1006SelectorEngine {
+
+    private final RFC1006EventLoop[] loops;
+    private final List<RFC1006TSAPHandler> handlers = new CopyOnWriteArrayList<>();
+    private final KeepAliveManager keepAliveManager = new KeepAliveManager(handlers);
+    private int next;
+
+    public RFC1006SelectorEngine() throws IOException {
+        this(AppSettings.getInt("engine.eventLoops",
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()))));
+    }
+
+    public RFC1006SelectorEngine(int eventLoops) throws IOException {
+        loops = new RFC1006EventLoop[Math.max(1, eventLoops)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new RFC1006EventLoop("RFC1006-EventLoop-" + (i + 1));
+        }
+    }
+
+    public void start() {
+        for (RFC1006EventLoop loop : loops) {
+            loop.start();
+        }
+        keepAliveManager.start();
+        System.out.println("RFC1006 engine started with " + loops.length + " event loop(s)");
+    }
+
+    /** Assigns the handler to an event loop and starts connecting it. */
+    public synchronized void register(RFC1006TSAPHandler handler) {
+        RFC1006EventLoop loop = loops[next++ % loops.length];
+        handler.attach(loop);
+        handlers.add(handler);
+        handler.connect();
+    }
+
+    public List<RFC1006TSAPHandler> getHandlers() {
+        return Collections.unmodifiableList(handlers);
+    }
+
+    /** One telegram processor per event loop. */
+    public List<TelegramProcessor> getProcessors() {
+        List<TelegramProcessor> processors = new ArrayList<>(loops.length);
+        for (RFC1006EventLoop loop : loops) {
+            processors.add(loop.processor());
+        }
+        return processors;
+    }
+
+    public void shutdown() {
+        keepAliveManager.shutdown();
+        for (RFC1006TSAPHandler handler : handlers) {
+            handler.shutdown();
+        }
+        for (RFC1006EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
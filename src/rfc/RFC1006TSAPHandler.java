@@ -9,30 +9,85 @@
 // Rev.     Date         Programmer    Description                               
 // --------------------------------------------------------------------------------
 //01.00    2025.06.19    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Non-blocking SocketChannel driven by RFC1006EventLoop
+//01.02    2026.10.18    Giresh         Pooled direct receive buffer, frames decoded in place
+//01.03    2026.10.18    Giresh         ONLINE frames handed to the TelegramProcessor ring
+//01.04    2026.10.18    Giresh         Raw frames in and out recorded in the TelegramJournal
+//01.05    2026.10.18    Giresh         Socket read time handed to the processor for scan latency
+//01.06    2026.10.18    Giresh         State and telegram counters exposed for PlcStatusServer
+//01.07    2026.10.18    Giresh         Timeouts and reconnect delay adjustable at runtime, forceReconnect()
+//01.08    2026.10.18    Giresh         Idle keep-alive and dead peer detection driven by KeepAliveManager
+//01.09    2026.10.18    Giresh         Explicit ConnectionState transitions, reconnect with capped backoff and jitter
+//01.10    2026.10.18    Giresh         Unacknowledged table telegrams retransmitted from the link check
+//01.11    2026.10.18    Giresh         Batched writes journaled frame by frame
+//01.12    2026.10.18    Giresh         Confirmed airline table forgotten when the link goes down
+//01.13    2026.10.18    Giresh         No trigger server per connection, see TableBroadcastService
+//01.14    2026.10.18    Giresh         Hex dump of the sent telegram logged at DEBUG, built only when enabled
+//01.15    2026.10.18    Giresh         Write queue tagged with the session and cleared on connect, no stale bytes before the CR
+//01.16    2026.10.18    Giresh         Dispatcher writes only while ONLINE and for the frame's session; handshake on the loop stream
+//01.17    2026.10.18    Giresh         Airline table download bound to the ONLINE session
+//01.18    2026.10.18    Giresh         afterLastWrite(): action run once a queued write is in the socket
+
+
 
 
 package rfc;
 
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.IOException;
-import java.net.Socket;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import platform.core.config.AppSettings;
 import platform.core.log.Log;
-import platform.core.log.LogLevel;
+import platform.io.journal.TelegramJournal;
+import platform.io.telegraph.FrameUtil;
+import platform.io.telegraph.TelegramFrame;
+import platform.io.telegraph.TpktFrameDecoder;
 import conveyorinterface.frontend.TelegramSenderUI;
 import conveyorinterface.plctelegrams.ConnectedTlg;
 import conveyorinterface.plctelegrams.ReadyTlg;
 import conveyorinterface.plctelegrams.TelegramDispatcher;
 
 
+/**
+ * One RFC1006 (ISO-on-TCP) connection to a PLC. The socket is a non-blocking
+ * {@link SocketChannel} owned by a single {@link RFC1006EventLoop}; the
+ * CR / CC / CONNECTED / READY handshake is driven by the frames as they arrive
+ * instead of by blocking reads and sleeps.
+ */
 public class RFC1006TSAPHandler {
 
     private String plcIp;
     private int port;
-    private Socket socket;
-    private OutputStream outputStream;
-    private InputStream inputStream;
+    private SocketChannel channel;
+    private SelectionKey selectionKey;
+    private RFC1006EventLoop eventLoop;
+    /** Handed to the dispatcher: telegram handlers, table downloads and the UI write while ONLINE only. */
+    private final OutputStream outputStream = new ChannelOutputStream(this, false);
+    /** The event loop's own writes: handshake, keep-alive, retransmissions. */
+    private final OutputStream loopOutput = new ChannelOutputStream(this, true);
+    /** Session of the frame the processor thread is handling for this connection. */
+    private final ThreadLocal<Long> dispatchSession = new ThreadLocal<>();
+    private final Queue<OutboundWrite> writeQueue = new ConcurrentLinkedQueue<>();
+    private final TpktFrameDecoder frameDecoder = new TpktFrameDecoder();
+    private final TelegramFrame handshakeFrame = new TelegramFrame();
+    /** Changed on the event loop thread only, see {@link #moveTo}. */
+    private volatile ConnectionState state = ConnectionState.DISCONNECTED;
+    /** Incremented per socket, so frames queued before a reconnect can be recognised. */
+    private volatile long session;
+    private boolean readPaused;
+    private long readPausedSince;
+    private long lastReadNanos;
+    private volatile boolean shuttingDown = false;
 
     private Log log;
     private String logPrefix;
@@ -62,12 +117,21 @@ public class RFC1006TSAPHandler {
     static final int version = 1;
     private volatile long lastSentTime = System.currentTimeMillis();
     private volatile long lastReceivedTime = System.currentTimeMillis();
-    private final long transmitTimeout = 5000;
-    private final long receiveTimeout = 15000;
-    private Thread keepAliveMonitorThread;
-    private boolean monitorRunning = false;
+    private volatile long transmitTimeout = AppSettings.getLong("keepalive.transmitTimeoutMillis", 5000);
+    private volatile long receiveTimeout = AppSettings.getLong("keepalive.receiveTimeoutMillis", 15000);
+    /** Set when a keep-alive is queued, so a slow socket does not get one per tick. */
+    private volatile long keepAliveQueuedAt;
+    private final ReconnectBackoff backoff = new ReconnectBackoff();
+    /** A link must stay ONLINE this long before the next failure retries fast again. */
+    private final long stableOnlineMillis = AppSettings.getLong("reconnect.stableMillis", 10000);
+    private long onlineSince;
+    /** Bumped by every attempt; a reconnect timer from an older one does nothing. */
+    private long connectAttempt;
     protected int sequenceNo = 0;
-    private boolean connected = false;
+    private volatile boolean connected = false;
+    private TelegramDispatcher telegramDispatcher;
+    private boolean frontendStarted = false;
+    private volatile TelegramJournal journal;
 
     public RFC1006TSAPHandler(String plcIp, int port, Log log, String logPrefix , String tsap , String remoteTsap) {
         this.plcIp = plcIp;
@@ -76,193 +140,437 @@ public class RFC1006TSAPHandler {
         this.logPrefix = logPrefix;
         this._TSAP = tsap ;
         this._externalTSAP = remoteTsap;
+        this.telegramDispatcher = new TelegramDispatcher(outputStream, log, logPrefix);
+        telegramDispatcher.getAirlineTableDownload().setLinkSession(
+                () -> state == ConnectionState.ONLINE ? session : -1);
     }
 
-    public RFC1006TSAPHandler() {
-		// TODO Auto-generated constructor stub
-	}
+    /** Raw frames of this connection are recorded here; null for none. */
+    void setJournal(TelegramJournal journal) {
+        this.journal = journal;
+    }
 
-	public void connect() {
-        while (true) {
-            try {
-                log.info(logPrefix, "Attempting to connect to PLC at " + plcIp + ":" + port);
-                socket = new Socket(plcIp, port);
-                outputStream = socket.getOutputStream();
-                inputStream = socket.getInputStream();
-
-                log.info(logPrefix, "Connection to PLC successful.");
-                initializeConnectionSequence();
-                this.connected = true;
-                break;
+    /** Binds this connection to the event loop that will own its channel. */
+    void attach(RFC1006EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
 
-            } catch (IOException e) {
-                log.error(logPrefix, "Connection failed: " + e.getMessage());
-                waitBeforeRetry();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error(logPrefix, "Connection thread interrupted. Exiting...");
+    /** Starts a non-blocking connect; the handshake continues on the event loop. */
+    public void connect() {
+        if (eventLoop == null) {
+            throw new IllegalStateException("Handler is not registered with an RFC1006SelectorEngine");
+        }
+        eventLoop.execute(this::openChannel);
+    }
+
+    private void openChannel() {
+        if (shuttingDown || state != ConnectionState.DISCONNECTED) return;
+        connectAttempt++;
+        try {
+            log.info(logPrefix, "Attempting to connect to PLC at " + plcIp + ":" + port);
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            frameDecoder.open();
+            writeQueue.clear(); // nothing of the previous socket may go out before the CR
+            session++;
+            readPaused = false;
+            moveTo(ConnectionState.CONNECTING);
+            boolean connectedNow = channel.connect(new InetSocketAddress(plcIp, port));
+            selectionKey = channel.register(eventLoop.selector(), SelectionKey.OP_CONNECT, this);
+            if (connectedNow) {
+                onConnectable();
+            }
+        } catch (IOException e) {
+            connectionLost("Connection failed: " + e.getMessage());
+        }
+    }
+
+    void onConnectable() {
+        try {
+            if (!channel.finishConnect()) return;
+            selectionKey.interestOps(SelectionKey.OP_READ);
+            log.info(logPrefix, "Connection to PLC successful.");
+            lastReceivedTime = System.currentTimeMillis();
+            sendConnectRequest();
+            log.info(logPrefix, "Sending Connection Request (CR) TSAP=" + _TSAP + ", externalTSAP=" + _externalTSAP);
+            moveTo(ConnectionState.CR_SENT);
+        } catch (IOException e) {
+            connectionLost("Connection failed: " + e.getMessage());
+        }
+    }
+
+    void onReadable() {
+        try {
+            int read = channel.read(frameDecoder.buffer());
+            if (read == -1) {
+                connectionLost("Connection closed by PLC");
                 return;
             }
+            lastReadNanos = System.nanoTime();
+            lastReceivedTime = System.currentTimeMillis();
+        } catch (IOException e) {
+            connectionLost("Telegram handling failed: " + e.getMessage());
+            return;
         }
+        decodeFrames();
     }
 
-    private void initializeConnectionSequence() throws IOException, InterruptedException {
-        sendConnectRequest();
-        log.info(logPrefix, "Sending Connection Request (CR) TSAP=" + _TSAP + ", externalTSAP=" + _externalTSAP);
-        Thread.sleep(100);
-
-        validateConnectResponse();
-        log.info(logPrefix, "Received Connection Confirm (CC)");
-        Thread.sleep(100);
-
-        new ConnectedTlg(channelId, version, 0x01, SubsystemID)
-            .send(outputStream, log, logPrefix);
-        lastSentTime = System.currentTimeMillis();
-        Thread.sleep(100);
-
-        ReadyTlg readyTelegram = new ReadyTlg(channelId, version, 0x01, SubsystemID, BypassMode, LLC_Mode);
-        readyTelegram.send(outputStream, log, logPrefix);
-        sequenceNo = readyTelegram.validate(inputStream, log, logPrefix);
-        lastSentTime = System.currentTimeMillis();
-
-        Thread.sleep(1000);
-        sendAckTelegram(sequenceNo);
-        if (waitForInitialResponse()) {
-            log.info(logPrefix, "KeepAlive response received. Entering KeepAlive-only mode.");
-            TelegramDispatcher telegramDispatcher = new TelegramDispatcher(inputStream, outputStream, log, logPrefix, this::scheduleReconnect);
-
-            telegramDispatcher.startDispatchLoop(); // handles all telegrams
-            telegramDispatcher.startTriggerServer();
-            TelegramSenderUI ui = new TelegramSenderUI(telegramDispatcher);
-            ui.showUI();
-          
-        } else {
-            log.warn(logPrefix, "No KeepAlive response. Starting full telegram dispatch mode.");
-              TelegramDispatcher telegramDispatcher =new TelegramDispatcher(inputStream, outputStream, log, logPrefix, this::scheduleReconnect);
-              telegramDispatcher.startDispatchLoop(); // handles all telegrams
-              // === Step 4: Launch frontend UI ===
-              telegramDispatcher.startTriggerServer();
-              TelegramSenderUI ui = new TelegramSenderUI(telegramDispatcher);
-              ui.showUI();
+    private void decodeFrames() {
+        try {
+            frameDecoder.decode(this::onFrame);
+        } catch (IOException e) {
+            connectionLost("Telegram handling failed: " + e.getMessage());
+        } catch (Exception e) {
+            log.error(logPrefix, "❌ Unexpected error while handling PLC data: " + e.getMessage(), e);
+            connectionLost("Unexpected error");
         }
     }
 
-    private boolean waitForInitialResponse() {
+    void onWritable() {
         try {
-            for (int retries = 0; retries < 3; retries++) {
-                KeepAliveTelegram();
-                log.info(logPrefix, "Waiting for KeepAlive response (" + (retries + 1) + "/3)...");
-
-                long startTime = System.currentTimeMillis();
-                while (System.currentTimeMillis() - startTime < 5000) {
-                    if (inputStream.available() >= 4) {
-                        byte[] header = new byte[4];
-                        readFully(inputStream, header, 0, 4);
-
-                        int length = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
-                        byte[] data = new byte[length - 4];
-                        readFully(inputStream, data, 0, data.length);
-
-                        if ((data[0] & 0xFF) == 0x02 && (data[1] & 0xFF) == 0xF0 && (data[2] & 0xFF) == 0x80) {
-                            log.info(logPrefix, "Valid KeepAlive response received.");
-                            lastReceivedTime = System.currentTimeMillis();
-                            return true;
-                        }
-                    }
-                    Thread.sleep(100);
+            OutboundWrite out;
+            while ((out = writeQueue.peek()) != null) {
+                if (out.session != session) { // queued for a socket that is gone
+                    writeQueue.poll();
+                    out.finished(false);
+                    continue;
                 }
+                ByteBuffer buffer = out.buffer;
+                channel.write(buffer);
+                if (buffer.hasRemaining()) return; // socket buffer full, wait for next OP_WRITE
+                writeQueue.poll();
+                lastSentTime = System.currentTimeMillis();
+                out.finished(true);
             }
-        } catch (IOException | InterruptedException e) {
-            log.error(logPrefix, "Initial KeepAlive wait failed: " + e.getMessage());
-            Thread.currentThread().interrupt();
+            int ops = readPaused ? 0 : SelectionKey.OP_READ;
+            selectionKey.interestOps(writeQueue.isEmpty() ? ops : ops | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            connectionLost("Write failed: " + e.getMessage());
         }
+    }
 
-        return false;
+    /**
+     * Drives the handshake; once ONLINE every frame goes to the dispatcher.
+     * The frame is a read-only view on the receive buffer, valid for this call only.
+     */
+    private boolean onFrame(ByteBuffer frame) throws IOException {
+        if (state != ConnectionState.ONLINE) journal(frame);
+        switch (state) {
+            case CR_SENT:
+                validateConnectResponse(frame);
+                log.info(logPrefix, "Received Connection Confirm (CC)");
+                new ConnectedTlg(channelId, version, 0x01, SubsystemID)
+                    .send(loopOutput, log, logPrefix);
+                ReadyTlg readyTelegram = new ReadyTlg(channelId, version, 0x01, SubsystemID, BypassMode, LLC_Mode);
+                readyTelegram.send(loopOutput, log, logPrefix);
+                moveTo(ConnectionState.READY);
+                break;
+            case READY:
+                if (frame.remaining() < 25) {
+                    log.debug(logPrefix, () -> "Ignoring short frame while waiting for READY: " + FrameUtil.hex(frame));
+                    break;
+                }
+                ReadyTlg ready = new ReadyTlg(channelId, version, 0x01, SubsystemID, BypassMode, LLC_Mode);
+                sequenceNo = ready.validate(handshakeFrame.wrap(frame), log, logPrefix);
+                sendAckTelegram(sequenceNo);
+                KeepAliveTelegram();
+                moveTo(ConnectionState.ONLINE);
+                onlineSince = System.currentTimeMillis();
+                connected = true;
+                log.info(logPrefix, "Connected successfully to PLC...");
+                startFrontend();
+                break;
+            case ONLINE:
+                if (!eventLoop.processor().offer(this, session, frame, lastReadNanos)) {
+                    pauseReading();
+                    return false; // frame stays in the receive buffer
+                }
+                journal(frame); // once: a refused frame is decoded again after the pause
+                break;
+            default:
+                break;
+        }
+        return state != ConnectionState.DISCONNECTED; // stop decoding when the frame closed the connection
     }
 
-    private void startKeepAliveMonitor() {
-        monitorRunning = true;
+    private void journal(ByteBuffer frame) {
+        TelegramJournal j = journal;
+        if (j != null) j.record(TelegramJournal.INBOUND, frame);
+    }
 
-        keepAliveMonitorThread = new Thread(() -> {
-            log.info(logPrefix, "KeepAlive monitor thread started.");
+    /**
+     * Runs on the processor thread for every frame this connection queued.
+     *
+     * @return false when the frame belonged to an earlier socket and was skipped
+     */
+    boolean processFrame(ByteBuffer frame, long frameSession, long receivedNanos) {
+        if (frameSession != session || state != ConnectionState.ONLINE) return false;
+        dispatchSession.set(frameSession); // replies go to the socket the frame came from, or nowhere
+        try {
+            telegramDispatcher.dispatchFrame(frame, receivedNanos);
+        } catch (IOException e) {
+            eventLoop.execute(() -> {
+                if (frameSession == session) connectionLost("Telegram handling failed: " + e.getMessage());
+            });
+        } catch (Exception e) {
+            log.error(logPrefix, "❌ Unexpected error while handling PLC data: " + e.getMessage(), e);
+            eventLoop.execute(() -> {
+                if (frameSession == session) connectionLost("Unexpected error");
+            });
+        } finally {
+            dispatchSession.remove();
+        }
+        return true;
+    }
 
-            while (monitorRunning) {
-                try {
-                    Thread.sleep(1000);
-                    long now = System.currentTimeMillis();
+    /** Backpressure: stop reading until the processor has room again. */
+    private void pauseReading() {
+        if (readPaused) return;
+        readPaused = true;
+        readPausedSince = System.nanoTime();
+        selectionKey.interestOps(selectionKey.interestOps() & ~SelectionKey.OP_READ);
+        eventLoop.processor().recordReadPause();
+        eventLoop.pauseReader(this);
+        log.info(logPrefix, "⏸ Processing queue full, pausing reads from PLC");
+    }
 
-                    if ((now - lastReceivedTime) > 15000) {
-                        log.error(logPrefix, "PLC unresponsive for 15s. Triggering disconnect.");
-                        break;
-                    }
+    /** Loop thread only. */
+    void resumeReading() {
+        if (!readPaused || selectionKey == null || !selectionKey.isValid()) return;
+        readPaused = false;
+        eventLoop.processor().recordPausedNanos(System.nanoTime() - readPausedSince);
+        selectionKey.interestOps(selectionKey.interestOps() | SelectionKey.OP_READ);
+        decodeFrames(); // frames that were left in the receive buffer
+    }
 
-                    if ((now - lastSentTime) >= 5000) {
-                        log.debug(logPrefix, "Sending KeepAlive...");
-                        KeepAliveTelegram();
-                        lastSentTime = System.currentTimeMillis();
-                    }
+    private void startFrontend() {
+        if (frontendStarted) return;
+        frontendStarted = true;
+        if (!java.awt.GraphicsEnvironment.isHeadless()) {
+            SwingUtilities.invokeLater(() -> new TelegramSenderUI(telegramDispatcher).showUI());
+        }
+    }
 
-                    if (inputStream.available() >= 4) {
-                        byte[] header = new byte[4];
-                        readFully(inputStream, header, 0, 4);
+    /** A queued write and the socket it was made for. */
+    private static final class OutboundWrite {
+        static final Runnable WRITTEN = () -> { };
+        static final Runnable DROPPED = () -> { };
 
-                        int length = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
-                        byte[] data = new byte[length - 4];
-                        readFully(inputStream, data, 0, data.length);
+        final long session;
+        final ByteBuffer buffer;
+        /** Action to run once written, then WRITTEN or DROPPED; see {@link #afterLastWrite}. */
+        final AtomicReference<Runnable> onWritten = new AtomicReference<>();
 
-                        if ((data[0] & 0xFF) == 0x02 && (data[1] & 0xFF) == 0xF0 && (data[2] & 0xFF) == 0x80) {
-                            lastReceivedTime = System.currentTimeMillis();
-                            log.debug(logPrefix, "KeepAlive acknowledged.");
-                        }
-                    }
+        OutboundWrite(long session, ByteBuffer buffer) {
+            this.session = session;
+            this.buffer = buffer;
+        }
 
-                } catch (Exception e) {
-                    log.error(logPrefix, "KeepAlive monitor error: " + e.getMessage());
-                    break;
-                }
-            }
+        void finished(boolean written) {
+            Runnable action = onWritten.getAndSet(written ? WRITTEN : DROPPED);
+            if (written && action != null && action != WRITTEN && action != DROPPED) action.run();
+        }
+    }
+
+    /** Last write this thread queued on the connection, for {@link #afterLastWrite}. */
+    private final ThreadLocal<OutboundWrite> lastWrite = new ThreadLocal<>();
+
+    /**
+     * Queues a complete telegram for the event loop to write. Thread-safe.
+     * <code>forSession</code> is the {@link #getSession() session} the caller saw
+     * the channel open in; a write for an older socket is dropped, here or, if
+     * the socket changes after queuing, in {@link #onWritable()}.
+     */
+    void enqueue(ByteBuffer telegram, long forSession) {
+        if (forSession != session) return;
+        TelegramJournal j = journal;
+        if (j != null) journalOutbound(j, telegram);
+        OutboundWrite out = new OutboundWrite(forSession, telegram);
+        lastWrite.set(out);
+        writeQueue.add(out);
+        eventLoop.execute(this::enableWrite);
+    }
+
+    /**
+     * Runs <code>action</code> on the event loop once the last write of the
+     * calling thread is in the socket; at once if it is already. Never runs for
+     * a write that was dropped or discarded with the socket.
+     */
+    void afterLastWrite(Runnable action) {
+        OutboundWrite out = lastWrite.get();
+        lastWrite.remove();
+        if (out == null) return;
+        if (!out.onWritten.compareAndSet(null, action) && out.onWritten.get() == OutboundWrite.WRITTEN) {
+            action.run();
+        }
+    }
 
+    long getSession() {
+        return session;
+    }
+
+    /** Session an application write belongs to: the handled frame's on the processor thread, else the current one. */
+    long getWriteSession() {
+        Long s = dispatchSession.get();
+        return s != null ? s : session;
+    }
+
+    /** True if <code>forSession</code> is the current socket and the link is ONLINE. */
+    boolean isOnline(long forSession) {
+        return forSession == session && state == ConnectionState.ONLINE && isChannelOpen();
+    }
+
+    /** One journal record per TPKT frame, also when a batch was queued as one buffer. */
+    private static void journalOutbound(TelegramJournal j, ByteBuffer telegrams) {
+        int pos = telegrams.position();
+        int end = telegrams.limit();
+        while (end - pos >= TpktFrameDecoder.DATA_OFFSET) {
+            int length = FrameUtil.word(telegrams, pos + 2);
+            if (length < TpktFrameDecoder.DATA_OFFSET || pos + length > end) length = end - pos; // not framed, keep as is
+            ByteBuffer frame = telegrams.duplicate();
+            frame.limit(pos + length).position(pos);
+            j.record(TelegramJournal.OUTBOUND, frame);
+            pos += length;
+        }
+    }
+
+    private void enableWrite() {
+        if (selectionKey != null && selectionKey.isValid() && !writeQueue.isEmpty()) {
+            selectionKey.interestOps(selectionKey.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    boolean isChannelOpen() {
+        SocketChannel ch = channel;
+        return ch != null && ch.isOpen();
+    }
+
+    /** Loop thread. Every failure ends here: close, then exactly one reconnect timer. */
+    private void connectionLost(String reason) {
+        log.error(logPrefix, reason);
+        boolean wasStable = state == ConnectionState.ONLINE
+                && System.currentTimeMillis() - onlineSince >= stableOnlineMillis;
+        closeChannel();
+        if (wasStable) backoff.reset();
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (shuttingDown) return;
+        long delay = backoff.nextDelayMillis();
+        long attempt = connectAttempt;
+        log.info(logPrefix, "Waiting " + delay + " ms before reconnect attempt " + backoff.getFailures() + "...");
+        eventLoop.schedule(() -> {
+            if (attempt == connectAttempt) openChannel(); // superseded by an operator reconnect otherwise
+        }, delay);
+    }
+
+    /** Loop thread; illegal transitions are programming errors and fail loudly. */
+    private void moveTo(ConnectionState next) {
+        ConnectionState current = state;
+        if (!current.canMoveTo(next)) {
+            throw new IllegalStateException("Illegal connection state change " + current + " -> " + next);
+        }
+        state = next;
+        log.debug(logPrefix, "Connection state {} -> {}", current, next);
+    }
+
+    /** Closes the socket; must run on the event loop. */
+    void closeChannel() {
+        if (selectionKey != null) {
+            selectionKey.cancel();
+            selectionKey = null;
+        }
+        if (channel != null) {
             try {
-                disconnect();
+                channel.close();
             } catch (IOException e) {
                 log.error(logPrefix, "Error during disconnect: " + e.getMessage());
             }
-            scheduleReconnect();
-        }, "KeepAliveMonitor");
-
-        keepAliveMonitorThread.setDaemon(true);
-        keepAliveMonitorThread.start();
+            channel = null;
+        }
+        writeQueue.clear();
+        frameDecoder.close();
+        telegramDispatcher.getInFlight().clear(); // the PLC will not ACK what it may never have received
+        telegramDispatcher.getAirlineTableDownload().invalidate(); // a restarted PLC has lost its tables
+        if (state != ConnectionState.DISCONNECTED) moveTo(ConnectionState.DISCONNECTED);
+        this.connected = false;
     }
 
-    private void scheduleReconnect() {
-        new Thread(() -> {
-            waitBeforeRetry();
-            connect();
-        }, "PLC-Reconnect").start();
+    public void disconnect() {
+        log.info(logPrefix, "Disconnecting from PLC...");
+        eventLoop.execute(this::closeChannel);
     }
 
-    private void waitBeforeRetry() {
-        try {
-            log.info(logPrefix, "Waiting 20 seconds before retrying connection...");
-            Thread.sleep(20000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error(logPrefix, "Reconnect wait interrupted.");
+    /**
+     * Called from the {@link KeepAliveManager} thread with the current time. Only
+     * volatile fields are read here; sending or closing is handed to the event loop.
+     */
+    void checkLink(long now) {
+        ConnectionState p = state;
+        if (p == ConnectionState.DISCONNECTED || p == ConnectionState.CONNECTING) return;
+        if (now - lastReceivedTime > receiveTimeout) {
+            eventLoop.execute(this::expireIfSilent);
+        } else if (p == ConnectionState.ONLINE && now - Math.max(lastSentTime, keepAliveQueuedAt) >= transmitTimeout) {
+            keepAliveQueuedAt = now;
+            eventLoop.execute(this::sendIdleKeepAlive);
+        }
+        if (p == ConnectionState.ONLINE && !telegramDispatcher.getInFlight().isEmpty()) {
+            eventLoop.execute(this::retransmitOverdue);
         }
     }
 
-    public void disconnect() throws IOException {
-        log.info(logPrefix, "Disconnecting from PLC...");
-        monitorRunning = false;
+    /** Loop thread: resends telegrams whose ACK is overdue, gives up after the retry limit. */
+    private void retransmitOverdue() {
+        if (state != ConnectionState.ONLINE) return;
+        telegramDispatcher.getInFlight().retransmitOverdue(
+                (buffer, offset, length) -> {
+                    log.warn(logPrefix, () -> "🔁 No ACK from PLC, retransmitting: "
+                            + FrameUtil.hex(ByteBuffer.wrap(buffer), offset, length));
+                    loopOutput.write(buffer, offset, length);
+                },
+                (sequenceNumber, telegramType, attempts) -> log.error(logPrefix,
+                        "❌ TT " + telegramType + " SeqNo=" + sequenceNumber + " not acknowledged after " + attempts + " attempts, given up"));
+    }
 
-        if (keepAliveMonitorThread != null && keepAliveMonitorThread.isAlive()) {
-            keepAliveMonitorThread.interrupt();
+    /** Loop thread: the PLC sent nothing within the receive timeout. */
+    private void expireIfSilent() {
+        if (state == ConnectionState.DISCONNECTED || state == ConnectionState.CONNECTING || readPaused) return; // paused: we stopped reading, not the PLC
+        long silent = System.currentTimeMillis() - lastReceivedTime;
+        if (silent > receiveTimeout) {
+            connectionLost("No data from PLC for " + silent + " ms, link considered dead");
         }
+    }
 
-        if (inputStream != null) inputStream.close();
-        if (outputStream != null) outputStream.close();
-        if (socket != null && !socket.isClosed()) socket.close();
-        this.connected = false;
+    /** Loop thread: nothing was sent within the transmit timeout. */
+    private void sendIdleKeepAlive() {
+        if (state != ConnectionState.ONLINE) return;
+        try {
+            KeepAliveTelegram();
+        } catch (IOException e) {
+            connectionLost("Keep-alive failed: " + e.getMessage());
+        }
+    }
+
+    /** Drops the current socket (if any) and connects again right away. Thread-safe. */
+    public void forceReconnect() {
+        eventLoop.execute(() -> {
+            if (shuttingDown) return;
+            log.warn(logPrefix, "🔄 Reconnect requested by operator");
+            closeChannel();
+            backoff.reset();
+            openChannel(); // also makes a pending reconnect timer obsolete
+        });
+    }
+
+    /** Disconnects and stops all reconnect attempts. */
+    public void shutdown() {
+        shuttingDown = true;
+        disconnect();
+        TelegramJournal j = journal;
+        if (j != null) j.close();
     }
 
     // this function is used to send the connection request to the PLC...
@@ -302,52 +610,44 @@ public class RFC1006TSAPHandler {
         _sendBuf[cnt++] = (byte) vaParm.length();
         for (int i = 0; i < vaParm.length(); i++) _sendBuf[cnt++] = (byte) vaParm.charAt(i);
 
-        outputStream.write(_sendBuf, 0, cnt);
-        outputStream.flush();   
+        loopOutput.write(_sendBuf, 0, cnt);
+        loopOutput.flush();   
         log.debug(logPrefix, "CR telegram sent");
-        log.info(logPrefix, "Sending CR telegram telegram: " + bytesToHex(_sendBuf));
-        lastSentTime = System.currentTimeMillis();
+        log.debug(logPrefix, () -> "Sending CR telegram telegram: " + FrameUtil.hex(_sendBuf));
     }
 
     // this function is used to validate the confirm request come from the PLC...
-    private void validateConnectResponse() throws IOException {
-        byte[] header = new byte[4];
-        readFully(inputStream, header, 0, 4);
-
-        if ((header[0] & 0xFF) != 0x03) {
-            throw new IOException("Invalid TPKT version: expected 0x03 but found " + (header[0] & 0xFF));
-        }
-
-        int totalLength = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+    private void validateConnectResponse(ByteBuffer frame) throws IOException {
+        int start = frame.position();
+        int totalLength = FrameUtil.word(frame, start + 2);
         int cotpLength = totalLength - 4;
 
         if (cotpLength < 7) {
             throw new IOException("COTP segment too short, expected at least 7 bytes but got " + cotpLength);
         }
 
-        byte[] cotp = new byte[cotpLength];
-        readFully(inputStream, cotp, 0, cotpLength);
+        int cotp = start + HEADSIZE; // absolute index of the COTP segment
 
         // Basic validation of Connect Confirm PDU
-        if ((cotp[0] & 0xFF) != (cotpLength - 1)) {
-            throw new IOException("Incorrect COTP length indicator (LI): expected " + (cotpLength - 1) + " but got " + (cotp[0] & 0xFF));
+        if ((frame.get(cotp) & 0xFF) != (cotpLength - 1)) {
+            throw new IOException("Incorrect COTP length indicator (LI): expected " + (cotpLength - 1) + " but got " + (frame.get(cotp) & 0xFF));
         }
 
-        if ((cotp[1] & 0xFF) != 0xD0) {
-            throw new IOException("Invalid Connect Confirm (CC) PDU type: Expected 0xD0, found 0x" + Integer.toHexString(cotp[1] & 0xFF));
+        if ((frame.get(cotp + 1) & 0xFF) != 0xD0) {
+            throw new IOException("Invalid Connect Confirm (CC) PDU type: Expected 0xD0, found 0x" + Integer.toHexString(frame.get(cotp + 1) & 0xFF));
         }
 
         log.info(logPrefix, "Connection Confirm (CC) received successfully");
-        log.info(logPrefix, "Receiving CC telegram: " + bytesToHex(header) + " " + bytesToHex(cotp));
+        log.debug(logPrefix, () -> "Receiving CC telegram: " + FrameUtil.hex(frame));
 
         // Start parsing parameters after header (LI=0, PDUType=1, DST=2-3, SRC=4-5, Class=6) => Start at idx = 7
         int idx = 7;
 
-        while (idx + 1 < cotp.length) {
-            int paramType = cotp[idx++] & 0xFF;
-            int paramLength = cotp[idx++] & 0xFF;
+        while (idx + 1 < cotpLength) {
+            int paramType = frame.get(cotp + idx++) & 0xFF;
+            int paramLength = frame.get(cotp + idx++) & 0xFF;
 
-            if (idx + paramLength > cotp.length) {
+            if (idx + paramLength > cotpLength) {
                 throw new IOException("Malformed parameter: length exceeds COTP payload");
             }
 
@@ -356,7 +656,7 @@ public class RFC1006TSAPHandler {
                     if (paramLength != 1) {
                         throw new IOException("Invalid TPDU Size parameter length (expected 1, got " + paramLength + ")");
                     }
-                    _tpduSize = (byte) (cotp[idx] & 0xFF);  // e.g., 0x0A
+                    _tpduSize = frame.get(cotp + idx);  // e.g., 0x0A
                     _tpduSizeInBytes = (int) Math.pow(2, _tpduSize);
                     _sendBuf = new byte[_tpduSizeInBytes + 4];  // +4 for TPKT header
                     log.info(logPrefix, "TPDU size set to " + _tpduSizeInBytes + " bytes (2^" + _tpduSize + ")");
@@ -366,7 +666,7 @@ public class RFC1006TSAPHandler {
                 case 0xC2: // Called TSAP
                     // Optionally you can store or log TSAP values
                     log.debug(logPrefix, "TSAP (Type 0x" + Integer.toHexString(paramType) + "): " +
-                    		bytesToHex(cotp, idx, paramLength));
+                    		FrameUtil.hex(frame, cotp + idx, paramLength));
                     break;
 
                 default:
@@ -376,27 +676,77 @@ public class RFC1006TSAPHandler {
 
             idx += paramLength;
         }
+    }
 
-        lastReceivedTime = System.currentTimeMillis();
+    public boolean isConnectionAlive() {
+        return this.connected;
     }
-    private static String bytesToHex(byte[] arr, int offset, int length) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = offset; i < offset + length; i++) {
-            sb.append(String.format("%02X ", arr[i]));
-        }
-        return sb.toString().trim();
+
+    public long getLastSentTime() {
+        return lastSentTime;
     }
-    
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
-        }
-        return sb.toString().trim();
+
+    public long getLastReceivedTime() {
+        return lastReceivedTime;
     }
 
-    public boolean isConnectionAlive() {
-        return this.connected;
+    public String getLogPrefix() {
+        return logPrefix;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    /** Longest the link may stay without a telegram from the CSC before a keep-alive is due. */
+    public long getTransmitTimeout() {
+        return transmitTimeout;
+    }
+
+    public void setTransmitTimeout(long millis) {
+        if (millis <= 0) throw new IllegalArgumentException("Transmit timeout must be positive: " + millis);
+        this.transmitTimeout = millis;
+    }
+
+    /** Longest the PLC may stay silent before the link counts as dead. */
+    public long getReceiveTimeout() {
+        return receiveTimeout;
+    }
+
+    public void setReceiveTimeout(long millis) {
+        if (millis <= 0) throw new IllegalArgumentException("Receive timeout must be positive: " + millis);
+        this.receiveTimeout = millis;
+    }
+
+    /** Longest wait between two connection attempts (the backoff cap). */
+    public long getReconnectMaxDelay() {
+        return backoff.getMaxDelayMillis();
+    }
+
+    public void setReconnectMaxDelay(long millis) {
+        backoff.setMaxDelayMillis(millis);
+    }
+
+    /** Failed attempts since the link was last stable. */
+    public int getReconnectFailures() {
+        return backoff.getFailures();
+    }
+
+    public String getPlcAddress() {
+        return plcIp + ":" + port;
+    }
+
+    public ConnectionState getConnectionState() {
+        return state;
+    }
+
+    /** Name of the {@link ConnectionState}. */
+    public String getState() {
+        return state.name();
+    }
+
+    public TelegramDispatcher getTelegramDispatcher() {
+        return telegramDispatcher;
     }
     
     public void sendAckTelegram(int sequenceNumber) throws IOException {
@@ -447,10 +797,9 @@ public class RFC1006TSAPHandler {
         System.arraycopy(fullPayload, 0, telegram, 7, fullPayload.length);
 
         // === Send to PLC ===
-        log.info(logPrefix, "Sending ACK (TT=102) telegram: " + bytesToHex(telegram));
-        outputStream.write(telegram);
-        outputStream.flush();
-        lastSentTime = System.currentTimeMillis();
+        log.debug(logPrefix, () -> "Sending ACK (TT=102) telegram: " + FrameUtil.hex(telegram));
+        loopOutput.write(telegram);
+        loopOutput.flush();
         log.info(logPrefix, "ACK telegram sent from CSC to PLC");
     }
 
@@ -460,74 +809,8 @@ public class RFC1006TSAPHandler {
         byte[] KeepAliveTelegram = new byte[] {
             TPKT_VERSION, TPKT_RESERVE, 0x00, 0x08, 0x02, (byte) 0xf0, (byte) 0x80, 0x00
         };
-        outputStream.write(KeepAliveTelegram);
-        outputStream.flush();
-        lastSentTime = System.currentTimeMillis();
-        log.info(logPrefix, "KeepAlive telegram sent");
-       // === Send to PLC ===
-        lastSentTime = System.currentTimeMillis();
-        log.info(logPrefix, "Sending KeepAlive  telegram: " + bytesToHex(KeepAliveTelegram));
-    }
-
-    public boolean validateKeepAliveResponse() {
-        try {
-            byte[] response = new byte[8];
-            readFully(inputStream, response, 0, response.length);
-
-            // TPKT Version check (should be 0x03)
-            if ((response[0] & 0xFF) != 0x03) {
-                log.error(logPrefix, "Invalid TPKT version in KeepAlive response");
-                return false;
-            }
-
-            // COTP PDU check (should be F0 80)
-            if ((response[5] & 0xFF) != 0xF0 || (response[6] & 0xFF) != 0x80) {
-                log.error(logPrefix, "Invalid COTP PDU in KeepAlive response");
-                return false;
-            }
-
-            lastReceivedTime = System.currentTimeMillis(); // 🟢 valid telegram received
-            log.info(logPrefix, "KeepAlive response received successfully");
-            log.info(logPrefix, "Received KeepAlive telegram: " + bytesToHex(response));
-            return true;
-            
-
-        } catch (IOException e) {
-            log.error(logPrefix, "Error reading KeepAlive response: " + e.getMessage());
-            return false;
-        }
-    }
-
-
-    public byte[] receiveTelegram() throws IOException {
-        byte[] header = new byte[4];
-        readFully(inputStream, header, 0, 4);
-
-        if ((header[0] & 0xFF) != 0x03) throw new IOException("Invalid TPKT version");
-
-        int totalLength = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
-        byte[] payload = new byte[totalLength - 4];
-        readFully(inputStream, payload, 0, payload.length);
-        lastReceivedTime = System.currentTimeMillis();
-        log.debug(logPrefix, "Telegram received from PLC");
-        return payload;
-    }
-
-
-
-  
-    private void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
-        while (length > 0) {
-            int read = in.read(buffer, offset, length);
-            if (read == -1) throw new IOException("Connection closed unexpectedly");
-            offset += read;
-            length -= read;
-        }
-    }
-
-    private String getTSAPString(byte[] tsap) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : tsap) sb.append(String.format("%02X", b));
-        return sb.toString();
+        loopOutput.write(KeepAliveTelegram);
+        loopOutput.flush();
+        log.debug(logPrefix, () -> "Sending KeepAlive telegram: " + FrameUtil.hex(KeepAliveTelegram));
     }
 }
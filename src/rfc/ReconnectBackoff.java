@@ -0,0 +1,70 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : ReconnectBackoff Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Capped exponential reconnect delay with jitter
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Backoff cap must be positive, a cap of 0 would reconnect without delay
+
+
+package rfc;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import platform.core.config.AppSettings;
+
+/**
+ * Delay before the next connection attempt of one PLC link.
+ * <p>
+ * The first retry after a link that was up comes quickly
+ * (<code>reconnect.firstDelayMillis</code>, default 500), so a PLC reboot or a
+ * short network glitch is recovered in about a second. Every further failed
+ * attempt doubles the delay from <code>reconnect.baseDelayMillis</code> up to
+ * <code>reconnect.maxDelayMillis</code>. Each delay is drawn from its upper half
+ * ("equal jitter") so 40 PLC links that failed together do not retry in lock step.
+ * Not thread-safe; used by the connection's event loop only.
+ */
+public final class ReconnectBackoff {
+
+    private final long firstDelayMillis = AppSettings.getLong("reconnect.firstDelayMillis", 500);
+    private final long baseDelayMillis = Math.max(AppSettings.getLong("reconnect.baseDelayMillis", 1000), 1);
+    private volatile long maxDelayMillis = Math.max(AppSettings.getLong("reconnect.maxDelayMillis", 30000), 1);
+    private volatile int failures;
+
+    /** Delay for the next attempt; counts it as one more failure. */
+    public long nextDelayMillis() {
+        int n = failures++;
+        long delay;
+        if (n == 0) {
+            delay = firstDelayMillis;
+        } else {
+            delay = baseDelayMillis << Math.min(n - 1, 30);
+        }
+        delay = Math.min(Math.max(delay, 0), maxDelayMillis);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    /** The link reached ONLINE and stayed there; the next failure retries fast again. */
+    public void reset() {
+        failures = 0;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public void setMaxDelayMillis(long millis) {
+        if (millis <= 0) throw new IllegalArgumentException("Reconnect delay cap must be positive: " + millis);
+        this.maxDelayMillis = millis;
+    }
+}
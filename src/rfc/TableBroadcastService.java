@@ -0,0 +1,240 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TableBroadcastService Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : One trigger server, airline table loaded once and sent to all PLCs in parallel
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+
+
+package rfc;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import Entity.AirlineAllocation;
+import conveyorinterface.plctelegrams.AirlineTableDownload;
+import conveyorinterface.plctelegrams.AirlineTableImage;
+import platform.core.Repository.AirlineAllocationRepository;
+import platform.core.config.AppSettings;
+
+/**
+ * Listens for <code>START_SENDING</code> on <code>broadcast.triggerPort</code>
+ * (default 6000, the port each dispatcher used to bind on its own, so only the
+ * first PLC ever got the trigger) and brings the airline code table of every
+ * ONLINE PLC up to date.
+ * <p>
+ * Per trigger the table is read from the database once and encoded once into an
+ * {@link AirlineTableImage}; the download of every PLC then streams from that
+ * shared block on its own thread, so all PLCs load concurrently and a slow PLC
+ * does not hold up the others. Progress per PLC is logged every
+ * <code>broadcast.progressSeconds</code> until all downloads have finished, and
+ * shown in /status.
+ */
+public class TableBroadcastService {
+
+    private static final String TRIGGER = "START_SENDING";
+
+    private final RFC1006SelectorEngine engine;
+    private final int port;
+    private final String host;
+    private final long progressMillis = Math.max(AppSettings.getLong("broadcast.progressSeconds", 2), 1) * 1000;
+
+    private volatile ServerSocket server;
+    private volatile boolean running;
+    private volatile long lastTriggerTime;
+    private volatile int lastEntryCount;
+    private volatile int lastBlockBytes;
+    private volatile long lastEncodeMicros;
+    private volatile int lastTargets;
+    private volatile long lastDurationMillis;
+
+    public TableBroadcastService(RFC1006SelectorEngine engine, String host, int port) {
+        this.engine = engine;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Starts the trigger server configured in csc.properties.
+     *
+     * @return the running service, or null when disabled or the port is taken
+     */
+    public static TableBroadcastService startFromSettings(RFC1006SelectorEngine engine) {
+        int port = AppSettings.getInt("broadcast.triggerPort", 6000);
+        if (port <= 0) return null;
+        TableBroadcastService service = new TableBroadcastService(engine,
+                AppSettings.getString("broadcast.triggerHost", "0.0.0.0"), port);
+        try {
+            service.start();
+            return service;
+        } catch (IOException e) {
+            System.err.println("❌ Trigger server not started on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void start() throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getByName(host));
+        Thread t = new Thread(this::acceptLoop, "Table-Broadcast-Trigger");
+        t.setDaemon(true);
+        t.start();
+        System.out.println("📡 Trigger server listening on port " + port + "...");
+    }
+
+    public void stop() {
+        ServerSocket s = server;
+        server = null;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (server != null) {
+            try (Socket client = server.accept()) {
+                byte[] buf = new byte[256];
+                int read = client.getInputStream().read(buf);
+                if (read <= 0) continue;
+                String message = new String(buf, 0, read, StandardCharsets.US_ASCII).trim();
+                if (TRIGGER.equals(message)) {
+                    System.out.println("📡 Trigger received, sending airline telegrams to all PLCs...");
+                    broadcastAirlineTable();
+                } else {
+                    System.err.println("⚠️ Unknown trigger ignored: " + message);
+                }
+            } catch (IOException e) {
+                if (server != null) System.err.println("❌ Trigger server: " + e.getMessage());
+            } catch (RuntimeException | LinkageError e) {
+                System.err.println("❌ Airline table broadcast failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Loads and encodes the table once and starts the download of every ONLINE
+     * PLC whose confirmed table differs. Returns at once; progress is reported
+     * by a background thread.
+     *
+     * @return number of PLCs a download was started for
+     */
+    public synchronized int broadcastAirlineTable() {
+        if (running) {
+            System.err.println("⚠️ Airline table broadcast still running, trigger ignored");
+            return 0;
+        }
+        lastTriggerTime = System.currentTimeMillis();
+
+        // === Step 1: One database read for all PLCs ===
+        List<AirlineAllocation> entries = new ArrayList<>();
+        for (AirlineAllocation a : AirlineAllocationRepository.getEnabledEntries()) {
+            // Skip if disabled or deleted
+            if (!Boolean.TRUE.equals(a.getEnableStatus()) || Boolean.TRUE.equals(a.getDeleted())) continue;
+            entries.add(a);
+        }
+
+        // === Step 2: Encode once into the shared block ===
+        AirlineTableImage image = AirlineTableImage.of(entries);
+        lastEntryCount = image.getEntryCount();
+        lastBlockBytes = image.getBlockSize();
+        lastEncodeMicros = image.getEncodeMicros();
+
+        // === Step 3: Every ONLINE PLC streams from the block on its own thread ===
+        List<RFC1006TSAPHandler> targets = new ArrayList<>();
+        for (RFC1006TSAPHandler h : engine.getHandlers()) {
+            if (!ConnectionState.ONLINE.name().equals(h.getState())) {
+                System.out.println("⏭️ " + h.getLogPrefix() + " not ONLINE (" + h.getState() + "), airline table skipped");
+                continue;
+            }
+            if (h.getTelegramDispatcher().getAirlineTableDownload().sync(image)) targets.add(h);
+        }
+        lastTargets = targets.size();
+        System.out.println("📡 Airline table: " + image.getEntryCount() + " entries, " + image.getBlockSize()
+                + " bytes encoded in " + image.getEncodeMicros() + " µs, downloading to " + targets.size() + " PLC(s)");
+        if (targets.isEmpty()) {
+            lastDurationMillis = System.currentTimeMillis() - lastTriggerTime;
+            return 0;
+        }
+
+        running = true;
+        Thread monitor = new Thread(() -> reportProgress(targets), "Table-Broadcast-Progress");
+        monitor.setDaemon(true);
+        monitor.start();
+        return targets.size();
+    }
+
+    /** Logs progress per PLC until every download has finished, then a summary. */
+    private void reportProgress(List<RFC1006TSAPHandler> targets) {
+        try {
+            while (true) {
+                boolean busy = false;
+                StringBuilder sb = new StringBuilder("📡 Airline table progress:");
+                for (RFC1006TSAPHandler h : targets) {
+                    AirlineTableDownload dl = h.getTelegramDispatcher().getAirlineTableDownload();
+                    AirlineTableDownload.State st = dl.getState();
+                    busy |= st == AirlineTableDownload.State.SENDING || st == AirlineTableDownload.State.AWAITING_COMPLETE;
+                    sb.append("\n   ").append(h.getLogPrefix()).append(' ').append(st)
+                      .append(' ').append(dl.getEntriesSent()).append('/').append(dl.getEntriesTotal());
+                    if (dl.getAttempt() > 1) sb.append(" (attempt ").append(dl.getAttempt()).append(')');
+                    if (st == AirlineTableDownload.State.COMPLETED || st == AirlineTableDownload.State.FAILED) {
+                        sb.append(" in ").append(dl.getLastDurationMillis()).append(" ms");
+                    }
+                }
+                if (!busy) {
+                    lastDurationMillis = System.currentTimeMillis() - lastTriggerTime;
+                    System.out.println(sb.append("\n📡 Airline table broadcast finished in ")
+                            .append(lastDurationMillis).append(" ms"));
+                    return;
+                }
+                System.out.println(sb);
+                Thread.sleep(progressMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getLastTriggerTime() {
+        return lastTriggerTime;
+    }
+
+    public int getLastEntryCount() {
+        return lastEntryCount;
+    }
+
+    public int getLastBlockBytes() {
+        return lastBlockBytes;
+    }
+
+    public long getLastEncodeMicros() {
+        return lastEncodeMicros;
+    }
+
+    /** PLCs the last broadcast started a download for (the others were up to date or offline). */
+    public int getLastTargets() {
+        return lastTargets;
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+}
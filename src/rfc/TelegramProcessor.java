@@ -0,0 +1,177 @@
+// Base                 : Conveyor Sortaion Controller
+// Class                : TelegramProcessor Class
+// Programmer           : Giresh
+// Release Date         : 2026-10-18
+// Revision Number      : 1.0
+// Description          : Processing stage behind one RFC1006 event loop
+// ================================================================================
+// Change history
+// Rev.     Date         Programmer    Description
+// --------------------------------------------------------------------------------
+//01.00    2026.10.18    Giresh         Initial Version
+//01.01    2026.10.18    Giresh         Socket read time kept per slot and passed to the dispatcher
+//01.02    2026.10.18    Giresh         getName() for the status endpoint
+
+
+package rfc;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import platform.core.config.AppSettings;
+import platform.io.pipeline.BatchProcessor;
+import platform.io.pipeline.RingBuffer;
+import platform.io.pipeline.WaitStrategies;
+import platform.io.pipeline.WaitStrategy;
+
+/**
+ * Moves telegram handling (DB lookups, replies) off the selector thread.
+ * The event loop copies each ONLINE frame into a pre-allocated ring slot; one
+ * processor thread per loop dispatches them in arrival order, so the order per
+ * PLC is kept and a slow database can no longer stall socket reads, writes or
+ * keep-alives.
+ * <p>
+ * Backpressure: when the ring is full the connection stops reading (OP_READ
+ * off, frames stay in its receive buffer and TCP pushes back to the PLC) until
+ * the processor has freed space.
+ */
+public class TelegramProcessor {
+
+    /** One pre-allocated ring slot. */
+    static final class InboundTelegram {
+        RFC1006TSAPHandler handler;
+        long session;
+        long receivedNanos;
+        byte[] data;
+        ByteBuffer view;
+        int length;
+
+        InboundTelegram(int slotBytes) {
+            data = new byte[slotBytes];
+            view = ByteBuffer.wrap(data);
+        }
+
+        void copyFrom(ByteBuffer frame) {
+            int len = frame.remaining();
+            if (len > data.length) { // rare: bigger than the usual telegram, grow this slot
+                data = new byte[len];
+                view = ByteBuffer.wrap(data);
+            }
+            frame.get(frame.position(), data, 0, len);
+            length = len;
+        }
+    }
+
+    private final RingBuffer<InboundTelegram> ring;
+    private final WaitStrategy waitStrategy;
+    private final BatchProcessor<InboundTelegram> processor;
+    private final Thread thread;
+    private final AtomicLong readPauses = new AtomicLong();
+    private final AtomicLong pausedNanos = new AtomicLong();
+    private final AtomicLong staleDropped = new AtomicLong();
+
+    public TelegramProcessor(String name, RFC1006EventLoop eventLoop) {
+        int slotBytes = AppSettings.getInt("pipeline.slotBytes", 512);
+        this.waitStrategy = WaitStrategies.forName(AppSettings.getString("pipeline.waitStrategy", "blocking"));
+        this.ring = new RingBuffer<>(AppSettings.getInt("pipeline.ringSize", 4096),
+                () -> new InboundTelegram(slotBytes), waitStrategy);
+        this.processor = new BatchProcessor<>(ring, this::process, () -> eventLoop.execute(eventLoop::resumePausedReaders));
+        this.thread = new Thread(processor, name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void shutdown() {
+        processor.halt();
+    }
+
+    /**
+     * Copies the frame into the ring. Event loop thread only.
+     *
+     * @param receivedNanos {@link System#nanoTime()} of the socket read that completed the frame
+     * @return false when the ring is full; the frame was not taken
+     */
+    boolean offer(RFC1006TSAPHandler handler, long session, ByteBuffer frame, long receivedNanos) {
+        long sequence = ring.tryNext();
+        if (sequence < 0) return false;
+        InboundTelegram slot = ring.get(sequence);
+        slot.handler = handler;
+        slot.session = session;
+        slot.receivedNanos = receivedNanos;
+        slot.copyFrom(frame);
+        ring.publish(sequence);
+        return true;
+    }
+
+    private void process(InboundTelegram slot, long sequence, boolean endOfBatch) {
+        RFC1006TSAPHandler handler = slot.handler;
+        slot.handler = null;
+        slot.view.limit(slot.length).position(0);
+        if (!handler.processFrame(slot.view, slot.session, slot.receivedNanos)) {
+            staleDropped.incrementAndGet();
+        }
+    }
+
+    void recordReadPause() {
+        readPauses.incrementAndGet();
+    }
+
+    void recordPausedNanos(long nanos) {
+        pausedNanos.addAndGet(nanos);
+    }
+
+    public String getName() {
+        return thread.getName();
+    }
+
+    public String getWaitStrategy() {
+        return waitStrategy.toString();
+    }
+
+    public int getCapacity() {
+        return ring.getCapacity();
+    }
+
+    public int getDepth() {
+        return ring.getDepth();
+    }
+
+    public int getMaxDepth() {
+        return ring.getMaxDepth();
+    }
+
+    public long getPublishedCount() {
+        return ring.getPublishedCount();
+    }
+
+    public long getProcessedCount() {
+        return processor.getProcessedCount();
+    }
+
+    /** Times a connection found the ring full. */
+    public long getRejectedCount() {
+        return ring.getRejectedCount();
+    }
+
+    /** Times a connection stopped reading because of backpressure. */
+    public long getReadPauseCount() {
+        return readPauses.get();
+    }
+
+    /** Total time connections spent with reading paused. */
+    public long getReadPausedMillis() {
+        return pausedNanos.get() / 1_000_000L;
+    }
+
+    /** Frames skipped because their connection had been closed meanwhile. */
+    public long getStaleDroppedCount() {
+        return staleDropped.get();
+    }
+
+    public double getAverageBatchSize() {
+        return processor.getAverageBatchSize();
+    }
+}